@@ -6,9 +6,11 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import javafx.collections.FXCollections;
 
+import java.sql.SQLException;
 import java.util.List;
 
 import databasePart1.DiscussionBoardDAO;
+import databasePart1.FlaggedItem;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 
@@ -87,9 +89,9 @@ public class AdminHomePage {
         VBox box = new VBox(8);
         box.setPadding(new Insets(10));
 
-        // list flagged items
-        ListView<String> flaggedList = new ListView<>();
-        flaggedList.setItems(FXCollections.observableArrayList(dao.getFlaggedItems().keySet()));
+        // list flagged items (described by their content, resolved in one query)
+        ListView<FlaggedItem> flaggedList = new ListView<>();
+        loadFlaggedItems(dao, flaggedList);
 
         TextArea chatArea = new TextArea();
         chatArea.setEditable(false);
@@ -99,8 +101,9 @@ public class AdminHomePage {
         replyField.setPromptText("Reply to selected flagged item");
         Button replyBtn = new Button("Reply");
         replyBtn.setOnAction(a -> {
-            String sel = flaggedList.getSelectionModel().getSelectedItem();
-            if (sel == null) return;
+            FlaggedItem selItem = flaggedList.getSelectionModel().getSelectedItem();
+            if (selItem == null) return;
+            String sel = selItem.getItemId();
                 try {
                     try {
                         // store admin reply as a flagged-item note so each flagged item has its own chat history
@@ -123,7 +126,7 @@ public class AdminHomePage {
             flaggedList.getSelectionModel().selectedItemProperty().addListener((obs, oldSel, newSel) -> {
                 chatArea.clear();
                 if (newSel == null) return;
-                List<String> notes = dao.getFlaggedItems().getOrDefault(newSel, java.util.Collections.emptyList());
+                List<String> notes = newSel.getNotes();
                 if (!notes.isEmpty()) {
                     chatArea.appendText("Notes:\n");
                     notes.forEach(n -> chatArea.appendText(" - " + n + "\n"));
@@ -132,10 +135,10 @@ public class AdminHomePage {
 
         Button unflagBtn = new Button("Unflag Selected");
         unflagBtn.setOnAction(a -> {
-            String sel = flaggedList.getSelectionModel().getSelectedItem();
+            FlaggedItem sel = flaggedList.getSelectionModel().getSelectedItem();
             if (sel == null) return;
-            dao.unflagItem(sel, userName);
-            flaggedList.setItems(FXCollections.observableArrayList(dao.getFlaggedItems().keySet()));
+            dao.unflagItem(sel.getItemId(), userName);
+            loadFlaggedItems(dao, flaggedList);
         });
 
         HBox controls = new HBox(6, replyField, replyBtn, unflagBtn);
@@ -144,4 +147,13 @@ public class AdminHomePage {
         dialog.showAndWait();
         dao.closeConnection();
     }
+
+    // fill the list from resolveFlaggedItems (left empty if the query fails)
+    private static void loadFlaggedItems(DiscussionBoardDAO dao, ListView<FlaggedItem> list) {
+        try {
+            list.setItems(FXCollections.observableArrayList(dao.resolveFlaggedItems()));
+        } catch (SQLException e) {
+            list.setItems(FXCollections.observableArrayList());
+        }
+    }
 }
\ No newline at end of file
@@ -11,6 +11,8 @@ public class Answer {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean isAccepted;
+    //start of the content, on list rows that are loaded without it
+    private String preview;
 
     //constructor getter and setter
     public Answer(int questionId, String content, String authorUserName) {
@@ -33,6 +35,12 @@ public class Answer {
         this.isAccepted = isAccepted;
     }
 
+    //copy constructor (the DAO hands out copies of the answers it caches)
+    public Answer(Answer other) {
+        this(other.answerId, other.questionId, other.content, other.authorUserName, other.createdAt, other.updatedAt, other.isAccepted);
+        this.preview = other.preview;
+    }
+
     //getters and setters
     public int getAnswerId() {
         return answerId;
@@ -55,6 +63,13 @@ public class Answer {
     public boolean getIsAccepted() {
         return isAccepted;
     }
+    //first characters of the content for list rows (getContent() is null on summaries)
+    public String getPreview() {
+        return preview;
+    }
+    public void setPreview(String preview) {
+        this.preview = preview;
+    }
     public void setAnswerId(int answerId) {
         this.answerId = answerId;
     }
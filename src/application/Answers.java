@@ -1,49 +1,64 @@
 package application;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 //manages the collection of answers and allows CRUD operations
+//lookups by id, question, author and accepted status go through indexes kept in step with the list
 public class Answers {
     private List<Answer> answerList;
-    
+
+    // indexes (rebuilt for an answer by reindex() if its accepted status changes)
+    private final Map<Integer, Answer> byId = new HashMap<>();
+    private final Map<Integer, List<Answer>> byQuestion = new HashMap<>();
+    private final Map<String, List<Answer>> byAuthor = new HashMap<>();
+    private final List<Answer> accepted = new ArrayList<>();
+    private final List<Answer> notAccepted = new ArrayList<>();
+    // the keys each answer was indexed under, so it can be unindexed after in-place changes
+    private final Map<Answer, IndexKeys> indexedAs = new IdentityHashMap<>();
+
     // constructor
     public Answers() {
         this.answerList = new ArrayList<>();
     }
-    
+
     // constructor with initial list
     public Answers(List<Answer> answers) {
         this.answerList = new ArrayList<>(answers);
+        for (Answer a : answerList) index(a);
     }
-    
+
     // add a new answer
     public void addAnswer(Answer answer) {
         answerList.add(answer);
+        index(answer);
     }
-    
+
     // get all answers
     public List<Answer> getAllAnswers() {
         return new ArrayList<>(answerList);
     }
-    
+
+    // read-only view of all answers (no copy)
+    public List<Answer> asList() {
+        return Collections.unmodifiableList(answerList);
+    }
+
     // get a specific answer by ID
     public Answer getAnswerById(int answerId) {
-        return answerList.stream()
-            .filter(a -> a.getAnswerId() == answerId)
-            .findFirst()
-            .orElse(null);
+        return byId.get(answerId);
     }
-    
+
     // get all answers for a specific question
     public Answers getAnswersForQuestion(int questionId) {
-        List<Answer> filtered = answerList.stream()
-            .filter(a -> a.getQuestionId() == questionId)
-            .collect(Collectors.toList());
-        return new Answers(filtered);
+        return new Answers(viewForQuestion(questionId));
     }
-    
+
     // update an existing answer
     public boolean updateAnswer(int answerId, String newContent) {
         Answer answer = getAnswerById(answerId);
@@ -53,68 +68,139 @@ public class Answers {
         }
         return false;
     }
-    
+
+    // refresh the indexes for an answer whose accepted status or question was changed in place
+    public void reindex(int answerId) {
+        for (Answer a : answerList) {
+            if (a.getAnswerId() == answerId) {
+                unindex(a);
+                index(a);
+            }
+        }
+    }
+
     // remove  answer
     public boolean deleteAnswer(int answerId) {
-        return answerList.removeIf(a -> a.getAnswerId() == answerId);
+        if (!byId.containsKey(answerId)) return false;
+        byId.remove(answerId);
+        return answerList.removeIf(a -> {
+            if (a.getAnswerId() != answerId) return false;
+            unindex(a);
+            return true;
+        });
     }
-    
+
     // remove all answers for a specific question
     public boolean deleteAnswersForQuestion(int questionId) {
-        return answerList.removeIf(a -> a.getQuestionId() == questionId);
+        if (!byQuestion.containsKey(questionId)) return false;
+        return answerList.removeIf(a -> {
+            if (a.getQuestionId() != questionId) return false;
+            unindex(a);
+            if (byId.get(a.getAnswerId()) == a) byId.remove(a.getAnswerId());
+            return true;
+        });
     }
-    
+
     // search by content
     public Answers searchByContent(String keyword) {
         List<Answer> filtered = answerList.stream()
-            .filter(a -> a.getContent().toLowerCase().contains(keyword.toLowerCase()))
+            .filter(a -> a.getContent() != null && a.getContent().toLowerCase().contains(keyword.toLowerCase()))
             .collect(Collectors.toList());
         return new Answers(filtered);
     }
-    
+
     // author filter
     public Answers filterByAuthor(String authorUserName) {
-        List<Answer> filtered = answerList.stream()
-            .filter(a -> authorUserName.equals(a.getAuthorUserName()))
-            .collect(Collectors.toList());
-        return new Answers(filtered);
+        return new Answers(viewByAuthor(authorUserName));
     }
     // accepted status filter
     public Answers filterByAcceptedStatus(boolean isAccepted) {
-        List<Answer> filtered = answerList.stream()
-            .filter(a -> a.getIsAccepted() == isAccepted)
-            .collect(Collectors.toList());
-        return new Answers(filtered);
+        return new Answers(viewByAcceptedStatus(isAccepted));
+    }
+
+    // read-only views straight from the indexes (no copy); only valid until this collection is next modified
+    public List<Answer> viewForQuestion(int questionId) {
+        return Collections.unmodifiableList(byQuestion.getOrDefault(questionId, Collections.emptyList()));
+    }
+
+    public List<Answer> viewByAuthor(String authorUserName) {
+        return Collections.unmodifiableList(byAuthor.getOrDefault(authorUserName, Collections.emptyList()));
     }
-    
+
+    public List<Answer> viewByAcceptedStatus(boolean isAccepted) {
+        return Collections.unmodifiableList(isAccepted ? accepted : notAccepted);
+    }
+
     // search answers for a specific question
     public Answers searchAnswersForQuestion(int questionId, String keyword) {
-        List<Answer> filtered = answerList.stream()
-            .filter(a -> a.getQuestionId() == questionId &&
-                        a.getContent().toLowerCase().contains(keyword.toLowerCase()))
+        List<Answer> filtered = viewForQuestion(questionId).stream()
+            .filter(a -> a.getContent() != null && a.getContent().toLowerCase().contains(keyword.toLowerCase()))
             .collect(Collectors.toList());
         return new Answers(filtered);
     }
-    
+
     // get count of answers
     public int size() {
         return answerList.size();
     }
-    
+
     // check if empty
     public boolean isEmpty() {
         return answerList.isEmpty();
     }
-    
+
     // clear all answers
     public void clear() {
         answerList.clear();
+        byId.clear();
+        byQuestion.clear();
+        byAuthor.clear();
+        accepted.clear();
+        notAccepted.clear();
+        indexedAs.clear();
     }
-    
+
     // get count of answers for question
     public int getAnswerCountForQuestion(int questionId) {
-        return (int) answerList.stream()
-            .filter(a -> a.getQuestionId() == questionId)
-            .count();
+        List<Answer> bucket = byQuestion.get(questionId);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    // index helpers (the first answer added with an id wins id lookups, as with a list scan)
+    private void index(Answer a) {
+        byId.putIfAbsent(a.getAnswerId(), a);
+        IndexKeys keys = new IndexKeys(a.getQuestionId(), a.getAuthorUserName(), a.getIsAccepted());
+        indexedAs.put(a, keys);
+        byQuestion.computeIfAbsent(keys.questionId, k -> new ArrayList<>()).add(a);
+        if (keys.author != null) byAuthor.computeIfAbsent(keys.author, k -> new ArrayList<>()).add(a);
+        (keys.accepted ? accepted : notAccepted).add(a);
+    }
+
+    private void unindex(Answer a) {
+        IndexKeys keys = indexedAs.remove(a);
+        if (keys == null) return;
+        removeFromBucket(byQuestion, keys.questionId, a);
+        removeFromBucket(byAuthor, keys.author, a);
+        (keys.accepted ? accepted : notAccepted).remove(a);
+    }
+
+    private static <K> void removeFromBucket(Map<K, List<Answer>> index, K key, Answer a) {
+        if (key == null) return;
+        List<Answer> bucket = index.get(key);
+        if (bucket == null) return;
+        bucket.remove(a);
+        if (bucket.isEmpty()) index.remove(key);
+    }
+
+    private static final class IndexKeys {
+        final int questionId;
+        final String author;
+        final boolean accepted;
+
+        IndexKeys(int questionId, String author, boolean accepted) {
+            this.questionId = questionId;
+            this.author = author;
+            this.accepted = accepted;
+        }
     }
-}
\ No newline at end of file
+}
@@ -4,13 +4,25 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import databasePart1.AsyncDiscussionBoardDAO;
 import databasePart1.DiscussionBoardDAO;
+import databasePart1.FlagKey;
+import databasePart1.FlagSnapshot;
+import databasePart1.FlaggedItem;
+import databasePart1.LogEntry;
+import databasePart1.TaskEvent;
+import databasePart1.TaskEventBus;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 //UI for the discussion board
 public class DisussionBoardPage {
@@ -18,6 +30,8 @@ public class DisussionBoardPage {
     private String currentUserName;
     private String currentUserRole;
     private DiscussionBoardDAO dao;
+    //runs the slow DAO calls off the FX thread; results come back on the FX thread
+    private AsyncDiscussionBoardDAO asyncDao;
 
     //UI components
     private ListView<Question> questionListView;
@@ -29,6 +43,29 @@ public class DisussionBoardPage {
     //currently selected question
     private Question selectedQuestion;
 
+    //flag status used for rendering and filtering; re-taken only when the DAO flag state changes
+    private FlagSnapshot flagSnapshot = FlagSnapshot.EMPTY;
+    // repaint flag markers when another client flags or unflags something
+    private final Consumer<FlagSnapshot> remoteFlagListener = snapshot -> Platform.runLater(() -> {
+        if (questionListView != null) questionListView.refresh();
+        if (answerListView != null) answerListView.refresh();
+    });
+
+    //max ranked results shown for one search
+    private static final int SEARCH_RESULT_LIMIT = 200;
+
+    //keyset-paged question feed; the list grows by one page as the user scrolls near its end
+    private static final int QUESTION_PAGE_SIZE = 50;
+    private static final int PREFETCH_ROWS = 10;
+    //admin log entries fetched per "Load more" in the staff dashboard
+    private static final int LOG_PAGE_SIZE = 100;
+    private ObservableList<Question> questionFeed = FXCollections.observableArrayList();
+    private boolean feedActive;      // false while the list shows search or filter results
+    private boolean feedExhausted;
+    private boolean feedLoading;
+    private LocalDateTime feedCursorCreatedAt;
+    private int feedCursorId;
+
     public DisussionBoardPage(Stage stage, String currentUserName, String currentUserRole) {
         this.stage = stage;
         this.currentUserName = currentUserName;
@@ -36,6 +73,8 @@ public class DisussionBoardPage {
 
         try {
             this.dao = new DiscussionBoardDAO();
+            this.asyncDao = new AsyncDiscussionBoardDAO(dao);
+            dao.registerFlagListener(remoteFlagListener);
         } catch (SQLException e) {
             showError("Failed to connect to the database");
         }
@@ -63,8 +102,13 @@ public class DisussionBoardPage {
                 if (empty || question == null) {
                     setText(null);
                 } else{
+                    // fetch the next page once a row near the end of the loaded feed is rendered
+                    if (feedActive && !feedExhausted && !feedLoading && getIndex() >= questionFeed.size() - PREFETCH_ROWS) {
+                        feedLoading = true;
+                        Platform.runLater(() -> loadNextPage());
+                    }
                     String status = question.getIsAnswered() ? "[✓]" : "[?]";
-                    boolean qFlagged = dao.isItemFlagged("Q:" + question.getQuestionId());
+                    boolean qFlagged = flags().isQuestionFlagged(question.getQuestionId());
                     String flagged = qFlagged ? "[FLAGGED] " : "";
                     // hide for regular users only if the question itself is flagged
                     if (!isElevatedRole() && qFlagged) {
@@ -72,7 +116,11 @@ public class DisussionBoardPage {
                         setGraphic(null);
                         return;
                     }
-                    setText(status + " " + flagged + question.getTitle()+ " (" + question.getAuthorUserName() + ")");
+                    // answer count comes with the list row; no per-question answer query
+                    int answers = question.getAnswerCount();
+                    String preview = question.getPreview() == null || question.getPreview().isEmpty() ? "" : "\n    " + question.getPreview();
+                    setText(status + " " + flagged + question.getTitle()+ " (" + question.getAuthorUserName() + ") - "
+                            + answers + (answers == 1 ? " answer" : " answers") + preview);
 
                 }
             }
@@ -90,12 +138,14 @@ public class DisussionBoardPage {
             TextInputDialog td = new TextInputDialog();
             td.setTitle("Flag Question");
             td.setHeaderText("Add note for flag Q:" + q.getQuestionId());
-            td.showAndWait().ifPresent(note -> { dao.flagQuestion(q.getQuestionId(), note, currentUserName); showInfo("Question flagged"); refreshData(); });
+            td.showAndWait().ifPresent(note -> onResult(asyncDao.flag(FlagKey.question(q.getQuestionId()), note, currentUserName),
+                    "Failed to flag question", v -> { showInfo("Question flagged"); refreshData(); }));
         });
         unflagQ.setOnAction(e -> {
             Question q = questionListView.getSelectionModel().getSelectedItem();
             if (q == null) { showError("Select a question to unflag"); return; }
-            dao.unflagItem("Q:" + q.getQuestionId(), currentUserName); showInfo("Question unflagged"); refreshData(); questionListView.refresh(); answerListView.refresh();
+            onResult(asyncDao.unflag(FlagKey.question(q.getQuestionId()), currentUserName), "Failed to unflag question",
+                    v -> { showInfo("Question unflagged"); refreshData(); questionListView.refresh(); answerListView.refresh(); });
         });
         qMenu.getItems().addAll(flagQ, unflagQ);
         questionListView.setOnContextMenuRequested(e -> {
@@ -142,8 +192,9 @@ public class DisussionBoardPage {
                     setText(null);
                 } else {
                     String status = answer.getIsAccepted() ? "[ACCEPTED] " : "";
-                    String flagged = dao.isItemFlagged("A:" + answer.getAnswerId()) ? "[FLAGGED] " : "";
-                    if (!isElevatedRole() && dao.isItemFlagged("A:" + answer.getAnswerId())) {
+                    boolean aFlagged = flags().isAnswerFlagged(answer.getAnswerId());
+                    String flagged = aFlagged ? "[FLAGGED] " : "";
+                    if (!isElevatedRole() && aFlagged) {
                         setText(null);
                         setGraphic(null);
                         return;
@@ -163,12 +214,14 @@ public class DisussionBoardPage {
             TextInputDialog td = new TextInputDialog();
             td.setTitle("Flag Answer");
             td.setHeaderText("Add note for flag A:" + a.getAnswerId());
-            td.showAndWait().ifPresent(note -> { dao.flagAnswer(a.getAnswerId(), note, currentUserName); showInfo("Answer flagged"); displayQuestionDetail(selectedQuestion); });
+            td.showAndWait().ifPresent(note -> onResult(asyncDao.flag(FlagKey.answer(a.getAnswerId()), note, currentUserName),
+                    "Failed to flag answer", v -> { showInfo("Answer flagged"); displayQuestionDetail(selectedQuestion); }));
         });
         unflagA.setOnAction(e -> {
             Answer a = answerListView.getSelectionModel().getSelectedItem();
             if (a == null) { showError("Select an answer to unflag"); return; }
-            dao.unflagItem("A:" + a.getAnswerId(), currentUserName); showInfo("Answer unflagged"); displayQuestionDetail(selectedQuestion); questionListView.refresh(); answerListView.refresh();
+            onResult(asyncDao.unflag(FlagKey.answer(a.getAnswerId()), currentUserName), "Failed to unflag answer",
+                    v -> { showInfo("Answer unflagged"); displayQuestionDetail(selectedQuestion); questionListView.refresh(); answerListView.refresh(); });
         });
         aMenu.getItems().addAll(flagA, unflagA);
         answerListView.setOnContextMenuRequested(e -> {
@@ -189,7 +242,7 @@ public class DisussionBoardPage {
                 int idx = getIndex();
                 if (selA != null) {
                     String itemId = "FB:A:" + selA.getAnswerId() + ":" + idx;
-                    boolean flagged = dao.isItemFlagged(itemId);
+                    boolean flagged = flags().isFlagged(itemId);
                     if (!isElevatedRole() && flagged) { setText(null); setGraphic(null); return; }
                     setText((flagged ? "[FLAGGED] " : "") + review);
                 } else {
@@ -207,15 +260,15 @@ public class DisussionBoardPage {
             int idx = reviewsList.getSelectionModel().getSelectedIndex();
             if (selA == null || idx < 0) { showError("Select an answer and a review to flag"); return; }
             TextInputDialog td = new TextInputDialog(); td.setTitle("Flag Review"); td.setHeaderText("Add note for flag FB:A:" + selA.getAnswerId() + ":" + idx);
-            td.showAndWait().ifPresent(note -> { dao.flagAnswerFeedback(selA.getAnswerId(), idx, note, currentUserName); reviewsList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForAnswer(selA.getAnswerId()))); showInfo("Review flagged"); });
+            td.showAndWait().ifPresent(note -> onResult(asyncDao.flagFeedback(FlagKey.answerFeedback(selA.getAnswerId(), idx), note, currentUserName),
+                    "Failed to flag review", reviews -> { reviewsList.setItems(FXCollections.observableArrayList(reviews)); showInfo("Review flagged"); }));
         });
         unflagR.setOnAction(e -> {
             Answer selA = answerListView.getSelectionModel().getSelectedItem();
             int idx = reviewsList.getSelectionModel().getSelectedIndex();
             if (selA == null || idx < 0) { showError("Select an answer and a review to unflag"); return; }
-            dao.unflagItem("FB:A:" + selA.getAnswerId() + ":" + idx, currentUserName);
-            reviewsList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForAnswer(selA.getAnswerId())));
-            showInfo("Review unflagged");
+            onResult(asyncDao.unflagFeedback(FlagKey.answerFeedback(selA.getAnswerId(), idx), currentUserName),
+                    "Failed to unflag review", reviews -> { reviewsList.setItems(FXCollections.observableArrayList(reviews)); showInfo("Review unflagged"); });
         });
         rMenu.getItems().addAll(flagR, unflagR);
         reviewsList.setOnContextMenuRequested(e -> { if (isElevatedRole()) rMenu.show(reviewsList, e.getScreenX(), e.getScreenY()); });
@@ -225,39 +278,38 @@ public class DisussionBoardPage {
             Answer selA = answerListView.getSelectionModel().getSelectedItem();
             int idx = reviewsList.getSelectionModel().getSelectedIndex();
             if (selA == null || idx < 0) { showError("Select an answer and a review first"); return; }
-            String itemId = "FB:A:" + selA.getAnswerId() + ":" + idx;
-            try {
-                boolean flagged = dao.isItemFlagged(itemId);
-                if (flagged && "admin".equalsIgnoreCase(currentUserRole)) {
-                    dao.unflagItem(itemId, currentUserName);
-                    reviewsList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForAnswer(selA.getAnswerId())));
+            FlagKey key = FlagKey.answerFeedback(selA.getAnswerId(), idx);
+            boolean flagged = flags().isFlagged(key);
+            if (flagged && "admin".equalsIgnoreCase(currentUserRole)) {
+                onResult(asyncDao.unflagFeedback(key, currentUserName), "Failed to unflag review", reviews -> {
+                    reviewsList.setItems(FXCollections.observableArrayList(reviews));
                     showInfo("Review unflagged");
                     questionListView.refresh();
                     answerListView.refresh();
-                    return;
-                }
-                if (flagged && !"admin".equalsIgnoreCase(currentUserRole)) {
-                    showInfo("This review is already flagged");
-                    return;
-                }
-                if (!isElevatedRole()) { showError("Only staff or admin can flag reviews"); return; }
-                TextInputDialog td = new TextInputDialog();
-                td.setTitle("Flag Review");
-                td.setHeaderText("Add note for flag " + itemId);
-                td.showAndWait().ifPresent(note -> {
-                    dao.flagAnswerFeedback(selA.getAnswerId(), idx, note, currentUserName);
-                    reviewsList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForAnswer(selA.getAnswerId())));
-                    showInfo("Review flagged");
-                    questionListView.refresh();
-                    answerListView.refresh();
                 });
-            } catch (Exception ex) { showError("Failed to flag/unflag review: " + ex.getMessage()); }
+                return;
+            }
+            if (flagged && !"admin".equalsIgnoreCase(currentUserRole)) {
+                showInfo("This review is already flagged");
+                return;
+            }
+            if (!isElevatedRole()) { showError("Only staff or admin can flag reviews"); return; }
+            TextInputDialog td = new TextInputDialog();
+            td.setTitle("Flag Review");
+            td.setHeaderText("Add note for flag " + key.toItemId());
+            td.showAndWait().ifPresent(note -> onResult(asyncDao.flagFeedback(key, note, currentUserName), "Failed to flag review", reviews -> {
+                reviewsList.setItems(FXCollections.observableArrayList(reviews));
+                showInfo("Review flagged");
+                questionListView.refresh();
+                answerListView.refresh();
+            }));
         });
 
         // update reviews when answer selection changes
         answerListView.getSelectionModel().selectedItemProperty().addListener((obs, oldA, newA) -> {
-            if (newA == null) { reviewsList.setItems(FXCollections.observableArrayList()); return; }
-            try { reviewsList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForAnswer(newA.getAnswerId()))); } catch (Exception ex) { reviewsList.setItems(FXCollections.observableArrayList()); }
+            if (newA == null) { asyncDao.cancel("reviews"); reviewsList.setItems(FXCollections.observableArrayList()); return; }
+            onResult(asyncDao.submitLatest("reviews", "getPrivateFeedbackForAnswer", d -> d.getPrivateFeedbackForAnswer(newA.getAnswerId())),
+                    "Failed to load reviews", reviews -> reviewsList.setItems(FXCollections.observableArrayList(reviews)));
         });
 
         // Add review controls (admins only)
@@ -266,8 +318,8 @@ public class DisussionBoardPage {
         addReviewBtn.setOnAction(e -> {
             Answer selA = answerListView.getSelectionModel().getSelectedItem();
             if (selA == null) { showError("Select an answer to review"); return; }
-            try { dao.addPrivateFeedbackForAnswer(selA.getAnswerId(), reviewField.getText(), currentUserName); reviewsList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForAnswer(selA.getAnswerId()))); reviewField.clear(); }
-            catch (Exception ex) { showError("Failed to add review: " + ex.getMessage()); }
+            onResult(asyncDao.addPrivateFeedbackForAnswer(selA.getAnswerId(), reviewField.getText(), currentUserName),
+                    "Failed to add review", reviews -> { reviewsList.setItems(FXCollections.observableArrayList(reviews)); reviewField.clear(); });
         });
 
         HBox reviewControls = new HBox(6);
@@ -330,25 +382,14 @@ public class DisussionBoardPage {
             flagSelectedBtn.setOnAction(e -> {
                 // Prefer answer selection over question
                 Answer selA = answerListView.getSelectionModel().getSelectedItem();
-                try {
-                    if (selA != null) {
-                        dao.flagAnswer(selA.getAnswerId(), "Flagged by staff", currentUserName);
-                        showInfo("Answer flagged for review");
-                        refreshData();
-                        questionListView.refresh();
-                        answerListView.refresh();
-                        return;
-                    }
-                    if (selectedQuestion != null) {
-                        dao.flagQuestion(selectedQuestion.getQuestionId(), "Flagged by staff", currentUserName);
-                        showInfo("Question flagged for review");
-                        refreshData();
-                        questionListView.refresh();
-                        answerListView.refresh();
-                        return;
-                    }
-                    showError("Select a question or an answer to flag");
-                } catch (Exception ex) { showError("Failed to flag: " + ex.getMessage()); }
+                if (selA == null && selectedQuestion == null) { showError("Select a question or an answer to flag"); return; }
+                FlagKey key = selA != null ? FlagKey.answer(selA.getAnswerId()) : FlagKey.question(selectedQuestion.getQuestionId());
+                onResult(asyncDao.flag(key, "Flagged by staff", currentUserName), "Failed to flag", v -> {
+                    showInfo((selA != null ? "Answer" : "Question") + " flagged for review");
+                    refreshData();
+                    questionListView.refresh();
+                    answerListView.refresh();
+                });
             });
             actionBox.getChildren().add(flagSelectedBtn);
 
@@ -356,26 +397,15 @@ public class DisussionBoardPage {
             Button unflagSelectedBtn = new Button("Unflag Selected");
             unflagSelectedBtn.setPrefWidth(180);
             unflagSelectedBtn.setOnAction(e -> {
-                try {
-                    if (answerListView.getSelectionModel().getSelectedItem() != null) {
-                        Answer a = answerListView.getSelectionModel().getSelectedItem();
-                        dao.unflagItem("A:" + a.getAnswerId(), currentUserName);
-                        showInfo("Answer unflagged");
-                        refreshData();
-                        questionListView.refresh();
-                        answerListView.refresh();
-                        return;
-                    }
-                    if (selectedQuestion != null) {
-                        dao.unflagItem("Q:" + selectedQuestion.getQuestionId(), currentUserName);
-                        showInfo("Question unflagged");
-                        refreshData();
-                        questionListView.refresh();
-                        answerListView.refresh();
-                        return;
-                    }
-                    showError("Select a flagged question or answer to unflag");
-                } catch (Exception ex) { showError("Failed to unflag: " + ex.getMessage()); }
+                Answer a = answerListView.getSelectionModel().getSelectedItem();
+                if (a == null && selectedQuestion == null) { showError("Select a flagged question or answer to unflag"); return; }
+                FlagKey key = a != null ? FlagKey.answer(a.getAnswerId()) : FlagKey.question(selectedQuestion.getQuestionId());
+                onResult(asyncDao.unflag(key, currentUserName), "Failed to unflag", v -> {
+                    showInfo((a != null ? "Answer" : "Question") + " unflagged");
+                    refreshData();
+                    questionListView.refresh();
+                    answerListView.refresh();
+                });
             });
             actionBox.getChildren().add(unflagSelectedBtn);
             actionBox.getChildren().add(new Separator());
@@ -450,13 +480,10 @@ public class DisussionBoardPage {
                     newQuestion.setCategory(category.trim());
                 }
 
-                try {
-                    dao.createQuestion(newQuestion);
+                onResult(asyncDao.createQuestion(newQuestion), "Failed to create question", id -> {
                     showInfo("Question created successfully!");
                     refreshData();
-                } catch (SQLException e) {
-                    showError("Failed to create question: " + e.getMessage());
-                }
+                });
             }
         });
     }
@@ -473,7 +500,25 @@ public class DisussionBoardPage {
             showError("You are not authorized to edit this question");
             return;
         }
-        //dialog for editing a question
+        if (selectedQuestion.getContent() != null) {
+            showEditQuestionDialog(selectedQuestion);
+            return;
+        }
+        //list rows carry no body until the detail load finishes; read the full question first
+        final int questionId = selectedQuestion.getQuestionId();
+        onResult(asyncDao.getQuestionById(questionId), "Failed to load question", full -> {
+            if (selectedQuestion == null || selectedQuestion.getQuestionId() != questionId) return;
+            if (full == null) {
+                showError("This question has been deleted");
+                refreshData();
+                return;
+            }
+            showEditQuestionDialog(full);
+        });
+    }
+
+    //dialog for editing a question (with its full content loaded)
+    private void showEditQuestionDialog(Question question) {
         Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Edit Question");
         dialog.setHeaderText("Modify the question details");
@@ -482,11 +527,11 @@ public class DisussionBoardPage {
         grid.setHgap(10);
         grid.setVgap(10);
         grid.setPadding(new Insets(10));
-        TextField titleField = new TextField(selectedQuestion.getTitle());
-        TextArea contentField = new TextArea(selectedQuestion.getContent());
+        TextField titleField = new TextField(question.getTitle());
+        TextArea contentField = new TextArea(question.getContent());
         contentField.setPrefRowCount(5);
         contentField.setWrapText(true);
-        TextField categoryField = new TextField(selectedQuestion.getCategory() != null ? selectedQuestion.getCategory() : "");
+        TextField categoryField = new TextField(question.getCategory() != null ? question.getCategory() : "");
 
         grid.add(new Label("Title:"), 0, 0);
         grid.add(titleField, 1, 0);
@@ -510,18 +555,15 @@ public class DisussionBoardPage {
                     return;
                 }
                 //update the question
-                selectedQuestion.setTitle(title.trim());
-                selectedQuestion.setContent(content.trim());
+                question.setTitle(title.trim());
+                question.setContent(content.trim());
                 if (category != null && !category.trim().isEmpty()) {
-                    selectedQuestion.setCategory(category.trim());
+                    question.setCategory(category.trim());
                 }
-                try {
-                    dao.updateQuestion(selectedQuestion);
+                onResult(asyncDao.updateQuestion(question), "Failed to update question", updated -> {
                     showInfo("Question updated successfully!");
                     refreshData();
-                } catch (SQLException e) {
-                    showError("Failed to update question: " + e.getMessage());
-                }
+                });
             }
         });
 }
@@ -545,14 +587,11 @@ public class DisussionBoardPage {
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    dao.deleteQuestion(selectedQuestion.getQuestionId());
+                onResult(asyncDao.deleteQuestion(selectedQuestion.getQuestionId()), "Failed to delete question", deleted -> {
                     showInfo("Question deleted successfully");
                     selectedQuestion = null;
                     refreshData();
-                } catch (SQLException e) {
-                    showError("Failed to delete question: " + e.getMessage());
-                }
+                });
             }
         });
     }
@@ -576,13 +615,10 @@ public class DisussionBoardPage {
                 return;
             }
             Answer newAnswer = new Answer(selectedQuestion.getQuestionId(), response.trim(), currentUserName);
-            try {
-                dao.createAnswer(newAnswer);
+            onResult(asyncDao.createAnswer(newAnswer), "Failed to add answer", id -> {
                 showInfo("Answer added successfully!");
                 displayQuestionDetail(selectedQuestion);
-            } catch (SQLException e) {
-                showError("Failed to add answer: " + e.getMessage());
-            }
+            });
         });
     }
     //edit an answer
@@ -608,13 +644,10 @@ public class DisussionBoardPage {
                 return;
             }
             selectedAnswer.setContent(content.trim());
-            try {
-                dao.updateAnswer(selectedAnswer);
+            onResult(asyncDao.updateAnswer(selectedAnswer), "Failed to update answer", updated -> {
                 showInfo("Answer updated successfully!");
                 displayQuestionDetail(selectedQuestion);
-            } catch (SQLException e) {
-                showError("Failed to update answer: " + e.getMessage());
-            }
+            });
         });
     }
     //delete an answer
@@ -636,40 +669,103 @@ public class DisussionBoardPage {
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    dao.deleteAnswer(selectedAnswer.getAnswerId());
+                onResult(asyncDao.deleteAnswer(selectedAnswer.getAnswerId()), "Failed to delete answer", deleted -> {
                     showInfo("Answer deleted successfully");
                     displayQuestionDetail(selectedQuestion);
-                } catch (SQLException e) {
-                    showError("Failed to delete answer: " + e.getMessage());
-                }
+                });
             }
         });
     }
 
     //helper methods
 
-    //load questions
+    //load the first page of questions; later pages are fetched as the list scrolls
     private void loadQuestions() {
-        try {
-            Questions questions = dao.getAllQuestions();
+        questionFeed = FXCollections.observableArrayList();
+        feedCursorCreatedAt = null;
+        feedCursorId = 0;
+        feedExhausted = false;
+        feedActive = true;
+        feedLoading = true;
+        questionListView.setItems(questionFeed);
+        loadNextPage();
+    }
+    //append the next keyset page to the question feed (fetched in the background)
+    private void loadNextPage() {
+        final ObservableList<Question> feed = questionFeed;
+        final LocalDateTime afterCreatedAt = feedCursorCreatedAt;
+        final int afterId = feedCursorId;
+        CompletableFuture<Questions> request = asyncDao.submitLatest("feed", "getQuestionsPage",
+                d -> d.getQuestionsPage(afterCreatedAt, afterId, QUESTION_PAGE_SIZE));
+        request.whenComplete((result, ex) -> {
+            // the feed was reset while this page was loading
+            if (feed != questionFeed) return;
+            feedLoading = false;
+            if (ex != null) {
+                if (!(ex instanceof CancellationException)) showError("Failed to load questions: " + ex.getMessage());
+                return;
+            }
+            List<Question> page = result.getAllQuestions();
+            if (page.size() < QUESTION_PAGE_SIZE) feedExhausted = true;
+            if (page.isEmpty()) return;
+            Question last = page.get(page.size() - 1);
+            feedCursorCreatedAt = last.getCreatedAt();
+            feedCursorId = last.getQuestionId();
             // hide flagged items from regular users
-            List<Question> qList = questions.getAllQuestions();
-            if (!isElevatedRole()) {
-                qList.removeIf(q -> dao.isItemFlagged("Q:" + q.getQuestionId()));
+            FlagSnapshot snapshot = flags();
+            if (!isElevatedRole()) page.removeIf(q -> snapshot.isQuestionFlagged(q.getQuestionId()));
+            feed.addAll(page);
+            // keep going while a whole page is hidden so regular users still get rows
+            if (page.isEmpty() && !feedExhausted) {
+                feedLoading = true;
+                loadNextPage();
             }
-            ObservableList<Question> questionList = FXCollections.observableArrayList(qList);
-            questionListView.setItems(questionList);
-        } catch (SQLException e) { showError("Failed to load questions: " + e.getMessage());}
+        });
     }
         //display question detail
-        private void displayQuestionDetail(Question question) {
+        private void displayQuestionDetail(Question question) { displayQuestionDetail(question, false); }
+
+        //display question detail, re-reading the question when reload is set; the question body
+        //(feed rows carry none) and its answers are fetched in the background
+        private void displayQuestionDetail(Question question, boolean reload) {
             selectedQuestion = question;
             if(question == null){
+                asyncDao.cancel("detail");
                 questionDetailArea.clear();
                 answerListView.setItems(FXCollections.observableArrayList());
                 return;
             }
+            final Question shown = question;
+            final int questionId = question.getQuestionId();
+            final boolean fetchQuestion = reload || question.getContent() == null;
+            final boolean loadAnswers = isElevatedRole() || !flags().isQuestionFlagged(questionId);
+            if (fetchQuestion) questionDetailArea.setText("Loading...");
+            else showQuestionDetail(question);
+            CompletableFuture<QuestionDetail> request = asyncDao.submitLatest("detail", "loadQuestionDetail", d ->
+                    new QuestionDetail(fetchQuestion ? d.getQuestionById(questionId) : shown,
+                            loadAnswers ? d.getAnswersForQuestion(questionId) : null));
+            onResult(request, "Failed to load question", detail -> {
+                if (selectedQuestion != shown) return;
+                if (detail.question == null) {
+                    // deleted meanwhile
+                    displayQuestionDetail(null);
+                    return;
+                }
+                selectedQuestion = detail.question;
+                if (fetchQuestion && !showQuestionDetail(detail.question)) return;
+                if (detail.answers == null) return;
+                List<Answer> aList = detail.answers.getAllAnswers();
+                if (!isElevatedRole()) {
+                    FlagSnapshot snapshot = flags();
+                    aList.removeIf(a -> snapshot.isAnswerFlagged(a.getAnswerId()));
+                }
+                ObservableList<Answer> answerList = FXCollections.observableArrayList(aList);
+                answerListView.setItems(answerList);
+            });
+        }
+
+        //fill in the detail text; returns false when the question is hidden from this user
+        private boolean showQuestionDetail(Question question) {
             String details = "Title: " + question.getTitle() + "\n\n" +
             "Author: " + question.getAuthorUserName() + "\n" +
             "Category: " + (question.getCategory() != null ? question.getCategory() : "N/A") + "\n" +
@@ -677,24 +773,14 @@ public class DisussionBoardPage {
             "Status: " + (question.getIsAnswered() ? "Answered" : "Unanswered") + "\n\n" +
             "Content:\n" + question.getContent();
             // check if question is flagged; hide content from regular users only when the question itself is flagged
-            boolean qFlagged = dao.isItemFlagged("Q:" + question.getQuestionId());
+            boolean qFlagged = flags().isQuestionFlagged(question.getQuestionId());
             if (qFlagged && !isElevatedRole()) {
                 questionDetailArea.setText("This question has been flagged and is temporarily hidden.");
                 answerListView.setItems(FXCollections.observableArrayList());
-                return;
+                return false;
             }
             questionDetailArea.setText(details);
-
-            //load answers
-            try {
-                Answers answers = dao.getAnswersForQuestion(question.getQuestionId());
-                List<Answer> aList = answers.getAllAnswers();
-                if (!isElevatedRole()) {
-                    aList.removeIf(a -> dao.isItemFlagged("A:" + a.getAnswerId()));
-                }
-                ObservableList<Answer> answerList = FXCollections.observableArrayList(aList);
-                answerListView.setItems(answerList);
-            } catch (SQLException e) { showError("Failed to load answers: " + e.getMessage());}
+            return true;
         }
         //perofm search
         private void performSearch() {
@@ -704,14 +790,17 @@ public class DisussionBoardPage {
                 showError(error);
                 return;
             }
-            try {
-                Questions allQuestions = dao.getAllQuestions();
-                Questions searchResults = allQuestions.search(keyword);
+            // a newer search supersedes one still running
+            onResult(asyncDao.submitLatest("search", "searchQuestions", d -> d.searchQuestions(keyword, SEARCH_RESULT_LIMIT, 0)),
+                    "Failed to search questions", searchResults -> {
                     List<Question> results = searchResults.getAllQuestions();
-                    if (!isElevatedRole()) results.removeIf(q -> dao.isItemFlagged("Q:" + q.getQuestionId()));
+                    FlagSnapshot snapshot = flags();
+                    if (!isElevatedRole()) results.removeIf(q -> snapshot.isQuestionFlagged(q.getQuestionId()));
                     ObservableList<Question> resultList = FXCollections.observableArrayList(results);
+                    asyncDao.cancel("feed");
+                    feedActive = false;
                     questionListView.setItems(resultList);
-            } catch (SQLException e) { showError("Failed to search questions: " + e.getMessage());}
+            });
         }
         //clear search
         private void clearSearch() {
@@ -720,46 +809,46 @@ public class DisussionBoardPage {
             loadQuestions();
         }
 
-        //filter questions
+        //filter questions (list rows only; bodies are loaded when a question is opened)
         private void applyFilter() {
-            try {
-                Questions allQuestions = dao.getAllQuestions();
-                Questions filtered;
-                String filter = filterComboBox.getValue();
+            String filter = filterComboBox.getValue();
+            onResult(asyncDao.submitLatest("filter", "getQuestionSummaries", d -> d.getQuestionSummaries()),
+                    "Failed to filter questions", allQuestions -> {
+                List<Question> filtered;
 
+                //index views, copied once into the list below
                 switch (filter) {
                     case "Answered":
-                        filtered = allQuestions.filterByAnsweredStatus(true);
+                        filtered = allQuestions.viewByAnsweredStatus(true);
                         break;
                     case "Unanswered":
-                        filtered = allQuestions.filterByAnsweredStatus(false);
+                        filtered = allQuestions.viewByAnsweredStatus(false);
                         break;
                     case "My Questions":
-                        filtered = allQuestions.filterByAuthor(currentUserName);
+                        filtered = allQuestions.viewByAuthor(currentUserName);
                         break;
                     default:
-                        filtered = allQuestions;
+                        filtered = allQuestions.asList();
                         break;
                 }
-                ObservableList<Question> resultList = FXCollections.observableArrayList(filtered.getAllQuestions());
-                List<Question> results = filtered.getAllQuestions();
-                if (!isElevatedRole()) results.removeIf(q -> dao.isItemFlagged("Q:" + q.getQuestionId()));
-                questionListView.setItems(FXCollections.observableArrayList(results));
-            } catch (SQLException e) { showError("Failed to filter questions: " + e.getMessage());}
+                ObservableList<Question> results = FXCollections.observableArrayList(filtered);
+                FlagSnapshot snapshot = flags();
+                if (!isElevatedRole()) results.removeIf(q -> snapshot.isQuestionFlagged(q.getQuestionId()));
+                asyncDao.cancel("feed");
+                feedActive = false;
+                questionListView.setItems(results);
+            });
         }
         //refresh data
         private void refreshData() {
             loadQuestions();
-            if(selectedQuestion != null) {
-                try {
-                    Question refreshed = dao.getQuestionById(selectedQuestion.getQuestionId());
-                    displayQuestionDetail(refreshed);
-                }catch (SQLException e) {displayQuestionDetail(null);}
-            }
+            if(selectedQuestion != null) displayQuestionDetail(selectedQuestion, true);
         }
 
     //navigate to home page for role
     private void goBack() {
+        if (asyncDao != null) asyncDao.cancelAll();
+        if (dao != null) dao.unregisterFlagListener(remoteFlagListener);
         if("staff".equalsIgnoreCase(currentUserRole)) {
             StaffHomePage staffHomePage = new StaffHomePage(stage,currentUserName);
             stage.setScene(staffHomePage.createScene());
@@ -771,6 +860,31 @@ public class DisussionBoardPage {
             stage.setScene(userHomePage.createScene());
         }
     }
+    // run UI code with the result of a background DAO call (already on the FX thread);
+    // superseded requests are dropped silently
+    private <T> void onResult(CompletableFuture<T> request, String failureMessage, Consumer<T> onSuccess) {
+        request.whenComplete((result, ex) -> {
+            if (ex == null) onSuccess.accept(result);
+            else if (!(ex instanceof CancellationException)) showError(failureMessage + ": " + ex.getMessage());
+        });
+    }
+
+    // question plus its answers, loaded together for the detail pane
+    private static final class QuestionDetail {
+        final Question question;
+        final Answers answers;
+
+        QuestionDetail(Question question, Answers answers) {
+            this.question = question;
+            this.answers = answers;
+        }
+    }
+
+    // current flag snapshot, refreshed once per flag change rather than probed per cell
+    private FlagSnapshot flags() {
+        if (dao != null && flagSnapshot.getVersion() != dao.getFlagVersion()) flagSnapshot = dao.getFlagSnapshot();
+        return flagSnapshot;
+    }
     // treat staff as elevated/admin equivalent
     private boolean isElevatedRole() { return "Admin".equalsIgnoreCase(currentUserRole) || "staff".equalsIgnoreCase(currentUserRole); }
     //Show error and info messages
@@ -787,47 +901,18 @@ public class DisussionBoardPage {
         alert.showAndWait();
     }
 
-    // Helper to format a flagged item id into a human-readable display string
-    private String formatFlaggedItem(String itemId) {
-        if (itemId == null) return "";
-        try {
-            if (itemId.startsWith("Q:")) {
-                int qid = Integer.parseInt(itemId.substring(2));
-                Question q = dao.getQuestionById(qid);
-                if (q != null) return "Question " + qid + ": " + q.getTitle();
-                return "Question " + qid;
-            } else if (itemId.startsWith("A:")) {
-                int aid = Integer.parseInt(itemId.substring(2));
-                Answer a = dao.getAnswerById(aid);
-                if (a != null) return "Answer " + aid + ": " + (a.getContent().length() > 80 ? a.getContent().substring(0, 77) + "..." : a.getContent());
-                return "Answer " + aid;
-            } else if (itemId.startsWith("FB:")) {
-                String[] parts = itemId.split(":");
-                // support FB:<qid>:<idx> and FB:A:<aid>:<idx>
-                if (parts.length >= 3) {
-                    if ("A".equals(parts[1]) && parts.length >= 4) {
-                        int aid = Integer.parseInt(parts[2]);
-                        int idx = Integer.parseInt(parts[3]);
-                        List<String> fb = dao.getPrivateFeedbackForAnswer(aid);
-                        if (idx >= 0 && idx < fb.size()) {
-                            String entry = fb.get(idx);
-                            return "Feedback A:" + aid + " -> " + (entry.length() > 80 ? entry.substring(0,77) + "..." : entry);
-                        }
-                        return "Feedback A:" + aid + " [" + idx + "]";
-                    } else {
-                        int qid = Integer.parseInt(parts[1]);
-                        int idx = Integer.parseInt(parts[2]);
-                        List<String> fb = dao.getPrivateFeedbackForQuestion(qid);
-                        if (idx >= 0 && idx < fb.size()) {
-                            String entry = fb.get(idx);
-                            return "Feedback Q:" + qid + " -> " + (entry.length() > 80 ? entry.substring(0,77) + "..." : entry);
-                        }
-                        return "Feedback Q:" + qid + " [" + idx + "]";
-                    }
-                }
-            }
-        } catch (Exception ex) { /* ignore and fall through */ }
-        return itemId;
+    // fill a moderation list with the flagged items and their descriptions (one query, off the FX thread)
+    private void loadFlaggedItems(ListView<FlaggedItem> list) {
+        onResult(asyncDao.submitLatest("flagged", "resolveFlaggedItems", DiscussionBoardDAO::resolveFlaggedItems),
+                "Failed to load flagged items", items -> list.setItems(FXCollections.observableArrayList(items)));
+    }
+
+    // show a flagged item's notes in a chat area
+    private static void showFlagNotes(TextArea chat, FlaggedItem item) {
+        chat.clear();
+        if (item == null || item.getNotes().isEmpty()) return;
+        chat.appendText("Notes:\n");
+        item.getNotes().forEach(n -> chat.appendText(" - " + n + "\n"));
     }
 
     // Staff Dashboard
@@ -848,19 +933,27 @@ public class DisussionBoardPage {
         summaryBox.setPadding(new Insets(10));
         // prepare a tasks label that can be updated live via task listener
         final Label tasksLabel = new Label();
-        try {
-            Questions allQ = dao.getAllQuestions();
-            Answers allA = dao.getAllAnswers();
-            long unanswered = allQ.getAllQuestions().stream().filter(q -> !q.getIsAnswered()).count();
-            Label qLabel = new Label("Total Questions: " + allQ.size());
-            Label unLabel = new Label("Unanswered: " + unanswered);
-            Label aLabel = new Label("Total Answers: " + allA.size());
-            Label flaggedLabel = new Label("Flagged Items: " + dao.getFlaggedItems().size());
-            tasksLabel.setText("Unresolved Tasks: " + dao.getTasks().size());
-            summaryBox.getChildren().addAll(qLabel, unLabel, aLabel, flaggedLabel, tasksLabel);
-        } catch (Exception ex) {
-            summaryBox.getChildren().add(new Label("Error loading summary."));
-        }
+        // all totals come from one COUNT query, run off the FX thread
+        Label qLabel = new Label("Total Questions: ...");
+        Label unLabel = new Label("Without Answers: ...");
+        Label aLabel = new Label("Total Answers: ...");
+        Label flaggedLabel = new Label("Flagged Items: ...");
+        tasksLabel.setText("Unresolved Tasks: ...");
+        summaryBox.getChildren().addAll(qLabel, unLabel, aLabel, flaggedLabel, tasksLabel);
+        asyncDao.submit("getBoardStats", DiscussionBoardDAO::getBoardStats).whenComplete((stats, ex) -> {
+            if (ex != null) {
+                summaryBox.getChildren().setAll(new Label("Error loading summary."), tasksLabel);
+                return;
+            }
+            qLabel.setText("Total Questions: " + stats.getTotalQuestions());
+            unLabel.setText("Without Answers: " + stats.getQuestionsWithoutAnswers());
+            aLabel.setText("Total Answers: " + stats.getTotalAnswers());
+            flaggedLabel.setText("Flagged Items: " + stats.getTotalFlagged()
+                    + " (questions " + stats.getFlaggedByType().get(FlagKey.Type.QUESTION)
+                    + ", answers " + stats.getFlaggedByType().get(FlagKey.Type.ANSWER)
+                    + ", feedback " + (stats.getFlaggedByType().get(FlagKey.Type.QUESTION_FEEDBACK) + stats.getFlaggedByType().get(FlagKey.Type.ANSWER_FEEDBACK)) + ")");
+            tasksLabel.setText("Unresolved Tasks: " + stats.getOpenTasks());
+        });
         summaryTab.setContent(summaryBox);
 
         // Flagged tab
@@ -869,29 +962,14 @@ public class DisussionBoardPage {
         VBox flaggedBox = new VBox(5);
         flaggedBox.setPadding(new Insets(10));
     // present flagged items in a ListView with display->id mapping; show notes/chat in a pane like admin view
-    ListView<String> staffFlaggedList = new ListView<>();
+    ListView<FlaggedItem> staffFlaggedList = new ListView<>();
     // wider list for staff clarity
     staffFlaggedList.setPrefWidth(900);
-        java.util.Map<String, String> staffDisplayToId = new java.util.HashMap<>();
-        java.util.List<String> staffDisplays = new java.util.ArrayList<>();
-        // build display list (display-only, notes shown in chat area)
-        dao.getFlaggedItems().forEach((id, notes) -> {
-            String disp = formatFlaggedItem(id);
-            if (staffDisplayToId.containsKey(disp)) disp = disp + " (" + id + ")";
-            staffDisplayToId.put(disp, id);
-            staffDisplays.add(disp);
-        });
-        staffFlaggedList.setItems(FXCollections.observableArrayList(staffDisplays));
+        // items show their description (display-only, notes shown in chat area)
+        loadFlaggedItems(staffFlaggedList);
         Button refreshFlagged = new Button("Refresh Flagged");
         refreshFlagged.setOnAction(e -> {
-            staffDisplays.clear(); staffDisplayToId.clear();
-            dao.getFlaggedItems().forEach((id, notes) -> {
-                String disp = formatFlaggedItem(id);
-                if (staffDisplayToId.containsKey(disp)) disp = disp + " (" + id + ")";
-                staffDisplayToId.put(disp, id);
-                staffDisplays.add(disp);
-            });
-            staffFlaggedList.setItems(FXCollections.observableArrayList(staffDisplays));
+            loadFlaggedItems(staffFlaggedList);
             // also refresh main lists
             loadQuestions();
             if (selectedQuestion != null) displayQuestionDetail(selectedQuestion);
@@ -902,16 +980,7 @@ public class DisussionBoardPage {
         staffChat.setEditable(false);
         staffChat.setPrefHeight(200);
 
-        staffFlaggedList.getSelectionModel().selectedItemProperty().addListener((obs, oldSel, newSel) -> {
-            staffChat.clear();
-            if (newSel == null) return;
-            String itemId = staffDisplayToId.getOrDefault(newSel, newSel);
-            List<String> notes = dao.getFlaggedItems().getOrDefault(itemId, java.util.Collections.emptyList());
-            if (!notes.isEmpty()) {
-                staffChat.appendText("Notes:\n");
-                notes.forEach(n -> staffChat.appendText(" - " + n + "\n"));
-            }
-        });
+        staffFlaggedList.getSelectionModel().selectedItemProperty().addListener((obs, oldSel, newSel) -> showFlagNotes(staffChat, newSel));
 
         // Flag selected question convenience (staff can still flag a question)
         Button flagSelectedBtn = new Button("Flag Selected Question");
@@ -920,10 +989,8 @@ public class DisussionBoardPage {
             TextInputDialog td = new TextInputDialog();
             td.setTitle("Flag Question");
             td.setHeaderText("Add note for flag Q:" + selectedQuestion.getQuestionId());
-            td.showAndWait().ifPresent(note -> {
-                dao.flagQuestion(selectedQuestion.getQuestionId(), note, currentUserName);
-                refreshFlagged.fire();
-            });
+            FlagKey key = FlagKey.question(selectedQuestion.getQuestionId());
+            td.showAndWait().ifPresent(note -> onResult(asyncDao.flag(key, note, currentUserName), "Failed to flag question", v -> refreshFlagged.fire()));
         });
 
         // reply/unflag controls (staff can add notes for admin and unflag items)
@@ -931,25 +998,25 @@ public class DisussionBoardPage {
         staffReplyField.setPromptText("Reply/add note to selected flagged item (visible to admins)");
         Button staffReplyBtn = new Button("Reply");
         staffReplyBtn.setOnAction(a -> {
-            String sel = staffFlaggedList.getSelectionModel().getSelectedItem();
+            FlaggedItem sel = staffFlaggedList.getSelectionModel().getSelectedItem();
             if (sel == null) { showError("Select a flagged item first"); return; }
-            String itemId = staffDisplayToId.getOrDefault(sel, sel);
-            dao.addFlagNote(itemId, staffReplyField.getText(), currentUserName);
-            staffReplyField.clear();
-            // refresh chat and list
-            refreshFlagged.fire();
+            onResult(asyncDao.addFlagNote(sel.getKey(), staffReplyField.getText(), currentUserName), "Failed to add note", v -> {
+                staffReplyField.clear();
+                // refresh chat and list
+                refreshFlagged.fire();
+            });
         });
 
         Button staffUnflagBtn = new Button("Unflag Selected");
         staffUnflagBtn.setOnAction(a -> {
-            String sel = staffFlaggedList.getSelectionModel().getSelectedItem();
+            FlaggedItem sel = staffFlaggedList.getSelectionModel().getSelectedItem();
             if (sel == null) { showError("Select a flagged item first"); return; }
-            String itemId = staffDisplayToId.getOrDefault(sel, sel);
-            dao.unflagItem(itemId, currentUserName);
-            refreshFlagged.fire();
-            questionListView.refresh();
-            answerListView.refresh();
-            showInfo("Item unflagged");
+            onResult(asyncDao.unflag(sel.getKey(), currentUserName), "Failed to unflag", v -> {
+                refreshFlagged.fire();
+                questionListView.refresh();
+                answerListView.refresh();
+                showInfo("Item unflagged");
+            });
         });
 
         HBox staffReplyControls = new HBox(6, staffReplyField, staffReplyBtn, staffUnflagBtn);
@@ -962,36 +1029,39 @@ public class DisussionBoardPage {
         tasksTab.setClosable(false);
         VBox tasksBox = new VBox(5);
         tasksBox.setPadding(new Insets(10));
-    ListView<String> taskList = new ListView<>();
+    ListView<Task> taskList = new ListView<>();
     taskList.setPrefWidth(900);
-    taskList.setItems(FXCollections.observableArrayList(dao.getTasks()));
+    taskList.setItems(FXCollections.observableArrayList(dao.getOpenTasks()));
         HBox taskControls = new HBox(5);
         TextField newTaskField = new TextField();
         newTaskField.setPromptText("New issue/task");
         Button addTaskBtn = new Button("Add");
         addTaskBtn.setOnAction(e -> {
-            int id = dao.addTask(newTaskField.getText());
-            if (id >= 0) {
-                taskList.setItems(FXCollections.observableArrayList(dao.getTasks()));
-                newTaskField.clear();
-            }
+            // the list itself is updated by the task event listener below
+            onResult(asyncDao.createTask(newTaskField.getText(), null, 0), "Failed to add task", created -> {
+                if (created != null) newTaskField.clear();
+            });
         });
         Button resolveBtn = new Button("Resolve Selected");
         resolveBtn.setOnAction(e -> {
-            int idx = taskList.getSelectionModel().getSelectedIndex();
-            if (dao.resolveTask(idx)) {
-                taskList.setItems(FXCollections.observableArrayList(dao.getTasks()));
-            }
+            Task selected = taskList.getSelectionModel().getSelectedItem();
+            if (selected != null) onResult(asyncDao.resolveTaskById(selected.getTaskId()), "Failed to resolve task", resolved -> { });
+        });
+        Button assignBtn = new Button("Assign to Me");
+        assignBtn.setOnAction(e -> {
+            Task selected = taskList.getSelectionModel().getSelectedItem();
+            if (selected != null) onResult(asyncDao.updateTask(selected.getTaskId(), currentUserName, selected.getPriority()), "Failed to assign task", updated -> { });
         });
-        taskControls.getChildren().addAll(newTaskField, addTaskBtn, resolveBtn);
+        taskControls.getChildren().addAll(newTaskField, addTaskBtn, resolveBtn, assignBtn);
         tasksBox.getChildren().addAll(taskList, taskControls);
         tasksTab.setContent(tasksBox);
-    // register a task listener so the tasks ListView updates automatically when tasks change
-    java.util.function.Consumer<List<String>> staffTaskListener = tasks -> javafx.application.Platform.runLater(() -> {
-        taskList.setItems(FXCollections.observableArrayList(tasks));
-        tasksLabel.setText("Unresolved Tasks: " + (tasks == null ? 0 : tasks.size()));
-    });
-    dao.registerTaskListener(staffTaskListener);
+    // apply task deltas to the list; bursts arrive as one batch per frame. Registered weakly so a
+    // dialog that is torn down without reaching the unsubscribe below is not kept alive by the bus
+    TaskEventBus.Listener staffTaskListener = events -> {
+        applyTaskEvents(taskList.getItems(), events);
+        tasksLabel.setText("Unresolved Tasks: " + taskList.getItems().size());
+    };
+    dao.getTaskEventBus().subscribeWeak(staffTaskListener, Platform::runLater);
 
         // Feedback tab
         Tab feedbackTab = new Tab("Feedback");
@@ -1002,12 +1072,9 @@ public class DisussionBoardPage {
     fbList.setPrefWidth(900);
         // initialize feedback list based on current selection (answer preferred)
         if (selectedQuestion != null) {
-            if (answerListView.getSelectionModel().getSelectedItem() != null) {
-                Answer selA = answerListView.getSelectionModel().getSelectedItem();
-                fbList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForAnswer(selA.getAnswerId())));
-            } else {
-                fbList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForQuestion(selectedQuestion.getQuestionId())));
-            }
+            Answer selA = answerListView.getSelectionModel().getSelectedItem();
+            onResult(selA != null ? asyncDao.getPrivateFeedbackForAnswer(selA.getAnswerId()) : asyncDao.getPrivateFeedbackForQuestion(selectedQuestion.getQuestionId()),
+                    "Failed to load feedback", feedback -> fbList.setItems(FXCollections.observableArrayList(feedback)));
         }
         TextField fbField = new TextField();
         fbField.setPromptText("Private feedback for selected question or answer");
@@ -1015,14 +1082,13 @@ public class DisussionBoardPage {
         addFbBtn.setOnAction(e -> {
             if (selectedQuestion == null) { showError("Select a question first"); return; }
             Answer selA = answerListView.getSelectionModel().getSelectedItem();
-            if (selA != null) {
-                dao.addPrivateFeedbackForAnswer(selA.getAnswerId(), fbField.getText(), currentUserName);
-                fbList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForAnswer(selA.getAnswerId())));
-            } else {
-                dao.addPrivateFeedback(selectedQuestion.getQuestionId(), fbField.getText(), currentUserName);
-                fbList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForQuestion(selectedQuestion.getQuestionId())));
-            }
-            fbField.clear();
+            CompletableFuture<List<String>> added = selA != null
+                    ? asyncDao.addPrivateFeedbackForAnswer(selA.getAnswerId(), fbField.getText(), currentUserName)
+                    : asyncDao.addPrivateFeedback(selectedQuestion.getQuestionId(), fbField.getText(), currentUserName);
+            onResult(added, "Failed to add feedback", feedback -> {
+                fbList.setItems(FXCollections.observableArrayList(feedback));
+                fbField.clear();
+            });
         });
         // Flag selected feedback (staff only)
         Button flagFbBtn = new Button("Flag Selected Feedback");
@@ -1031,17 +1097,14 @@ public class DisussionBoardPage {
             int idx = fbList.getSelectionModel().getSelectedIndex();
             if (idx < 0) { showError("Select a feedback entry to flag"); return; }
             Answer selA = answerListView.getSelectionModel().getSelectedItem();
-            if (selA != null) {
-                dao.flagAnswerFeedback(selA.getAnswerId(), idx, "Flagged feedback by staff", currentUserName);
-                fbList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForAnswer(selA.getAnswerId())));
-            } else {
-                dao.flagFeedback(selectedQuestion.getQuestionId(), idx, "Flagged feedback by staff", currentUserName);
-                fbList.setItems(FXCollections.observableArrayList(dao.getPrivateFeedbackForQuestion(selectedQuestion.getQuestionId())));
-            }
-            showInfo("Feedback flagged for review");
-            // ensure lists reflect flag state
-            questionListView.refresh();
-            answerListView.refresh();
+            FlagKey key = selA != null ? FlagKey.answerFeedback(selA.getAnswerId(), idx) : FlagKey.questionFeedback(selectedQuestion.getQuestionId(), idx);
+            onResult(asyncDao.flagFeedback(key, "Flagged feedback by staff", currentUserName), "Failed to flag feedback", feedback -> {
+                fbList.setItems(FXCollections.observableArrayList(feedback));
+                showInfo("Feedback flagged for review");
+                // ensure lists reflect flag state
+                questionListView.refresh();
+                answerListView.refresh();
+            });
         });
         fbBox.getChildren().addAll(fbList, fbField, addFbBtn);
         // only show flag feedback button for staff
@@ -1053,13 +1116,42 @@ public class DisussionBoardPage {
         logsTab.setClosable(false);
     ListView<String> logView = new ListView<>();
     logView.setPrefWidth(900);
-    logView.setItems(FXCollections.observableArrayList(dao.getLogs()));
+    // filters; logs are read a page at a time (newest first) instead of the whole table
+    TextField logAuthorField = new TextField();
+    logAuthorField.setPromptText("Author");
+    ComboBox<String> logActionBox = new ComboBox<>(FXCollections.observableArrayList("", "FLAG", "NOTE", "UNFLAG", "TASK", "FEEDBACK", "MSG"));
+    logActionBox.setPromptText("Action");
+    DatePicker logFromPicker = new DatePicker();
+    logFromPicker.setPromptText("From");
+    DatePicker logToPicker = new DatePicker();
+    logToPicker.setPromptText("To");
     Button refreshLogsBtn = new Button("Refresh Logs");
-    refreshLogsBtn.setOnAction(e -> logView.setItems(FXCollections.observableArrayList(dao.getLogs())));
-        logsTab.setContent(logView);
+    Button moreLogsBtn = new Button("Load more");
+    moreLogsBtn.setDisable(true);
+    Long[] logCursor = { null };
+    Runnable loadLogPage = () -> {
+        LocalDateTime from = logFromPicker.getValue() == null ? null : logFromPicker.getValue().atStartOfDay();
+        LocalDateTime to = logToPicker.getValue() == null ? null : logToPicker.getValue().plusDays(1).atStartOfDay();
+        String author = logAuthorField.getText();
+        String action = logActionBox.getValue();
+        Long cursor = logCursor[0];
+        onResult(asyncDao.submitLatest("logs", "getLogs", d -> d.getLogs(from, to, author, action, LOG_PAGE_SIZE, cursor)),
+                "Failed to load logs", page -> {
+            if (cursor == null) logView.getItems().clear();
+            for (LogEntry entry : page.getEntries()) {
+                logView.getItems().add(entry.getCreatedAt() == null ? entry.toString() : entry.getCreatedAt().withNano(0) + "  " + entry);
+            }
+            logCursor[0] = page.getNextCursor();
+            moreLogsBtn.setDisable(!page.hasMore());
+        });
+    };
+    refreshLogsBtn.setOnAction(e -> { logCursor[0] = null; loadLogPage.run(); });
+    moreLogsBtn.setOnAction(e -> loadLogPage.run());
+    loadLogPage.run();
+    HBox logFilters = new HBox(5, logAuthorField, logActionBox, logFromPicker, logToPicker, refreshLogsBtn);
     VBox logsBox = new VBox(5);
     logsBox.setPadding(new Insets(10));
-    logsBox.getChildren().addAll(logView, refreshLogsBtn);
+    logsBox.getChildren().addAll(logFilters, logView, moreLogsBtn);
     logsTab.setContent(logsBox);
 
     tabs.getTabs().addAll(summaryTab, flaggedTab, tasksTab, logsTab);
@@ -1068,7 +1160,24 @@ public class DisussionBoardPage {
         dialog.getDialogPane().setContent(tabs);
         dialog.showAndWait();
         // unregister the listener when the dialog closes
-        dao.unregisterTaskListener(staffTaskListener);
+        dao.getTaskEventBus().unsubscribe(staffTaskListener);
+    }
+
+    // apply a batch of task events to a task list in place (ids already present are replaced, not duplicated)
+    private static void applyTaskEvents(List<Task> items, List<TaskEvent> events) {
+        for (TaskEvent ev : events) {
+            int pos = -1;
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i).getTaskId() == ev.getTaskId()) { pos = i; break; }
+            }
+            if (ev.getKind() == TaskEvent.Kind.RESOLVED) {
+                if (pos >= 0) items.remove(pos);
+            } else if (pos >= 0) {
+                items.set(pos, ev.getTask());
+            } else {
+                items.add(ev.getTask());
+            }
+        }
     }
 
     // Admin dashboard on main discussion board (uses same dao instance so flags are shared)
@@ -1083,19 +1192,10 @@ public class DisussionBoardPage {
     box.setPadding(new Insets(10));
     box.setPrefWidth(980);
 
-    ListView<String> flaggedList = new ListView<>();
+    ListView<FlaggedItem> flaggedList = new ListView<>();
     flaggedList.setPrefWidth(960);
-        // build display -> id map so list shows content instead of raw ids
-        java.util.Map<String, String> displayToId = new java.util.HashMap<>();
-        java.util.List<String> displays = new java.util.ArrayList<>();
-        dao.getFlaggedItems().keySet().forEach(id -> {
-            String disp = formatFlaggedItem(id);
-            // if duplicate displays, append id to disambiguate
-            if (displayToId.containsKey(disp)) disp = disp + " (" + id + ")";
-            displayToId.put(disp, id);
-            displays.add(disp);
-        });
-        flaggedList.setItems(FXCollections.observableArrayList(displays));
+        // items show their content description instead of raw ids
+        loadFlaggedItems(flaggedList);
 
     TextArea chatArea = new TextArea();
     chatArea.setEditable(false);
@@ -1104,14 +1204,7 @@ public class DisussionBoardPage {
 
         // when admin selects a flagged item, show notes and related private feedback
         flaggedList.getSelectionModel().selectedItemProperty().addListener((obs, oldSel, newSel) -> {
-            chatArea.clear();
-            if (newSel == null) return;
-            String itemId = displayToId.getOrDefault(newSel, newSel);
-            List<String> notes = dao.getFlaggedItems().getOrDefault(itemId, java.util.Collections.emptyList());
-            if (!notes.isEmpty()) {
-                chatArea.appendText("Notes:\n");
-                notes.forEach(n -> chatArea.appendText(" - " + n + "\n"));
-            }
+            showFlagNotes(chatArea, newSel);
             // do not display question-level private feedback here to avoid mixing replies across flagged items
             // flagged-item notes are shown above and admin replies are stored per-flagged-item via flagged_notes
         });
@@ -1123,70 +1216,35 @@ public class DisussionBoardPage {
         replyField.setPromptText("Reply to selected flagged item");
         Button replyBtn = new Button("Reply");
         replyBtn.setOnAction(a -> {
-            String selDisplay = flaggedList.getSelectionModel().getSelectedItem();
-            if (selDisplay == null) return;
-            String sel = displayToId.getOrDefault(selDisplay, selDisplay);
-            try {
-                // store admin replies as notes on the specific flagged item so each flagged item has its own chat/history
-                dao.addFlagNote(sel, replyField.getText(), currentUserName);
-                if (sel.startsWith("Q:")) {
-                    int qid = Integer.parseInt(sel.substring(2));
-                    chatArea.appendText(currentUserName + "->Q:" + qid + ": " + replyField.getText() + "\n");
-                } else if (sel.startsWith("A:")) {
-                    int aid = Integer.parseInt(sel.substring(2));
-                    chatArea.appendText(currentUserName + "->A:" + aid + ": " + replyField.getText() + "\n");
-                } else if (sel.startsWith("FB:")) {
-                    chatArea.appendText(currentUserName + "->FB:" + sel + ": " + replyField.getText() + "\n");
-                }
+            FlaggedItem selItem = flaggedList.getSelectionModel().getSelectedItem();
+            if (selItem == null) return;
+            String sel = selItem.getItemId();
+            String reply = replyField.getText();
+            // store admin replies as notes on the specific flagged item so each flagged item has its own chat/history
+            onResult(asyncDao.addFlagNote(selItem.getKey(), reply, currentUserName), "Failed to add reply", v -> {
+                chatArea.appendText(currentUserName + "->" + sel + ": " + reply + "\n");
                 replyField.clear();
-                // refresh admin views (rebuild display map)
-                displayToId.clear();
-                java.util.List<String> displays2 = new java.util.ArrayList<>();
-                dao.getFlaggedItems().keySet().forEach(id -> {
-                    String d = formatFlaggedItem(id);
-                    if (displayToId.containsKey(d)) d = d + " (" + id + ")";
-                    displayToId.put(d, id);
-                    displays2.add(d);
-                });
-                flaggedList.setItems(FXCollections.observableArrayList(displays2));
+                // refresh admin views
+                loadFlaggedItems(flaggedList);
                 questionListView.refresh();
                 answerListView.refresh();
-            } catch (Exception ex) { /* ignore */ }
+            });
         });
 
         Button unflagBtn = new Button("Unflag Selected");
         unflagBtn.setOnAction(a -> {
-            String selDisplay = flaggedList.getSelectionModel().getSelectedItem();
-            if (selDisplay == null) return;
-            String sel = displayToId.getOrDefault(selDisplay, selDisplay);
-            dao.unflagItem(sel, currentUserName);
-            // rebuild displays
-            displayToId.clear();
-            java.util.List<String> displays3 = new java.util.ArrayList<>();
-            dao.getFlaggedItems().keySet().forEach(id -> {
-                String d = formatFlaggedItem(id);
-                if (displayToId.containsKey(d)) d = d + " (" + id + ")";
-                displayToId.put(d, id);
-                displays3.add(d);
+            FlaggedItem selItem = flaggedList.getSelectionModel().getSelectedItem();
+            if (selItem == null) return;
+            onResult(asyncDao.unflag(selItem.getKey(), currentUserName), "Failed to unflag", v -> {
+                loadFlaggedItems(flaggedList);
+                questionListView.refresh();
+                answerListView.refresh();
             });
-            flaggedList.setItems(FXCollections.observableArrayList(displays3));
-            questionListView.refresh();
-            answerListView.refresh();
         });
 
         // Admin logs view and refresh
         Button refreshAdminBtn = new Button("Refresh");
-        refreshAdminBtn.setOnAction(e -> {
-            displayToId.clear();
-            java.util.List<String> displays4 = new java.util.ArrayList<>();
-            dao.getFlaggedItems().keySet().forEach(id -> {
-                String d = formatFlaggedItem(id);
-                if (displayToId.containsKey(d)) d = d + " (" + id + ")";
-                displayToId.put(d, id);
-                displays4.add(d);
-            });
-            flaggedList.setItems(FXCollections.observableArrayList(displays4));
-        });
+        refreshAdminBtn.setOnAction(e -> loadFlaggedItems(flaggedList));
 
         // add a logout button that returns to the login page
         Button logoutBtn = new Button("Logout");
@@ -1204,16 +1262,6 @@ public class DisussionBoardPage {
     HBox controls = new HBox(6, replyField, replyBtn, unflagBtn, refreshAdminBtn, logoutBtn);
     box.getChildren().addAll(new Label("Flagged Items:"), flaggedList, new Label("Chat:"), chatArea, controls);
 
-        // ensure admin view is populated with the latest flagged items and logs before showing
-        displayToId.clear();
-        java.util.List<String> displaysFinal = new java.util.ArrayList<>();
-        dao.getFlaggedItems().keySet().forEach(id -> {
-            String d = formatFlaggedItem(id);
-            if (displayToId.containsKey(d)) d = d + " (" + id + ")";
-            displayToId.put(d, id);
-            displaysFinal.add(d);
-        });
-        flaggedList.setItems(FXCollections.observableArrayList(displaysFinal));
     // admin logs not shown in dashboard UI
     // admin does not receive the staff task board in this dashboard (tasks are managed via Staff Dashboard)
         questionListView.refresh();
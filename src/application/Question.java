@@ -13,6 +13,12 @@ public class Question {
     private LocalDateTime updatedAt;
     private boolean isAnswered;
     private String category;
+    //answer stats maintained by the DAO when answers change
+    private int answerCount;
+    private Integer acceptedAnswerId;
+    private LocalDateTime lastActivityAt;
+    //start of the content, on list rows that are loaded without it
+    private String preview;
 
     //constructor getter and setter
     public Question(String title, String content, String authorUserName) {
@@ -22,6 +28,22 @@ public class Question {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
         this.isAnswered = false;
+        this.lastActivityAt = this.createdAt;
+    }
+    //copy constructor (the DAO hands out copies of the questions it caches)
+    public Question(Question other) {
+        this.questionId = other.questionId;
+        this.title = other.title;
+        this.content = other.content;
+        this.authorUserName = other.authorUserName;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.isAnswered = other.isAnswered;
+        this.category = other.category;
+        this.answerCount = other.answerCount;
+        this.acceptedAnswerId = other.acceptedAnswerId;
+        this.lastActivityAt = other.lastActivityAt;
+        this.preview = other.preview;
     }
     //getters and setters
     public String getTitle() {
@@ -75,6 +97,33 @@ public class Question {
     public void setQuestionId(int questionId) {
         this.questionId = questionId;
     }  
+    public int getAnswerCount() {
+        return answerCount;
+    }
+    public void setAnswerCount(int answerCount) {
+        this.answerCount = answerCount;
+    }
+    //id of the accepted answer, or null if none is accepted
+    public Integer getAcceptedAnswerId() {
+        return acceptedAnswerId;
+    }
+    public void setAcceptedAnswerId(Integer acceptedAnswerId) {
+        this.acceptedAnswerId = acceptedAnswerId;
+    }
+    //latest edit of the question or any of its answers
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+    //first characters of the content for list rows (getContent() is null until the question is opened)
+    public String getPreview() {
+        return preview;
+    }
+    public void setPreview(String preview) {
+        this.preview = preview;
+    }
 
     //display the question
     @Override
@@ -84,6 +133,7 @@ public class Question {
                 ", title='" + title + '\'' +
                 ", authorUserName='" + authorUserName + '\'' +
                 ", isAnswered=" + isAnswered +
+                ", answerCount=" + answerCount +
                 ", category='" + category + '\'' +
                 '}';
     }
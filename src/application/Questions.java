@@ -1,41 +1,59 @@
 package application;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 //manages the collection of questions
+//lookups by id, author, category and answered status go through indexes kept in step with the list
 public class Questions {
     private List<Question> questionList;
-    
+
+    // indexes (rebuilt for a question by reindex() if its category or answered status changes)
+    private final Map<Integer, Question> byId = new HashMap<>();
+    private final Map<String, List<Question>> byAuthor = new HashMap<>();
+    private final Map<String, List<Question>> byCategory = new HashMap<>();
+    private final List<Question> answered = new ArrayList<>();
+    private final List<Question> unanswered = new ArrayList<>();
+    // the keys each question was indexed under, so it can be unindexed after in-place changes
+    private final Map<Question, IndexKeys> indexedAs = new IdentityHashMap<>();
+
     // constructor
     public Questions() {
         this.questionList = new ArrayList<>();
     }
-    
+
     // constructor with list of questions
     public Questions(List<Question> questions) {
         this.questionList = new ArrayList<>(questions);
+        for (Question q : questionList) index(q);
     }
-    
+
     // add a question
     public void addQuestion(Question question) {
         questionList.add(question);
+        index(question);
     }
-    
+
     // get all questions
     public List<Question> getAllQuestions() {
         return new ArrayList<>(questionList);
     }
-    
+
+    // read-only view of all questions (no copy)
+    public List<Question> asList() {
+        return Collections.unmodifiableList(questionList);
+    }
+
     // search by question id
     public Question getQuestionById(int questionId) {
-        return questionList.stream()
-            .filter(q -> q.getQuestionId() == questionId)
-            .findFirst()
-            .orElse(null);
+        return byId.get(questionId);
     }
-    
+
     // update question
     public boolean updateQuestion(int questionId, String newTitle, String newContent) {
         Question question = getQuestionById(questionId);
@@ -46,12 +64,28 @@ public class Questions {
         }
         return false;
     }
-    
+
+    // refresh the indexes for a question whose category or answered status was changed in place
+    public void reindex(int questionId) {
+        for (Question q : questionList) {
+            if (q.getQuestionId() == questionId) {
+                unindex(q);
+                index(q);
+            }
+        }
+    }
+
     // remove question
     public boolean deleteQuestion(int questionId) {
-        return questionList.removeIf(q -> q.getQuestionId() == questionId);
+        if (!byId.containsKey(questionId)) return false;
+        byId.remove(questionId);
+        return questionList.removeIf(q -> {
+            if (q.getQuestionId() != questionId) return false;
+            unindex(q);
+            return true;
+        });
     }
-    
+
     // search by title
     public Questions searchByTitle(String keyword) {
         List<Question> filtered = questionList.stream()
@@ -59,60 +93,108 @@ public class Questions {
             .collect(Collectors.toList());
         return new Questions(filtered);
     }
-    
+
     // search by content
     public Questions searchByContent(String keyword) {
         List<Question> filtered = questionList.stream()
-            .filter(q -> q.getContent().toLowerCase().contains(keyword.toLowerCase()))
+            .filter(q -> q.getContent() != null && q.getContent().toLowerCase().contains(keyword.toLowerCase()))
             .collect(Collectors.toList());
         return new Questions(filtered);
     }
-    
+
     // category filter
     public Questions filterByCategory(String category) {
-        List<Question> filtered = questionList.stream()
-            .filter(q -> category.equals(q.getCategory()))
-            .collect(Collectors.toList());
-        return new Questions(filtered);
+        return new Questions(viewByCategory(category));
     }
-    
+
     // author filter
     public Questions filterByAuthor(String authorUserName) {
-        List<Question> filtered = questionList.stream()
-            .filter(q -> authorUserName.equals(q.getAuthorUserName()))
-            .collect(Collectors.toList());
-        return new Questions(filtered);
+        return new Questions(viewByAuthor(authorUserName));
     }
-    
+
     // answered status filter
     public Questions filterByAnsweredStatus(boolean isAnswered) {
-        List<Question> filtered = questionList.stream()
-            .filter(q -> q.getIsAnswered() == isAnswered)
-            .collect(Collectors.toList());
-        return new Questions(filtered);
+        return new Questions(viewByAnsweredStatus(isAnswered));
+    }
+
+    // read-only views straight from the indexes (no copy); only valid until this collection is next modified
+    public List<Question> viewByCategory(String category) {
+        return Collections.unmodifiableList(byCategory.getOrDefault(category, Collections.emptyList()));
     }
-    
+
+    public List<Question> viewByAuthor(String authorUserName) {
+        return Collections.unmodifiableList(byAuthor.getOrDefault(authorUserName, Collections.emptyList()));
+    }
+
+    public List<Question> viewByAnsweredStatus(boolean isAnswered) {
+        return Collections.unmodifiableList(isAnswered ? answered : unanswered);
+    }
+
     // title OR content filter
     public Questions search(String keyword) {
         List<Question> filtered = questionList.stream()
             .filter(q -> q.getTitle().toLowerCase().contains(keyword.toLowerCase()) ||
-                        q.getContent().toLowerCase().contains(keyword.toLowerCase()))
+                        (q.getContent() != null && q.getContent().toLowerCase().contains(keyword.toLowerCase())))
             .collect(Collectors.toList());
         return new Questions(filtered);
     }
-    
+
     // get count of questions
     public int size() {
         return questionList.size();
     }
-    
+
     // check if empty
     public boolean isEmpty() {
         return questionList.isEmpty();
     }
-    
+
     // clear all questions
     public void clear() {
         questionList.clear();
+        byId.clear();
+        byAuthor.clear();
+        byCategory.clear();
+        answered.clear();
+        unanswered.clear();
+        indexedAs.clear();
+    }
+
+    // index helpers (the first question added with an id wins id lookups, as with a list scan)
+    private void index(Question q) {
+        byId.putIfAbsent(q.getQuestionId(), q);
+        IndexKeys keys = new IndexKeys(q.getAuthorUserName(), q.getCategory(), q.getIsAnswered());
+        indexedAs.put(q, keys);
+        if (keys.author != null) byAuthor.computeIfAbsent(keys.author, k -> new ArrayList<>()).add(q);
+        if (keys.category != null) byCategory.computeIfAbsent(keys.category, k -> new ArrayList<>()).add(q);
+        (keys.answered ? answered : unanswered).add(q);
+    }
+
+    private void unindex(Question q) {
+        IndexKeys keys = indexedAs.remove(q);
+        if (keys == null) return;
+        removeFromBucket(byAuthor, keys.author, q);
+        removeFromBucket(byCategory, keys.category, q);
+        (keys.answered ? answered : unanswered).remove(q);
+    }
+
+    private static void removeFromBucket(Map<String, List<Question>> index, String key, Question q) {
+        if (key == null) return;
+        List<Question> bucket = index.get(key);
+        if (bucket == null) return;
+        bucket.remove(q);
+        if (bucket.isEmpty()) index.remove(key);
+    }
+
+    private static final class IndexKeys {
+        final String author;
+        final String category;
+        final boolean answered;
+
+        IndexKeys(String author, String category, boolean answered) {
+            this.author = author;
+            this.category = category;
+            this.answered = answered;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,36 +1,117 @@
 package application;
 
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import databasePart1.AsyncDiscussionBoardDAO;
+import databasePart1.ConnectionPool;
 import databasePart1.DatabaseHelper;
+import databasePart1.DiscussionBoardDAO;
 
 
 public class StartCSE360 extends Application {
 
 	private static final DatabaseHelper databaseHelper = new DatabaseHelper();
+	private static final StartupTimeline timeline = StartupTimeline.get();
+
+	// connections opened ahead of the first pages (startup thread, board page, its async executor)
+	private static final int WARM_CONNECTIONS = 3;
+	// first paint and the cache warm-up finish in either order; the timeline is reported after both
+	private final AtomicInteger pendingPhases = new AtomicInteger(2);
 
 	public static void main( String[] args )
 	{
+		 timeline.mark(StartupTimeline.MAIN);
 		 launch(args);
 	}
 
 	@Override
     public void start(Stage primaryStage) {
-        try {
-            databaseHelper.connectToDatabase(); // Connect to the database
-            if (databaseHelper.isDatabaseEmpty()) {
-
-            	new FirstPage(databaseHelper).show(primaryStage);
-            } else {
-            	new SetupLoginSelectionPage(databaseHelper).show(primaryStage);
-
-            }
-        } catch (SQLException e) {
-        	System.out.println(e.getMessage());
-        }
+        timeline.mark(StartupTimeline.FX_START);
+        // show a window right away; opening the database (and any schema migration) happens off the FX thread
+        Label status = new Label("Loading...");
+        primaryStage.setScene(new Scene(new StackPane(status), 800, 400));
+        primaryStage.setTitle("CSE360");
+        primaryStage.show();
+        timeline.mark(StartupTimeline.PLACEHOLDER_SHOWN);
+
+        Thread startup = new Thread(() -> openDatabase(primaryStage, status), "startup");
+        startup.setDaemon(true);
+        startup.start();
     }
 
+	// connect and pick the first page in the background, then warm the pool and the shared DAO state
+	private void openDatabase(Stage primaryStage, Label status) {
+		boolean empty;
+		try {
+			databaseHelper.connectToDatabase(); // Connect to the database
+			empty = databaseHelper.isDatabaseEmpty();
+		} catch (SQLException e) {
+			System.out.println(e.getMessage());
+			Platform.runLater(() -> status.setText("Failed to connect to the database"));
+			return;
+		}
+		timeline.mark(StartupTimeline.DB_READY);
+		Platform.runLater(() -> showFirstPage(primaryStage, empty));
+
+		// later pages then find open connections and loaded flags/logs/tasks instead of building them on the FX thread
+		try {
+			ConnectionPool.getInstance().warmUp(WARM_CONNECTIONS);
+			new DiscussionBoardDAO();
+			timeline.mark(StartupTimeline.CACHES_WARM);
+		} catch (SQLException e) { /* pages load what they need on first use */ }
+		phaseDone();
+	}
+
+	private void showFirstPage(Stage primaryStage, boolean empty) {
+		if (empty) {
+			new FirstPage(databaseHelper).show(primaryStage);
+		} else {
+			new SetupLoginSelectionPage(databaseHelper).show(primaryStage);
+		}
+		// first pulse that lays out the real page
+		Scene scene = primaryStage.getScene();
+		Runnable[] firstPaint = new Runnable[1];
+		firstPaint[0] = () -> {
+			scene.removePostLayoutPulseListener(firstPaint[0]);
+			if (timeline.mark(StartupTimeline.FIRST_PAINT)) phaseDone();
+		};
+		scene.addPostLayoutPulseListener(firstPaint[0]);
+	}
+
+	// only when -Dcse360.startupTimeline is given: print the timeline, and append it to the file it names (if any)
+	private void phaseDone() {
+		if (pendingPhases.decrementAndGet() != 0) return;
+		String file = System.getProperty(StartupTimeline.EXPORT_PROPERTY);
+		if (file == null) return;
+		System.out.println(timeline.format());
+		if (file.isEmpty()) return;
+		try {
+			timeline.exportTo(Paths.get(file), LocalDateTime.now().toString());
+		} catch (IOException e) {
+			System.out.println("Failed to export startup timeline: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void stop() {
+		// stop the background DAO threads (queries, change feed) and write queued log entries, then close the pooled connections
+		// so H2 can flush and release the database file
+		AsyncDiscussionBoardDAO.shutdownExecutor();
+		DiscussionBoardDAO.stopChangeFeed();
+		DiscussionBoardDAO.shutdownLogWriter();
+		ConnectionPool.getInstance().shutdown();
+	}
+
 
 }
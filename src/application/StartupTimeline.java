@@ -0,0 +1,84 @@
+package application;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//phase-by-phase record of application startup, in milliseconds since the JVM started.
+//Each phase is recorded once (the first mark wins), so marks can be placed on any path that may repeat.
+public class StartupTimeline {
+    public static final String JVM_START = "jvm start";
+    public static final String MAIN = "main";
+    public static final String FX_START = "fx start";
+    public static final String PLACEHOLDER_SHOWN = "placeholder shown";
+    public static final String DB_READY = "db ready";
+    public static final String FIRST_PAINT = "first paint";
+    public static final String CACHES_WARM = "caches warm";
+
+    //system property that turns on printing the timeline at startup; a value names a file to append it to (CSV), for comparing releases
+    public static final String EXPORT_PROPERTY = "cse360.startupTimeline";
+
+    private static final StartupTimeline INSTANCE = new StartupTimeline();
+
+    //wall-clock and monotonic time taken together, so nanoTime marks can be placed on the JVM's clock
+    private final long originNanos = System.nanoTime();
+    private final long originMillisSinceJvmStart;
+    private final Map<String, Long> phases = new LinkedHashMap<>(); //guarded by this
+
+    public StartupTimeline() {
+        long sinceJvm = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        this.originMillisSinceJvmStart = Math.max(0, sinceJvm);
+        phases.put(JVM_START, 0L);
+    }
+
+    //the timeline for this process
+    public static StartupTimeline get() {
+        return INSTANCE;
+    }
+
+    //record a phase as reached now; returns false if it was already recorded
+    public synchronized boolean mark(String phase) {
+        if (phases.containsKey(phase)) return false;
+        phases.put(phase, originMillisSinceJvmStart + (System.nanoTime() - originNanos) / 1_000_000);
+        return true;
+    }
+
+    //milliseconds since JVM start at which the phase was reached, or -1 if not yet
+    public synchronized long millisAt(String phase) {
+        Long at = phases.get(phase);
+        return at == null ? -1 : at;
+    }
+
+    //phases in the order they were reached
+    public synchronized List<String> getPhases() {
+        return new ArrayList<>(phases.keySet());
+    }
+
+    //one line per phase: time since JVM start and time since the previous phase
+    public synchronized String format() {
+        StringBuilder sb = new StringBuilder("Startup timeline (ms since JVM start):");
+        long previous = 0;
+        for (Map.Entry<String, Long> e : phases.entrySet()) {
+            sb.append(String.format("%n  %-18s %6d  (+%d)", e.getKey(), e.getValue(), e.getValue() - previous));
+            previous = e.getValue();
+        }
+        return sb.toString();
+    }
+
+    //append one CSV row per phase (run, phase, millis) to the file, writing a header for a new file
+    public void exportTo(Path file, String run) throws IOException {
+        List<String> lines = new ArrayList<>();
+        if (!Files.exists(file)) lines.add("run,phase,millisSinceJvmStart");
+        synchronized (this) {
+            for (Map.Entry<String, Long> e : phases.entrySet()) lines.add(run + "," + e.getKey() + "," + e.getValue());
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,64 @@
+package application;
+
+import java.time.LocalDateTime;
+
+//a task on the staff task board, keyed by its database taskId
+public class Task {
+    public static final String OPEN = "OPEN";
+    public static final String RESOLVED = "RESOLVED";
+
+    private final int taskId;
+    private final String description;
+    private final String status;
+    private final String assignee;
+    private final int priority;
+    private final LocalDateTime createdAt;
+
+    //constructor with all fields for db retrieval
+    public Task(int taskId, String description, String status, String assignee, int priority, LocalDateTime createdAt) {
+        this.taskId = taskId;
+        this.description = description;
+        this.status = status;
+        this.assignee = assignee;
+        this.priority = priority;
+        this.createdAt = createdAt;
+    }
+
+    //getters (tasks are immutable; the DAO swaps in a new Task when one changes)
+    public int getTaskId() {
+        return taskId;
+    }
+    public String getDescription() {
+        return description;
+    }
+    public String getStatus() {
+        return status;
+    }
+    public String getAssignee() {
+        return assignee;
+    }
+    public int getPriority() {
+        return priority;
+    }
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public boolean isOpen() {
+        return OPEN.equals(status);
+    }
+
+    //copy with a new assignee and priority
+    public Task withAssignment(String assignee, int priority) {
+        return new Task(taskId, description, status, assignee, priority, createdAt);
+    }
+
+    //display form used by the task list
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (priority != 0) sb.append("[P").append(priority).append("] ");
+        sb.append(description);
+        if (assignee != null && !assignee.isEmpty()) sb.append(" (").append(assignee).append(")");
+        return sb.toString();
+    }
+}
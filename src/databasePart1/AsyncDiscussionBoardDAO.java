@@ -0,0 +1,367 @@
+package databasePart1;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import application.Answer;
+import application.Answers;
+import application.Question;
+import application.Questions;
+import application.Task;
+import javafx.application.Platform;
+
+/**
+ * Asynchronous facade over DiscussionBoardDAO so pages never run H2 queries on the
+ * JavaFX Application Thread. Calls run on a small process-wide pool of daemon threads
+ * (one per pooled connection) and the returned futures are completed on the callback
+ * executor, which is Platform::runLater by default, so dependent stages can touch the UI.
+ *
+ * Requests submitted with {@link #submitLatest} are keyed: a newer request with the same
+ * key cancels the older one, whose future then completes with a CancellationException
+ * and whose result (if it still runs) is dropped. Running queries are not interrupted,
+ * since interrupting a thread inside H2 can close the database file.
+ */
+public class AsyncDiscussionBoardDAO {
+
+    /**
+     * A DAO call run on a background thread.
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    public interface DaoCall<T> {
+        T call(DiscussionBoardDAO dao) throws SQLException;
+    }
+
+    // one worker per pooled connection; more threads would only queue on the pool
+    private static final int WORKER_THREADS = ConnectionPool.MAX_CONNECTIONS;
+    private static volatile ExecutorService executor;
+    private static final Object executorLock = new Object();
+
+    // latency metrics by operation name, shared by every instance
+    private static final Map<String, OperationMetrics> metrics = new ConcurrentHashMap<>();
+
+    private final DiscussionBoardDAO dao;
+    private final Executor callbackExecutor;
+    private final Map<String, CompletableFuture<?>> latest = new ConcurrentHashMap<>();
+
+    /**
+     * Facade whose futures complete on the JavaFX Application Thread.
+     * @param dao the DAO to run calls against
+     */
+    public AsyncDiscussionBoardDAO(DiscussionBoardDAO dao) { this(dao, Platform::runLater); }
+
+    /**
+     * Facade whose futures complete on the given executor (e.g. Runnable::run outside JavaFX).
+     * @param dao the DAO to run calls against
+     * @param callbackExecutor where results are delivered
+     */
+    public AsyncDiscussionBoardDAO(DiscussionBoardDAO dao, Executor callbackExecutor) {
+        this.dao = dao;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Run a DAO call in the background.
+     * @param operation name used for latency metrics
+     * @param call the call
+     * @return future completed on the callback executor
+     */
+    public <T> CompletableFuture<T> submit(String operation, DaoCall<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        OperationMetrics m = metrics.computeIfAbsent(operation, OperationMetrics::new);
+        long queuedAt = System.nanoTime();
+        try {
+            executor().execute(() -> run(result, m, queuedAt, call));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Run a DAO call in the background, cancelling any earlier call still pending under the same key
+     * (e.g. a search superseded by the next keystroke).
+     * @param key request slot, such as "search"
+     * @param operation name used for latency metrics
+     * @param call the call
+     * @return future completed on the callback executor, or cancelled if superseded
+     */
+    public <T> CompletableFuture<T> submitLatest(String key, String operation, DaoCall<T> call) {
+        CompletableFuture<T> result = submit(operation, call);
+        CompletableFuture<?> previous = latest.put(key, result);
+        if (previous != null) previous.cancel(false);
+        result.whenComplete((r, ex) -> latest.remove(key, result));
+        return result;
+    }
+
+    /**
+     * Cancel the pending call under a key, if any.
+     * @param key request slot
+     */
+    public void cancel(String key) {
+        CompletableFuture<?> previous = latest.remove(key);
+        if (previous != null) previous.cancel(false);
+    }
+
+    /** Cancel every pending keyed call (e.g. when the page is left). */
+    public void cancelAll() {
+        for (String key : latest.keySet()) cancel(key);
+    }
+
+    private <T> void run(CompletableFuture<T> result, OperationMetrics m, long queuedAt, DaoCall<T> call) {
+        // superseded before it started: skip the query
+        if (result.isDone()) { m.cancelled.increment(); return; }
+        long start = System.nanoTime();
+        T value = null;
+        Exception failure = null;
+        try {
+            value = call.call(dao);
+        } catch (Exception e) {
+            failure = e;
+        }
+        m.record(start - queuedAt, System.nanoTime() - start, failure != null);
+        if (result.isDone()) { m.cancelled.increment(); return; }
+        final T v = value;
+        final Exception f = failure;
+        callbackExecutor.execute(() -> {
+            if (f != null) result.completeExceptionally(f);
+            else result.complete(v);
+        });
+    }
+
+    private static ExecutorService executor() {
+        ExecutorService e = executor;
+        if (e == null) {
+            synchronized (executorLock) {
+                e = executor;
+                if (e == null) {
+                    AtomicInteger n = new AtomicInteger();
+                    e = Executors.newFixedThreadPool(WORKER_THREADS, r -> {
+                        Thread t = new Thread(r, "board-dao-" + n.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    executor = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    /** Stop the background threads after the calls already queued; later calls start a new pool. */
+    public static void shutdownExecutor() {
+        synchronized (executorLock) {
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+    }
+
+    /**
+     * Latency metrics for every operation run so far in this process, by operation name.
+     * @return stats snapshot
+     */
+    public Map<String, OperationStats> getLatencyStats() {
+        Map<String, OperationStats> out = new TreeMap<>();
+        metrics.forEach((name, m) -> out.put(name, m.snapshot()));
+        return out;
+    }
+
+    // ---- convenience wrappers for the calls pages make most ----
+
+    public CompletableFuture<Questions> getQuestionsPage(LocalDateTime afterCreatedAt, int afterId, int pageSize) {
+        return submit("getQuestionsPage", d -> d.getQuestionsPage(afterCreatedAt, afterId, pageSize));
+    }
+
+    public CompletableFuture<Questions> getQuestionSummaries() {
+        return submit("getQuestionSummaries", d -> d.getQuestionSummaries());
+    }
+
+    public CompletableFuture<Questions> getQuestionsWithoutAnswers(int limit) {
+        return submit("getQuestionsWithoutAnswers", d -> d.getQuestionsWithoutAnswers(limit));
+    }
+
+    public CompletableFuture<Question> getQuestionById(int questionId) {
+        return submit("getQuestionById", d -> d.getQuestionById(questionId));
+    }
+
+    public CompletableFuture<Answers> getAnswersForQuestion(int questionId) {
+        return submit("getAnswersForQuestion", d -> d.getAnswersForQuestion(questionId));
+    }
+
+    public CompletableFuture<Integer> createQuestion(Question question) {
+        return submit("createQuestion", d -> d.createQuestion(question));
+    }
+
+    public CompletableFuture<Boolean> updateQuestion(Question question) {
+        return submit("updateQuestion", d -> d.updateQuestion(question));
+    }
+
+    public CompletableFuture<Boolean> deleteQuestion(int questionId) {
+        return submit("deleteQuestion", d -> d.deleteQuestion(questionId));
+    }
+
+    public CompletableFuture<Integer> createAnswer(Answer answer) {
+        return submit("createAnswer", d -> d.createAnswer(answer));
+    }
+
+    public CompletableFuture<Boolean> updateAnswer(Answer answer) {
+        return submit("updateAnswer", d -> d.updateAnswer(answer));
+    }
+
+    public CompletableFuture<Boolean> deleteAnswer(int answerId) {
+        return submit("deleteAnswer", d -> d.deleteAnswer(answerId));
+    }
+
+    public CompletableFuture<List<String>> getPrivateFeedbackForAnswer(int answerId) {
+        return submit("getPrivateFeedbackForAnswer", d -> d.getPrivateFeedbackForAnswer(answerId));
+    }
+
+    /** Add answer feedback, then return the answer's updated feedback list. */
+    public CompletableFuture<List<String>> addPrivateFeedbackForAnswer(int answerId, String feedback, String author) {
+        return submit("addPrivateFeedbackForAnswer", d -> {
+            d.addPrivateFeedbackForAnswer(answerId, feedback, author);
+            return d.getPrivateFeedbackForAnswer(answerId);
+        });
+    }
+
+    public CompletableFuture<List<String>> getPrivateFeedbackForQuestion(int questionId) {
+        return submit("getPrivateFeedbackForQuestion", d -> d.getPrivateFeedbackForQuestion(questionId));
+    }
+
+    /** Add question feedback, then return the question's updated feedback list. */
+    public CompletableFuture<List<String>> addPrivateFeedback(int questionId, String feedback, String author) {
+        return submit("addPrivateFeedback", d -> {
+            d.addPrivateFeedback(questionId, feedback, author);
+            return d.getPrivateFeedbackForQuestion(questionId);
+        });
+    }
+
+    public CompletableFuture<Void> flag(FlagKey key, String note, String author) {
+        return submit("flag", d -> {
+            d.flag(key, note, author);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Boolean> unflag(FlagKey key, String author) {
+        return submit("unflag", d -> d.unflag(key, author));
+    }
+
+    /** Flag one of a question's or an answer's feedback entries, then return that post's updated feedback list. */
+    public CompletableFuture<List<String>> flagFeedback(FlagKey key, String note, String author) {
+        return submit("flagFeedback", d -> {
+            d.flag(key, note, author);
+            return feedbackFor(d, key);
+        });
+    }
+
+    /** Unflag a feedback entry, then return that post's updated feedback list. */
+    public CompletableFuture<List<String>> unflagFeedback(FlagKey key, String author) {
+        return submit("unflagFeedback", d -> {
+            d.unflag(key, author);
+            return feedbackFor(d, key);
+        });
+    }
+
+    // feedback list of the question or answer a feedback flag belongs to
+    private static List<String> feedbackFor(DiscussionBoardDAO d, FlagKey key) {
+        return key.getType() == FlagKey.Type.ANSWER_FEEDBACK
+                ? d.getPrivateFeedbackForAnswer(key.getTargetId())
+                : d.getPrivateFeedbackForQuestion(key.getTargetId());
+    }
+
+    public CompletableFuture<Void> addFlagNote(FlagKey key, String note, String author) {
+        return submit("addFlagNote", d -> {
+            d.addFlagNote(key, note, author);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Task> createTask(String description, String assignee, int priority) {
+        return submit("createTask", d -> d.createTask(description, assignee, priority));
+    }
+
+    public CompletableFuture<Boolean> resolveTaskById(int taskId) {
+        return submit("resolveTaskById", d -> d.resolveTaskById(taskId));
+    }
+
+    public CompletableFuture<Boolean> updateTask(int taskId, String assignee, int priority) {
+        return submit("updateTask", d -> d.updateTask(taskId, assignee, priority));
+    }
+
+    // running totals for one operation
+    private static final class OperationMetrics {
+        final String name;
+        final LongAdder calls = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final LongAdder queueNanos = new LongAdder();
+        final LongAdder runNanos = new LongAdder();
+        final AtomicLong maxRunNanos = new AtomicLong();
+
+        OperationMetrics(String name) { this.name = name; }
+
+        void record(long queued, long ran, boolean failed) {
+            calls.increment();
+            if (failed) failures.increment();
+            queueNanos.add(queued);
+            runNanos.add(ran);
+            maxRunNanos.accumulateAndGet(ran, Math::max);
+        }
+
+        OperationStats snapshot() {
+            return new OperationStats(name, calls.sum(), failures.sum(), cancelled.sum(),
+                    queueNanos.sum(), runNanos.sum(), maxRunNanos.get());
+        }
+    }
+
+    /** Immutable latency metrics for one operation (calls, failures, cancellations, queue and run times). */
+    public static final class OperationStats {
+        private final String operation;
+        private final long calls;
+        private final long failures;
+        private final long cancelled;
+        private final long totalQueueNanos;
+        private final long totalRunNanos;
+        private final long maxRunNanos;
+
+        OperationStats(String operation, long calls, long failures, long cancelled,
+                long totalQueueNanos, long totalRunNanos, long maxRunNanos) {
+            this.operation = operation;
+            this.calls = calls;
+            this.failures = failures;
+            this.cancelled = cancelled;
+            this.totalQueueNanos = totalQueueNanos;
+            this.totalRunNanos = totalRunNanos;
+            this.maxRunNanos = maxRunNanos;
+        }
+
+        public String getOperation() { return operation; }
+        public long getCalls() { return calls; }
+        public long getFailures() { return failures; }
+        public long getCancelled() { return cancelled; }
+        public double getAverageQueueMillis() { return calls == 0 ? 0 : totalQueueNanos / 1_000_000.0 / calls; }
+        public double getAverageMillis() { return calls == 0 ? 0 : totalRunNanos / 1_000_000.0 / calls; }
+        public double getMaxMillis() { return maxRunNanos / 1_000_000.0; }
+
+        @Override
+        public String toString() {
+            return String.format("%s{calls=%d, failures=%d, cancelled=%d, avgQueue=%.3fms, avg=%.3fms, max=%.3fms}",
+                    operation, calls, failures, cancelled, getAverageQueueMillis(), getAverageMillis(), getMaxMillis());
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package databasePart1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background writer for admin_logs. addLog() only enqueues the entry; a single daemon
+ * thread drains the queue and inserts up to MAX_BATCH entries per JDBC batch in one
+ * transaction, so moderation actions no longer pay for a log round-trip each.
+ *
+ * Entries reach the shared in-memory log once their batch is written (readers call
+ * {@link #flush} first, so they still see their own entries). If the queue is full, or the
+ * writer has been shut down, the entry is written on the caller's thread instead and counted
+ * as written directly; if a write fails the entries are kept in memory only and counted as
+ * failed. The writer thread is stopped with a marker entry rather than an interrupt, since
+ * interrupting a thread inside H2 can close the database file.
+ */
+public final class AuditLogWriter {
+
+    /** Entries waiting to be written before callers write new ones themselves. */
+    static final int QUEUE_CAPACITY = 10_000;
+    /** Most entries written in one batch. */
+    static final int MAX_BATCH = 200;
+    /** How long flush() waits for the queue to drain by default. */
+    static final long FLUSH_TIMEOUT_MS = 5_000;
+
+    private static final String INSERT = "INSERT INTO admin_logs(entry, author, action) VALUES (?, ?, ?)";
+
+    // one queued log entry; STOP tells the writer thread to exit
+    private static final class Pending {
+        final String entry;
+        final String author;
+        final String line;
+
+        Pending(String entry, String author, String line) {
+            this.entry = entry;
+            this.author = author;
+            this.line = line;
+        }
+    }
+
+    private static final Pending STOP = new Pending(null, null, null);
+
+    private final DiscussionBoardState state;
+    private final ConnectionPool pool = ConnectionPool.getInstance();
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    // flush() waits until every entry enqueued before it has been handled
+    private final Object progress = new Object();
+    private long enqueued; // guarded by progress
+    private long completed; // guarded by progress
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder direct = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private Thread worker; // guarded by this
+    private boolean closed; // guarded by this; set by shutdown, after which submit writes directly
+
+    AuditLogWriter(DiscussionBoardState state) { this.state = state; }
+
+    /**
+     * Queue a log entry for writing.
+     * @param entry trimmed log text
+     * @param author author username, or null
+     * @param line display form for the in-memory log
+     */
+    void submit(String entry, String author, String line) {
+        Pending pending = new Pending(entry, author, line);
+        // checked under the lock shutdown takes, so nothing is queued behind the STOP marker
+        synchronized (this) {
+            if (!closed) {
+                ensureStarted();
+                synchronized (progress) {
+                    if (queue.offer(pending)) {
+                        enqueued++;
+                        return;
+                    }
+                }
+            }
+        }
+        // writer shut down or queue full: write it here rather than lose it
+        direct.increment();
+        write(Collections.singletonList(pending));
+    }
+
+    /**
+     * Wait until every entry queued so far has been written (or given up on).
+     * @param timeoutMillis longest wait
+     * @return false if the wait timed out
+     */
+    boolean flush(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (progress) {
+            long target = enqueued;
+            while (completed < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) return false;
+                try {
+                    progress.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    boolean flush() { return flush(FLUSH_TIMEOUT_MS); }
+
+    /** Write what is queued, then stop the writer thread; later entries are written by their callers. */
+    void shutdown() {
+        Thread t;
+        synchronized (this) {
+            closed = true;
+            t = worker;
+            worker = null;
+        }
+        if (t == null) return;
+        flush();
+        try {
+            if (queue.offer(STOP, FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) t.join(FLUSH_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // caller holds this
+    private void ensureStarted() {
+        if (worker != null) return;
+        worker = new Thread(this::drain, "audit-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            boolean stop = batch.remove(STOP);
+            try {
+                if (!batch.isEmpty()) write(batch);
+            } catch (RuntimeException ex) {
+                // keep the writer alive; the entries stay in memory only
+                failed.add(batch.size());
+                for (Pending p : batch) state.appendLog(p.line);
+            }
+            synchronized (progress) {
+                completed += batch.size();
+                progress.notifyAll();
+            }
+            batch.clear();
+            if (stop) return;
+        }
+    }
+
+    // insert one batch in a transaction, then publish it to the in-memory log under the ids it got
+    private void write(List<Pending> batch) {
+        long[] ids = new long[batch.size()];
+        try (Connection connection = pool.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement p = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Pending e : batch) {
+                    p.setString(1, e.entry);
+                    p.setString(2, e.author);
+                    p.setString(3, LogEntry.actionOf(e.entry));
+                    p.addBatch();
+                }
+                p.executeBatch();
+                try (ResultSet keys = p.getGeneratedKeys()) {
+                    for (int i = 0; i < ids.length && keys.next(); i++) ids[i] = keys.getLong(1);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            // fallback to in-memory
+            failed.add(batch.size());
+            for (Pending p : batch) state.appendLog(p.line);
+            return;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            String line = batch.get(i).line;
+            state.logCursor.applyOwn(ids[i], () -> state.appendLog(line));
+        }
+        written.add(batch.size());
+        batches.increment();
+    }
+
+    Stats getStats() {
+        return new Stats(queue.size(), written.sum(), direct.sum(), failed.sum(), batches.sum());
+    }
+
+    /** Immutable view of the writer's metrics (queue depth and written/direct/failed entry counts). */
+    public static final class Stats {
+        private final int queueDepth;
+        private final long written;
+        private final long direct;
+        private final long failed;
+        private final long batches;
+
+        Stats(int queueDepth, long written, long direct, long failed, long batches) {
+            this.queueDepth = queueDepth;
+            this.written = written;
+            this.direct = direct;
+            this.failed = failed;
+            this.batches = batches;
+        }
+
+        public int getQueueDepth() { return queueDepth; }
+        public long getWritten() { return written; }
+        /** @return entries written on the caller's thread (queue full or writer shut down); included in getWritten */
+        public long getWrittenDirectly() { return direct; }
+        public long getFailed() { return failed; }
+        public long getBatches() { return batches; }
+        public double getAverageBatchSize() { return batches == 0 ? 0 : (double) written / batches; }
+
+        @Override
+        public String toString() {
+            return String.format("AuditLog{queued=%d, written=%d, direct=%d, failed=%d, batches=%d, avgBatch=%.1f}",
+                    queueDepth, written, direct, failed, batches, getAverageBatchSize());
+        }
+    }
+}
@@ -0,0 +1,556 @@
+package databasePart1;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bulk export and import of the board's data as JSON Lines: one object per line, tagged with
+ * its record type, e.g. {"type":"question","questionId":12,"title":"...",...}.
+ * Covers users, questions, answers, question and answer feedback, flags with their notes, and
+ * admin logs (archived log segments are not included).
+ *
+ * Both directions stream: export reads each table in key order and writes rows as it goes;
+ * import reads one line at a time and sends rows to the database in JDBC batches, committing
+ * every {@link #CHUNK_ROWS} rows, so memory use does not grow with the file.
+ *
+ * Rows keep their ids, and a row whose id (userName for users) already exists is replaced, so
+ * a failed import can simply be run again: chunks before the failing line stay committed.
+ * Parents must come before their children in the file (questions before their answers, and so
+ * on), which is the order export writes. Import into a board that is not in use: the in-memory
+ * flags, logs and feedback of a running board only pick up rows with ids past what it has seen.
+ */
+public final class BoardDataTransfer {
+
+    /** Rows sent to the database per JDBC batch. */
+    static final int BATCH_SIZE = 1_000;
+    /** Rows per import transaction. */
+    static final int CHUNK_ROWS = 10_000;
+    /** Rows the export reads from the database per round trip. */
+    static final int FETCH_SIZE = 1_000;
+
+    // how a JSON value is bound and read back
+    private enum Kind { INT, TEXT, BOOL, TIMESTAMP }
+
+    // one exported column; fallback supplies a value when an imported record leaves it out
+    private static final class Column {
+        final String name;
+        final Kind kind;
+        final Function<Map<String, Object>, Object> fallback;
+
+        Column(String name, Kind kind, Function<Map<String, Object>, Object> fallback) {
+            this.name = name;
+            this.kind = kind;
+            this.fallback = fallback;
+        }
+    }
+
+    // one record type and the table it is stored in; the first column is the key
+    private static final class Table {
+        final String type;
+        final String name;
+        final List<Column> columns;
+        final boolean identity;
+        final String select;
+        final String merge;
+
+        Table(String type, String name, boolean identity, Column... columns) {
+            this.type = type;
+            this.name = name;
+            this.identity = identity;
+            this.columns = Arrays.asList(columns);
+            StringBuilder names = new StringBuilder();
+            StringBuilder params = new StringBuilder();
+            for (Column c : columns) {
+                if (names.length() > 0) { names.append(", "); params.append(", "); }
+                names.append(c.name);
+                params.append('?');
+            }
+            this.select = "SELECT " + names + " FROM " + name + " ORDER BY " + key();
+            this.merge = "MERGE INTO " + name + "(" + names + ") KEY(" + key() + ") VALUES (" + params + ")";
+        }
+
+        String key() { return columns.get(0).name; }
+    }
+
+    private static Column required(String name, Kind kind) { return new Column(name, kind, null); }
+    private static Column optional(String name, Kind kind) { return new Column(name, kind, r -> null); }
+    private static Column createdAt() { return new Column("createdAt", Kind.TIMESTAMP, r -> LocalDateTime.now().toString()); }
+
+    // export order, parents before children
+    private static final List<Table> TABLES = Arrays.asList(
+        new Table("user", "cse360users", false,
+            required("userName", Kind.TEXT), optional("password", Kind.TEXT), optional("role", Kind.TEXT)),
+        new Table("question", "questions", true,
+            required("questionId", Kind.INT), required("title", Kind.TEXT), required("content", Kind.TEXT),
+            required("authorUserName", Kind.TEXT), optional("category", Kind.TEXT), createdAt(),
+            new Column("updatedAt", Kind.TIMESTAMP, r -> r.getOrDefault("createdAt", LocalDateTime.now().toString())),
+            new Column("isAnswered", Kind.BOOL, r -> Boolean.FALSE),
+            // answer stats (see DiscussionBoardDAO.ANSWER_STATS); checked against the answers after import
+            new Column("answerCount", Kind.INT, r -> 0L), optional("acceptedAnswerId", Kind.INT),
+            new Column("lastActivityAt", Kind.TIMESTAMP, r -> r.getOrDefault("updatedAt", r.getOrDefault("createdAt", LocalDateTime.now().toString())))),
+        new Table("answer", "answers", true,
+            required("answerId", Kind.INT), required("questionId", Kind.INT), required("content", Kind.TEXT),
+            required("authorUserName", Kind.TEXT), createdAt(),
+            new Column("updatedAt", Kind.TIMESTAMP, r -> r.getOrDefault("createdAt", LocalDateTime.now().toString())),
+            new Column("isAccepted", Kind.BOOL, r -> Boolean.FALSE)),
+        new Table("question_feedback", "private_feedback", true,
+            required("feedbackId", Kind.INT), required("questionId", Kind.INT), optional("author", Kind.TEXT),
+            optional("feedback", Kind.TEXT), createdAt()),
+        new Table("answer_feedback", "answer_feedback", true,
+            required("feedbackId", Kind.INT), required("answerId", Kind.INT), optional("author", Kind.TEXT),
+            optional("feedback", Kind.TEXT), createdAt()),
+        new Table("flag", "flags", true,
+            required("flagId", Kind.INT), required("targetType", Kind.TEXT), required("targetId", Kind.INT),
+            new Column("feedbackIndex", Kind.INT, r -> -1L), optional("questionId", Kind.INT),
+            optional("answerId", Kind.INT), createdAt()),
+        new Table("flag_note", "flag_notes", true,
+            required("noteId", Kind.INT), required("flagId", Kind.INT), optional("note", Kind.TEXT),
+            optional("author", Kind.TEXT), createdAt()),
+        new Table("log", "admin_logs", true,
+            required("logId", Kind.INT), optional("entry", Kind.TEXT), optional("author", Kind.TEXT),
+            new Column("action", Kind.TEXT, r -> LogEntry.actionOf((String) r.get("entry"))), createdAt())
+    );
+
+    // answer stats recomputed from the answers of a range of questions, written only where they differ
+    // from what the import stored (an export carries correct stats, so re-importing one writes nothing)
+    private static final String REFRESH_ANSWER_STATS = "MERGE INTO questions q USING ("
+        + "SELECT questionId, COUNT(*) AS n, MIN(CASE WHEN isAccepted THEN answerId END) AS accepted, MAX(updatedAt) AS latest "
+        + "FROM answers WHERE questionId BETWEEN ? AND ? GROUP BY questionId) s ON q.questionId = s.questionId "
+        + "WHEN MATCHED AND (q.answerCount <> s.n OR q.acceptedAnswerId IS DISTINCT FROM s.accepted "
+        + "OR q.lastActivityAt IS DISTINCT FROM GREATEST(q.updatedAt, s.latest)) "
+        + "THEN UPDATE SET answerCount = s.n, acceptedAnswerId = s.accepted, lastActivityAt = GREATEST(q.updatedAt, s.latest)";
+
+    private final ConnectionPool pool = ConnectionPool.getInstance();
+    private final Consumer<Report> progress;
+
+    public BoardDataTransfer() { this(null); }
+
+    /**
+     * @param progress called with the running totals after every committed import chunk and
+     *        after each exported table (may be null)
+     */
+    public BoardDataTransfer(Consumer<Report> progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Write every row to a JSON Lines file (replacing it).
+     * @param file destination
+     * @return rows written per record type, with the time taken
+     */
+    public Report exportTo(Path file) throws IOException, SQLException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return exportTo(out);
+        }
+    }
+
+    /**
+     * Write every row as JSON Lines.
+     * @param out destination (not closed)
+     * @return rows written per record type, with the time taken
+     */
+    public Report exportTo(Writer out) throws IOException, SQLException {
+        Report report = new Report("Exported");
+        BufferedWriter writer = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out);
+        StringBuilder line = new StringBuilder(256);
+        try (Connection connection = pool.getConnection()) {
+            for (Table t : TABLES) {
+                try (PreparedStatement p = connection.prepareStatement(t.select)) {
+                    p.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = p.executeQuery()) {
+                        while (rs.next()) {
+                            line.setLength(0);
+                            line.append("{\"type\":");
+                            appendString(line, t.type);
+                            for (int i = 0; i < t.columns.size(); i++) {
+                                Column c = t.columns.get(i);
+                                line.append(',');
+                                appendString(line, c.name);
+                                line.append(':');
+                                appendValue(line, c.kind, rs, i + 1);
+                            }
+                            line.append('}');
+                            writer.write(line.toString());
+                            writer.newLine();
+                            report.count(t.type);
+                        }
+                    }
+                }
+                report(report);
+            }
+        }
+        writer.flush();
+        return report.finish();
+    }
+
+    /**
+     * Load a JSON Lines file written by {@link #exportTo(Path)} (or by hand in the same format).
+     * @param file source
+     * @return rows imported per record type, with the time taken
+     * @throws IOException if the file cannot be read or a line is malformed (with its line number)
+     * @throws SQLException if a row is rejected; chunks before it stay committed
+     */
+    public Report importFrom(Path file) throws IOException, SQLException {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(in);
+        }
+    }
+
+    /**
+     * Load JSON Lines records.
+     * @param in source (not closed)
+     * @return rows imported per record type, with the time taken
+     */
+    public Report importFrom(Reader in) throws IOException, SQLException {
+        Map<String, Table> byType = new HashMap<>();
+        for (Table t : TABLES) byType.put(t.type, t);
+        Report report = new Report("Imported");
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+
+        try (Connection connection = pool.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            // one batch per record type, sent in TABLES order so parents reach the database before their children
+            Map<Table, PreparedStatement> statements = new LinkedHashMap<>();
+            for (Table t : TABLES) statements.put(t, null);
+            Map<Table, Integer> batched = new HashMap<>();
+            // questions whose answer stats must be recomputed: imported questions and parents of imported answers
+            long minQuestion = Long.MAX_VALUE, maxQuestion = Long.MIN_VALUE;
+            try {
+                connection.setAutoCommit(false);
+                int chunkRows = 0;
+                int lineNumber = 0;
+                String text;
+                while ((text = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (text.trim().isEmpty()) continue;
+                    Map<String, Object> record;
+                    try {
+                        record = new JsonLine(text).parseObject();
+                    } catch (IllegalArgumentException ex) {
+                        throw new IOException("Line " + lineNumber + ": " + ex.getMessage(), ex);
+                    }
+                    Table t = byType.get(String.valueOf(record.get("type")));
+                    if (t == null) throw new IOException("Line " + lineNumber + ": unknown record type " + record.get("type"));
+
+                    PreparedStatement p = statements.get(t);
+                    if (p == null) {
+                        p = connection.prepareStatement(t.merge);
+                        statements.put(t, p);
+                    }
+                    bind(p, t, record, lineNumber);
+                    p.addBatch();
+                    int rows = batched.merge(t, 1, Integer::sum);
+                    chunkRows++;
+                    report.count(t.type);
+
+                    if ("question".equals(t.type) || "answer".equals(t.type)) {
+                        long q = ((Number) record.get("questionId")).longValue();
+                        minQuestion = Math.min(minQuestion, q);
+                        maxQuestion = Math.max(maxQuestion, q);
+                    }
+                    if (rows >= BATCH_SIZE) executeBatches(statements, batched, lineNumber);
+                    if (chunkRows >= CHUNK_ROWS) {
+                        executeBatches(statements, batched, lineNumber);
+                        connection.commit();
+                        chunkRows = 0;
+                        report(report);
+                    }
+                }
+                executeBatches(statements, batched, lineNumber);
+                finishImport(connection, report, minQuestion, maxQuestion);
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException ex) {
+                try { connection.rollback(); } catch (SQLException e) { /* ignore rollback errors */ }
+                throw ex;
+            } finally {
+                for (PreparedStatement p : statements.values()) {
+                    if (p == null) continue;
+                    try { p.close(); } catch (SQLException e) { /* ignore */ }
+                }
+                try { connection.setAutoCommit(autoCommit); } catch (SQLException e) { /* ignore */ }
+            }
+        }
+        // cached questions and answers may have been replaced
+        DiscussionBoardDAO.clearEntityCaches();
+        return report.finish();
+    }
+
+    // derived columns and id sequences, once all rows are in
+    private void finishImport(Connection connection, Report report, long minQuestion, long maxQuestion) throws SQLException {
+        if (minQuestion <= maxQuestion) {
+            try (PreparedStatement p = connection.prepareStatement(REFRESH_ANSWER_STATS)) {
+                p.setLong(1, minQuestion);
+                p.setLong(2, maxQuestion);
+                p.executeUpdate();
+            }
+        }
+        // new rows created through the DAO must get ids past the imported ones
+        try (Statement st = connection.createStatement()) {
+            for (Table t : TABLES) {
+                if (!t.identity || report.getCount(t.type) == 0) continue;
+                long next;
+                try (ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(" + t.key() + "), 0) + 1 FROM " + t.name)) {
+                    rs.next();
+                    next = rs.getLong(1);
+                }
+                st.execute("ALTER TABLE " + t.name + " ALTER COLUMN " + t.key() + " RESTART WITH " + next);
+            }
+        }
+    }
+
+    // send every pending batch, parents first
+    private static void executeBatches(Map<Table, PreparedStatement> statements, Map<Table, Integer> batched, int lineNumber) throws SQLException {
+        for (Map.Entry<Table, PreparedStatement> e : statements.entrySet()) {
+            if (batched.getOrDefault(e.getKey(), 0) == 0) continue;
+            try {
+                e.getValue().executeBatch();
+            } catch (SQLException ex) {
+                throw new SQLException("Import of " + e.getKey().type + " rows failed in the batch ending at line " + lineNumber + ": " + ex.getMessage(), ex);
+            }
+            batched.put(e.getKey(), 0);
+        }
+    }
+
+    private static void bind(PreparedStatement p, Table t, Map<String, Object> record, int lineNumber) throws IOException, SQLException {
+        for (int i = 0; i < t.columns.size(); i++) {
+            Column c = t.columns.get(i);
+            Object value = record.containsKey(c.name) ? record.get(c.name) : null;
+            if (!record.containsKey(c.name)) {
+                if (c.fallback == null) throw new IOException("Line " + lineNumber + ": " + t.type + " record has no " + c.name);
+                value = c.fallback.apply(record);
+            }
+            try {
+                bindValue(p, i + 1, c.kind, value);
+            } catch (RuntimeException ex) {
+                throw new IOException("Line " + lineNumber + ": bad " + c.name + " value " + value, ex);
+            }
+        }
+    }
+
+    private static void bindValue(PreparedStatement p, int index, Kind kind, Object value) throws SQLException {
+        if (value == null) {
+            p.setNull(index, kind == Kind.INT ? Types.INTEGER : kind == Kind.BOOL ? Types.BOOLEAN
+                    : kind == Kind.TIMESTAMP ? Types.TIMESTAMP : Types.VARCHAR);
+            return;
+        }
+        switch (kind) {
+            case INT: p.setLong(index, ((Number) value).longValue()); break;
+            case BOOL: p.setBoolean(index, (Boolean) value); break;
+            case TIMESTAMP: p.setTimestamp(index, Timestamp.valueOf(LocalDateTime.parse((String) value))); break;
+            default: p.setString(index, (String) value); break;
+        }
+    }
+
+    private static void appendValue(StringBuilder sb, Kind kind, ResultSet rs, int index) throws SQLException {
+        switch (kind) {
+            case INT: {
+                long v = rs.getLong(index);
+                if (rs.wasNull()) sb.append("null"); else sb.append(v);
+                break;
+            }
+            case BOOL: {
+                boolean v = rs.getBoolean(index);
+                sb.append(rs.wasNull() ? "null" : String.valueOf(v));
+                break;
+            }
+            case TIMESTAMP: {
+                Timestamp ts = rs.getTimestamp(index);
+                if (ts == null) sb.append("null"); else appendString(sb, ts.toLocalDateTime().toString());
+                break;
+            }
+            default: {
+                String s = rs.getString(index);
+                if (s == null) sb.append("null"); else appendString(sb, s);
+                break;
+            }
+        }
+    }
+
+    // JSON string literal
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private void report(Report report) {
+        if (progress != null) progress.accept(report.snapshot());
+    }
+
+    // parser for one line: a flat JSON object of strings, numbers, booleans and nulls
+    private static final class JsonLine {
+        private final String s;
+        private int pos;
+
+        JsonLine(String s) { this.s = s; }
+
+        Map<String, Object> parseObject() {
+            Map<String, Object> values = new HashMap<>();
+            skipSpace();
+            expect('{');
+            skipSpace();
+            if (peek() == '}') { pos++; return end(values); }
+            while (true) {
+                skipSpace();
+                String key = parseString();
+                skipSpace();
+                expect(':');
+                skipSpace();
+                values.put(key, parseValue());
+                skipSpace();
+                char c = next();
+                if (c == '}') return end(values);
+                if (c != ',') throw new IllegalArgumentException("expected ',' or '}' at column " + pos);
+            }
+        }
+
+        private Map<String, Object> end(Map<String, Object> values) {
+            skipSpace();
+            if (pos != s.length()) throw new IllegalArgumentException("unexpected text after the object at column " + (pos + 1));
+            return values;
+        }
+
+        private Object parseValue() {
+            char c = peek();
+            if (c == '"') return parseString();
+            if (s.startsWith("true", pos)) { pos += 4; return Boolean.TRUE; }
+            if (s.startsWith("false", pos)) { pos += 5; return Boolean.FALSE; }
+            if (s.startsWith("null", pos)) { pos += 4; return null; }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                int start = pos;
+                while (pos < s.length() && "+-0123456789.eE".indexOf(s.charAt(pos)) >= 0) pos++;
+                String number = s.substring(start, pos);
+                try {
+                    return Long.parseLong(number);
+                } catch (NumberFormatException ex) {
+                    return Double.parseDouble(number);
+                }
+            }
+            throw new IllegalArgumentException("unsupported value at column " + (pos + 1));
+        }
+
+        private String parseString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') return sb.toString();
+                if (c != '\\') { sb.append(c); continue; }
+                char e = next();
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > s.length()) throw new IllegalArgumentException("bad \\u escape at column " + pos);
+                        sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(e); break; // \" \\ \/
+                }
+            }
+        }
+
+        private void skipSpace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        private char peek() {
+            if (pos >= s.length()) throw new IllegalArgumentException("unexpected end of line");
+            return s.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char c) {
+            if (next() != c) throw new IllegalArgumentException("expected '" + c + "' at column " + pos);
+        }
+    }
+
+    /** Rows transferred per record type and the throughput of one import or export. */
+    public static final class Report {
+        private final String verb;
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Long> counts = new LinkedHashMap<>();
+        private long rows;
+        private long elapsedNanos;
+
+        private Report(String verb) { this.verb = verb; }
+
+        private void count(String type) {
+            counts.merge(type, 1L, Long::sum);
+            rows++;
+        }
+
+        private Report snapshot() {
+            Report copy = new Report(verb);
+            copy.counts.putAll(counts);
+            copy.rows = rows;
+            copy.elapsedNanos = System.nanoTime() - startNanos;
+            return copy;
+        }
+
+        private Report finish() {
+            elapsedNanos = System.nanoTime() - startNanos;
+            return this;
+        }
+
+        /** @return total rows transferred */
+        public long getRows() { return rows; }
+
+        /** @return rows of one record type ("question", "answer", "flag", ...) */
+        public long getCount(String type) { return counts.getOrDefault(type, 0L); }
+
+        /** @return rows per record type, in the order first seen */
+        public Map<String, Long> getCounts() { return Collections.unmodifiableMap(counts); }
+
+        public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+
+        public double getRowsPerSecond() { return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos; }
+
+        @Override
+        public String toString() {
+            return String.format("%s %d rows in %.1fs (%.0f rows/s) %s", verb, rows, getElapsedMillis() / 1000, getRowsPerSecond(), counts);
+        }
+    }
+}
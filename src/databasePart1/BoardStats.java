@@ -0,0 +1,46 @@
+package databasePart1;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Board totals for the staff Summary tab, read with one COUNT query
+ * (see {@link DiscussionBoardDAO#getBoardStats()}) instead of loading every question and answer.
+ */
+public final class BoardStats {
+    private final int totalQuestions;
+    private final int questionsWithoutAnswers;
+    private final int totalAnswers;
+    private final int openTasks;
+    private final Map<FlagKey.Type, Integer> flaggedByType;
+
+    BoardStats(int totalQuestions, int questionsWithoutAnswers, int totalAnswers, int openTasks, Map<FlagKey.Type, Integer> flaggedByType) {
+        this.totalQuestions = totalQuestions;
+        this.questionsWithoutAnswers = questionsWithoutAnswers;
+        this.totalAnswers = totalAnswers;
+        this.openTasks = openTasks;
+        this.flaggedByType = Collections.unmodifiableMap(new EnumMap<>(flaggedByType));
+    }
+
+    public int getTotalQuestions() { return totalQuestions; }
+    /** @return questions with no answers yet (answerCount 0), whatever their answered status */
+    public int getQuestionsWithoutAnswers() { return questionsWithoutAnswers; }
+    public int getTotalAnswers() { return totalAnswers; }
+    public int getOpenTasks() { return openTasks; }
+
+    /** @return flagged item count per type (every type present, possibly 0) */
+    public Map<FlagKey.Type, Integer> getFlaggedByType() { return flaggedByType; }
+
+    public int getTotalFlagged() {
+        int total = 0;
+        for (int n : flaggedByType.values()) total += n;
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "BoardStats{questions=" + totalQuestions + ", withoutAnswers=" + questionsWithoutAnswers + ", answers=" + totalAnswers
+                + ", flagged=" + flaggedByType + ", openTasks=" + openTasks + "}";
+    }
+}
@@ -0,0 +1,322 @@
+package databasePart1;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide, bounded pool of JDBC connections to the H2 database.
+ * DatabaseHelper and DiscussionBoardDAO borrow a connection per operation and
+ * return it by closing the handle, so navigating between pages no longer opens
+ * a new physical connection each time.
+ *
+ * Borrowing is re-entrant per thread: a nested call made while the thread
+ * already holds a connection gets the same handle, so helper methods that call
+ * other DAO methods never need a second connection (or deadlock on an empty pool).
+ *
+ * Each physical connection keeps its prepared statements open in a {@link StatementCache},
+ * so the DAO's literal SQL strings are parsed and planned once per connection rather than on
+ * every call; closing a statement handle returns it to that cache.
+ */
+public final class ConnectionPool {
+
+	// JDBC driver name and database URL
+	static final String JDBC_DRIVER = "org.h2.Driver";
+	// AUTO_SERVER lets several clients share the database file; the first one serves the others over TCP
+	static final String DEFAULT_DB_URL = "jdbc:h2:~/FoundationDatabase;AUTO_SERVER=TRUE";
+	/** System property that points the pool at another database (the tests use a throwaway one). */
+	public static final String DB_URL_PROPERTY = "cse360.dbUrl";
+	static final String DB_URL = System.getProperty(DB_URL_PROPERTY, DEFAULT_DB_URL);
+
+	//  Database credentials
+	static final String USER = "sa";
+	static final String PASS = "";
+
+	/** Maximum number of physical connections held open at once. */
+	static final int MAX_CONNECTIONS = 8;
+	/** How long a caller waits for a free connection before giving up. */
+	static final long BORROW_TIMEOUT_MS = 10_000;
+
+	private static final ConnectionPool INSTANCE = new ConnectionPool(MAX_CONNECTIONS);
+
+	private final int maxConnections;
+	private final Semaphore permits;
+	private final LinkedBlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+	private final ThreadLocal<Lease> current = new ThreadLocal<>();
+	// statement cache of every open physical connection
+	private final Map<Connection, StatementCache> statements = new ConcurrentHashMap<>();
+
+	// metrics
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicInteger opened = new AtomicInteger();
+	private final LongAdder borrows = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final LongAdder statementHits = new LongAdder();
+	private final LongAdder statementMisses = new LongAdder();
+
+	private volatile boolean shutdown = false;
+
+	private ConnectionPool(int maxConnections) {
+		this.maxConnections = maxConnections;
+		this.permits = new Semaphore(maxConnections, true);
+	}
+
+	/**
+	 * Get the shared pool for this process.
+	 * @return the pool instance
+	 */
+	public static ConnectionPool getInstance() { return INSTANCE; }
+
+	/**
+	 * Borrow a connection. Close the returned handle to give it back to the pool;
+	 * the physical connection stays open for the next caller.
+	 * @return a pooled connection handle
+	 * @throws SQLException if the pool is shut down, the wait times out, or connecting fails
+	 */
+	public Connection getConnection() throws SQLException {
+		if (shutdown) throw new SQLException("Connection pool has been shut down");
+		Lease lease = current.get();
+		if (lease != null) {
+			lease.depth++;
+			return lease.handle;
+		}
+		long start = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+				throw new SQLException("Timed out waiting for a pooled database connection");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a pooled database connection", e);
+		}
+		long waited = System.nanoTime() - start;
+		borrows.increment();
+		waitNanos.add(waited);
+		maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+		Connection physical;
+		try {
+			physical = takeIdle();
+			if (physical == null) physical = open();
+		} catch (SQLException e) {
+			permits.release();
+			throw e;
+		}
+		lease = new Lease(physical);
+		current.set(lease);
+		active.incrementAndGet();
+		return lease.handle;
+	}
+
+	// reuse the most recently returned connection that is still alive
+	private Connection takeIdle() {
+		Connection c;
+		while ((c = idle.pollFirst()) != null) {
+			try {
+				if (!c.isClosed()) return c;
+			} catch (SQLException e) { /* drop broken connection */ }
+			closePhysical(c);
+		}
+		return null;
+	}
+
+	private Connection open() throws SQLException {
+		try {
+			Class.forName(JDBC_DRIVER);
+		} catch (ClassNotFoundException e) {
+			throw new SQLException("Failed to connect to the database", e);
+		}
+		Connection c = DriverManager.getConnection(DB_URL, USER, PASS);
+		statements.put(c, new StatementCache(c, statementHits, statementMisses));
+		opened.incrementAndGet();
+		return c;
+	}
+
+	// close a physical connection together with its cached statements
+	private void closePhysical(Connection c) {
+		StatementCache cache = statements.remove(c);
+		if (cache != null) cache.close();
+		try { c.close(); } catch (SQLException e) { /* ignore */ }
+		opened.decrementAndGet();
+	}
+
+	// called when the outermost handle for a lease is closed
+	private void release(Lease lease) {
+		current.remove();
+		active.decrementAndGet();
+		Connection physical = lease.physical;
+		try {
+			// statements the borrower forgot to close go back to the cache
+			StatementCache cache = statements.get(physical);
+			if (cache != null) cache.reclaim();
+			// never hand a half-finished transaction to the next borrower
+			if (!physical.getAutoCommit()) {
+				try { physical.rollback(); } finally { physical.setAutoCommit(true); }
+			}
+			if (shutdown) {
+				closePhysical(physical);
+			} else {
+				idle.offerFirst(physical);
+			}
+		} catch (SQLException e) {
+			closePhysical(physical);
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Open physical connections ahead of demand so the first borrowers do not pay for
+	 * connecting. Stops once the pool holds {@code count} connections (at most MAX_CONNECTIONS).
+	 * @param count connections the pool should hold
+	 * @return number of connections opened
+	 * @throws SQLException if connecting fails
+	 */
+	public int warmUp(int count) throws SQLException {
+		int target = Math.min(count, maxConnections);
+		int added = 0;
+		while (!shutdown && opened.get() < target) {
+			idle.offerLast(open());
+			added++;
+		}
+		return added;
+	}
+
+	/**
+	 * Close all idle connections and refuse further borrows. Connections still in
+	 * use are closed as soon as they are returned.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		Connection c;
+		while ((c = idle.pollFirst()) != null) closePhysical(c);
+	}
+
+	/**
+	 * Snapshot of the pool metrics.
+	 * @return current stats
+	 */
+	public Stats getStats() {
+		return new Stats(active.get(), idle.size(), opened.get(), maxConnections,
+				borrows.sum(), waitNanos.sum(), maxWaitNanos.get(),
+				statementHits.sum(), statementMisses.sum());
+	}
+
+	/** One borrowed physical connection plus the re-entrancy depth of the owning thread. */
+	private final class Lease implements InvocationHandler {
+		final Connection physical;
+		final Connection handle;
+		int depth = 1;
+		boolean released = false;
+
+		Lease(Connection physical) {
+			this.physical = physical;
+			this.handle = (Connection) Proxy.newProxyInstance(
+					Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close":
+					if (!released && --depth == 0) {
+						released = true;
+						release(this);
+					}
+					return null;
+				case "isClosed":
+					return released || physical.isClosed();
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "PooledConnection[" + physical + "]";
+				default:
+					if (released) throw new SQLException("Connection has been returned to the pool");
+					if (method.getName().equals("prepareStatement")) {
+						PreparedStatement cached = prepareCached(method, args);
+						if (cached != null) return cached;
+					}
+					try {
+						return method.invoke(physical, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+			}
+		}
+
+		// prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) go through the statement cache;
+		// the variants with column lists or cursor options return null and are passed through
+		private PreparedStatement prepareCached(Method method, Object[] args) throws SQLException {
+			Class<?>[] types = method.getParameterTypes();
+			if (types.length > 2 || (types.length == 2 && types[1] != int.class)) return null;
+			StatementCache cache = statements.get(physical);
+			if (cache == null) return null;
+			return cache.prepare((String) args[0], types.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS);
+		}
+	}
+
+	/** Immutable view of the pool metrics (active/idle connections, borrow wait times and statement cache hits). */
+	public static final class Stats {
+		private final int active;
+		private final int idle;
+		private final int open;
+		private final int max;
+		private final long borrows;
+		private final long totalWaitNanos;
+		private final long maxWaitNanos;
+		private final long statementHits;
+		private final long statementMisses;
+
+		Stats(int active, int idle, int open, int max, long borrows, long totalWaitNanos, long maxWaitNanos,
+				long statementHits, long statementMisses) {
+			this.active = active;
+			this.idle = idle;
+			this.open = open;
+			this.max = max;
+			this.borrows = borrows;
+			this.totalWaitNanos = totalWaitNanos;
+			this.maxWaitNanos = maxWaitNanos;
+			this.statementHits = statementHits;
+			this.statementMisses = statementMisses;
+		}
+
+		public int getActive() { return active; }
+		public int getIdle() { return idle; }
+		public int getOpen() { return open; }
+		public int getMax() { return max; }
+		public long getBorrows() { return borrows; }
+		public double getAverageWaitMillis() { return borrows == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrows; }
+		public double getMaxWaitMillis() { return maxWaitNanos / 1_000_000.0; }
+		/** @return prepareStatement calls served from a connection's statement cache */
+		public long getStatementHits() { return statementHits; }
+		/** @return prepareStatement calls that had to parse the SQL */
+		public long getStatementMisses() { return statementMisses; }
+		public double getStatementHitRate() {
+			long total = statementHits + statementMisses;
+			return total == 0 ? 0 : (double) statementHits / total;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Pool{active=%d, idle=%d, open=%d/%d, borrows=%d, avgWait=%.3fms, maxWait=%.3fms, statements=%d hits/%d misses}",
+					active, idle, open, max, borrows, getAverageWaitMillis(), getMaxWaitMillis(), statementHits, statementMisses);
+		}
+	}
+}
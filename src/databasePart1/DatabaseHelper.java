@@ -1,7 +1,6 @@
 package databasePart1;
 import java.sql.*;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.UUID;
@@ -15,69 +14,23 @@ import application.User;
  */
 public class DatabaseHelper {
 
-	// JDBC driver name and database URL
-	static final String JDBC_DRIVER = "org.h2.Driver";
-	static final String DB_URL = "jdbc:h2:~/FoundationDatabase";
-
-	//  Database credentials
-	static final String USER = "sa";
-	static final String PASS = "";
-
-	private Connection connection = null;
-	private Statement statement = null;
-	//	PreparedStatement pstmt
+	// connections are borrowed per operation from the shared pool
+	private final ConnectionPool pool = ConnectionPool.getInstance();
 
 	public void connectToDatabase() throws SQLException {
-		try {
-			Class.forName(JDBC_DRIVER); // Load the JDBC driver
-			System.out.println("Connecting to database...");
-			connection = DriverManager.getConnection(DB_URL, USER, PASS);
-			statement = connection.createStatement();
-			// You can use this command to clear the database and restart from fresh.
-			//statement.execute("DROP ALL OBJECTS");
-
-			createTables();  // Create the necessary tables if they don't exist
-		} catch (ClassNotFoundException e) {
-			System.err.println("JDBC Driver not found: " + e.getMessage());
-		}
-	}
-
-	private void createTables() throws SQLException {
-		String userTable = "CREATE TABLE IF NOT EXISTS cse360users ("
-				+ "id INT AUTO_INCREMENT PRIMARY KEY, "
-				+ "userName VARCHAR(255) UNIQUE, "
-				+ "password VARCHAR(255), "
-				+ "role VARCHAR(20))";
-		statement.execute(userTable);
-
-		// Create the invitation codes table
-	    String invitationCodesTable = "CREATE TABLE IF NOT EXISTS InvitationCodes ("
-	            + "code VARCHAR(10) PRIMARY KEY, "
-	            + "isUsed BOOLEAN DEFAULT FALSE)";
-	    statement.execute(invitationCodesTable);
-
-    	// HW4 addition: ensure default Staff account exists (role 'staff') and set password to Karson123.
-    	// Use MERGE so we update or insert as needed (H2 supports MERGE INTO)
-    	try {
-    		String upsert = "MERGE INTO cse360users (userName, password, role) KEY(userName) VALUES (?, ?, ?)";
-    		try (PreparedStatement pstmt = connection.prepareStatement(upsert)) {
-    			pstmt.setString(1, "Staff");
-    			pstmt.setString(2, "Karson123");
-    			pstmt.setString(3, "staff");
-    			pstmt.executeUpdate();
-    		}
-    	} catch (SQLException se) {
-    		// silent failure acceptable; staff account may not be available
-    	}
+		// tables and the staff account come from numbered migrations (see SchemaMigrator),
+		// applied once per database; a warm start only reads schema_version
+		SchemaMigrator.migrate();
 	}
 
-
 	// Check if the database is empty
 	public boolean isDatabaseEmpty() throws SQLException {
 		String query = "SELECT COUNT(*) AS count FROM cse360users";
-		ResultSet resultSet = statement.executeQuery(query);
-		if (resultSet.next()) {
-			return resultSet.getInt("count") == 0;
+		try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery(query)) {
+			if (resultSet.next()) {
+				return resultSet.getInt("count") == 0;
+			}
 		}
 		return true;
 	}
@@ -85,7 +38,7 @@ public class DatabaseHelper {
 	// Registers a new user in the database.
 	public void register(User user) throws SQLException {
 		String insertUser = "INSERT INTO cse360users (userName, password, role) VALUES (?, ?, ?)";
-		try (PreparedStatement pstmt = connection.prepareStatement(insertUser)) {
+		try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(insertUser)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
 			pstmt.setString(3, user.getRole());
@@ -96,7 +49,7 @@ public class DatabaseHelper {
 	// Validates a user's login credentials.
 	public boolean login(User user) throws SQLException {
 		String query = "SELECT * FROM cse360users WHERE userName = ? AND password = ? AND role = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(query)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
 			pstmt.setString(3, user.getRole());
@@ -109,7 +62,7 @@ public class DatabaseHelper {
 	// Checks if a user already exists in the database based on their userName.
 	public boolean doesUserExist(String userName) {
 	    String query = "SELECT COUNT(*) FROM cse360users WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(query)) {
 
 	        pstmt.setString(1, userName);
 	        ResultSet rs = pstmt.executeQuery();
@@ -127,7 +80,7 @@ public class DatabaseHelper {
 	// Retrieves the role of a user from the database using their UserName.
 	public String getUserRole(String userName) {
 	    String query = "SELECT role FROM cse360users WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(query)) {
 	        pstmt.setString(1, userName);
 	        ResultSet rs = pstmt.executeQuery();
 
@@ -145,7 +98,7 @@ public class DatabaseHelper {
 	    String code = UUID.randomUUID().toString().substring(0, 4); // Generate a random 4-character code
 	    String query = "INSERT INTO InvitationCodes (code) VALUES (?)";
 
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(query)) {
 	        pstmt.setString(1, code);
 	        pstmt.executeUpdate();
 	    } catch (SQLException e) {
@@ -158,7 +111,7 @@ public class DatabaseHelper {
 	// Validates an invitation code to check if it is unused.
 	public boolean validateInvitationCode(String code) {
 	    String query = "SELECT * FROM InvitationCodes WHERE code = ? AND isUsed = FALSE";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(query)) {
 	        pstmt.setString(1, code);
 	        ResultSet rs = pstmt.executeQuery();
 	        if (rs.next()) {
@@ -175,7 +128,7 @@ public class DatabaseHelper {
 	// Marks the invitation code as used in the database.
 	private void markInvitationCodeAsUsed(String code) {
 	    String query = "UPDATE InvitationCodes SET isUsed = TRUE WHERE code = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(query)) {
 	        pstmt.setString(1, code);
 	        pstmt.executeUpdate();
 	    } catch (SQLException e) {
@@ -183,18 +136,10 @@ public class DatabaseHelper {
 	    }
 	}
 
-	// Closes the database connection and statement.
+	// Releases this helper. Connections are borrowed per call from the shared pool,
+	// so there is nothing left open here; the pool itself is shut down on application exit.
 	public void closeConnection() {
-		try{
-			if(statement!=null) statement.close();
-		} catch(SQLException se2) {
-			se2.printStackTrace();
-		}
-		try {
-			if(connection!=null) connection.close();
-		} catch(SQLException se){
-			se.printStackTrace();
-		}
+		// nothing to close
 	}
 
 }
@@ -1,12 +1,21 @@
 package databasePart1;
 
+import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import application.Staff;
+import application.Task;
 import application.Question;
 import application.Answer;
 import application.Questions;
@@ -14,173 +23,497 @@ import application.Answers;
 
 //data access object for the discussion board
 public class DiscussionBoardDAO {
-    private Connection connection;
-    private Statement statement;
+    // connections are borrowed per operation from the shared pool
+    private final ConnectionPool pool = ConnectionPool.getInstance();
+
+    // schema DDL and the persistent-state load run once per process, not once per DAO
+    private static volatile boolean initialized = false;
+    // set once the H2 full-text index is in place; otherwise search falls back to LIKE
+    private static volatile boolean fullTextAvailable = false;
+
+    // log entries older than this are rolled into admin_log_archive on startup
+    static final int LOG_RETENTION_DAYS = 365;
+    // entries per archive segment
+    static final int LOG_SEGMENT_SIZE = 1000;
+    // largest page getLogs(from, to, ...) returns
+    static final int MAX_LOG_PAGE = 500;
 
     // In-memory structures for staff monitoring features (HW4 additions)
-    // Make these static so all DAO instances share the same flagged state and logs.
-    private static final List<Staff> staffList = new ArrayList<>(); // tracks staff instances (not persisted)
-    private static final Map<String, List<String>> flaggedItems = new HashMap<>(); // itemId -> list of notes
-    private static final List<String> logs = new ArrayList<>(); // historical logs of reviews/actions & communications
-    private static final List<String> taskBoard = new ArrayList<>(); // unresolved issues/tasks (index-based id)
-    private static final List<java.util.function.Consumer<List<String>>> taskListeners = new ArrayList<>();
-    private static final Map<Integer, List<String>> privateFeedback = new HashMap<>(); // questionId -> feedback entries
-    private static final Map<Integer, List<String>> privateAnswerFeedback = new HashMap<>(); // answerId -> feedback entries
+    // Static so all DAO instances share the same staff list, flagged state, logs, tasks and feedback.
+    // The store is safe to use from any thread (see DiscussionBoardState for the visibility rules).
+    private static final DiscussionBoardState state = new DiscussionBoardState();
+    // admin_logs inserts are queued and written in batches off the caller's thread
+    private static final AuditLogWriter logWriter = new AuditLogWriter(state);
 
-    //db credentials (from DatabaseHelper)
+    // removals and updates are recorded in change_feed tagged with this process's id, so other
+    // clients on the same database can apply them (new rows already arrive through the catch-up);
+    // question and answer writes are recorded too, so other clients drop their cached copies
+    static final String ORIGIN = UUID.randomUUID().toString();
+    // how often the change feed is polled
+    static final long CHANGE_POLL_MS = 2_000;
+    // change_feed rows older than this are pruned on startup
+    static final int CHANGE_FEED_RETENTION_HOURS = 24;
+    private static ScheduledExecutorService changePoller; // guarded by DiscussionBoardDAO.class
 
-    // JDBC driver name and database URL
-	static final String JDBC_DRIVER = "org.h2.Driver";
-	static final String DB_URL = "jdbc:h2:~/FoundationDatabase";
+    // read-through caches for getQuestionById, getAnswerById and getAnswersForQuestion, each bounded
+    // by estimated bytes; the writers below invalidate exactly the rows they change
+    static final long ENTITY_CACHE_BYTES = 4L * 1024 * 1024;
+    private static final EntityCache<Integer, Question> questionCache =
+        new EntityCache<>("questions", ENTITY_CACHE_BYTES, DiscussionBoardDAO::weigh, Question::new);
+    private static final EntityCache<Integer, Answer> answerCache =
+        new EntityCache<>("answers", ENTITY_CACHE_BYTES, DiscussionBoardDAO::weigh, Answer::new);
+    private static final EntityCache<Integer, List<Answer>> answerListCache =
+        new EntityCache<>("answers by question", ENTITY_CACHE_BYTES, DiscussionBoardDAO::weigh, DiscussionBoardDAO::copyAnswers);
 
-	//  Database credentials
-	static final String USER = "sa";
-	static final String PASS = "";
+    // characters of content shown for a flagged answer or feedback entry, and on list rows
+    static final int SNIPPET_LENGTH = 80;
+    // list-view and per-parent reads; each must be answered from an index (see QueryPlanCheck).
+    // List rows select a preview (one character more than shown, to tell if it was cut) instead of the body.
+    static final String QUESTION_SUMMARY = "SELECT questionId, title, authorUserName, createdAt, updatedAt, isAnswered, category, "
+        + "answerCount, acceptedAnswerId, lastActivityAt, LEFT(content, " + (SNIPPET_LENGTH + 1) + ") AS preview FROM questions ";
+    static final String ANSWER_SUMMARY = "SELECT answerId, questionId, authorUserName, createdAt, updatedAt, isAccepted, "
+        + "LEFT(content, " + (SNIPPET_LENGTH + 1) + ") AS preview FROM answers ";
+    static final String ALL_QUESTIONS = "SELECT * FROM questions ORDER BY createdAt DESC";
+    static final String ALL_QUESTION_SUMMARIES = QUESTION_SUMMARY + "ORDER BY createdAt DESC, questionId DESC";
+    static final String QUESTIONS_FIRST_PAGE = QUESTION_SUMMARY + "ORDER BY createdAt DESC, questionId DESC LIMIT ?";
+    // the leading createdAt <= ? gives the planner an index range; the OR alone would scan
+    static final String QUESTIONS_NEXT_PAGE = QUESTION_SUMMARY
+        + "WHERE createdAt <= ? AND (createdAt < ? OR questionId < ?) ORDER BY createdAt DESC, questionId DESC LIMIT ?";
+    static final String QUESTIONS_WITHOUT_ANSWERS = QUESTION_SUMMARY + "WHERE answerCount = 0 ORDER BY lastActivityAt DESC LIMIT ?";
+    static final String ANSWERS_FOR_QUESTION = "SELECT * FROM answers WHERE questionId = ? ORDER BY isAccepted DESC, createdAt ASC";
+    static final String ALL_ANSWERS = "SELECT * FROM answers ORDER BY createdAt DESC";
+    static final String ALL_ANSWER_SUMMARIES = ANSWER_SUMMARY + "ORDER BY createdAt DESC";
+    // feedback is addressed by its position in this order (see FlagKey.getFeedbackIndex)
+    static final String FEEDBACK_FOR_QUESTION = "SELECT author, feedback FROM private_feedback WHERE questionId = ? ORDER BY createdAt ASC, feedbackId ASC";
+    static final String FEEDBACK_FOR_ANSWER = "SELECT author, feedback FROM answer_feedback WHERE answerId = ? ORDER BY createdAt ASC, feedbackId ASC";
+    // each flag with the text of its target: a question title, the start of an answer, or the feedback
+    // entry at the flag's index (numbered as in FEEDBACK_FOR_*, only for targets that have feedback flags)
+    static final String FLAGGED_TARGETS = "SELECT f.targetType, f.targetId, f.feedbackIndex, "
+        + "COALESCE(q.title, LEFT(a.content, " + (SNIPPET_LENGTH + 1) + "), LEFT(pf.feedback, " + (SNIPPET_LENGTH + 1) + "), LEFT(af.feedback, " + (SNIPPET_LENGTH + 1) + ")) AS text, "
+        + "COALESCE(pf.author, af.author) AS author "
+        + "FROM flags f "
+        + "LEFT JOIN questions q ON f.targetType = 'QUESTION' AND q.questionId = f.targetId "
+        + "LEFT JOIN answers a ON f.targetType = 'ANSWER' AND a.answerId = f.targetId "
+        + "LEFT JOIN (SELECT questionId, author, feedback, ROW_NUMBER() OVER (PARTITION BY questionId ORDER BY createdAt, feedbackId) - 1 AS idx "
+        + "FROM private_feedback WHERE questionId IN (SELECT targetId FROM flags WHERE targetType = 'QUESTION_FEEDBACK')) pf "
+        + "ON f.targetType = 'QUESTION_FEEDBACK' AND pf.questionId = f.targetId AND pf.idx = f.feedbackIndex "
+        + "LEFT JOIN (SELECT answerId, author, feedback, ROW_NUMBER() OVER (PARTITION BY answerId ORDER BY createdAt, feedbackId) - 1 AS idx "
+        + "FROM answer_feedback WHERE answerId IN (SELECT targetId FROM flags WHERE targetType = 'ANSWER_FEEDBACK')) af "
+        + "ON f.targetType = 'ANSWER_FEEDBACK' AND af.answerId = f.targetId AND af.idx = f.feedbackIndex "
+        + "ORDER BY f.flagId";
+    static final String FLAGS_FOR_ANSWER = "SELECT targetType, targetId, feedbackIndex FROM flags WHERE answerId = ?";
+    static final String OPEN_TASKS_FOR_ASSIGNEE = "SELECT taskId, description, status, assignee, priority, createdAt FROM tasks "
+        + "WHERE assignee = ? AND status = 'OPEN' ORDER BY priority DESC, taskId ASC";
 
     //constructor
     public DiscussionBoardDAO() throws SQLException {
-        connectToDatabase();
+        initialize();
     }
-    //connect to db
-    private void connectToDatabase() throws SQLException {
+    //create the schema and load shared state the first time any DAO is constructed;
+    //later DAOs only catch up with rows other sessions added since the last look
+    private void initialize() throws SQLException {
+        if (initialized) {
+            try (Connection connection = pool.getConnection()) {
+                catchUp(connection);
+            } catch (SQLException e) { /* keep the state we have; the next DAO retries */ }
+            return;
+        }
+        synchronized (DiscussionBoardDAO.class) {
+            if (initialized) return;
+            // numbered migrations; a warm start only reads schema_version
+            SchemaMigrator.migrate();
+            try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+                fullTextAvailable = searchIndexReady(statement);
+                statement.execute("DELETE FROM change_feed WHERE createdAt < DATEADD('HOUR', -" + CHANGE_FEED_RETENTION_HOURS + ", CURRENT_TIMESTAMP)");
+                // load persisted staff-related data into in-memory structures
+                loadPersistentState(connection);
+            }
+            initialized = true;
+            startChangeFeed();
+        }
+        // roll entries past the retention window into archive segments (a no-op index probe when there are none)
         try {
-            Class.forName(JDBC_DRIVER);
-            connection = DriverManager.getConnection(DB_URL, USER, PASS);
-            statement = connection.createStatement();
-            createTables();
-            // load persisted staff-related data into in-memory structures
-            loadPersistentState();
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("Failed to connect to the database", e);
-        }
-    }
-    //create the tables
-    private void createTables() throws SQLException {
-        //questions table.
-        String questionsTable = "CREATE TABLE IF NOT EXISTS questions(" +
-        "questionId INT AUTO_INCREMENT PRIMARY KEY," +
-        "title VARCHAR(255) NOT NULL," +
-        "content TEXT NOT NULL," +
-        "authorUserName VARCHAR(255) NOT NULL," +
-        "createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-        "updatedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-        "isAnswered BOOLEAN DEFAULT FALSE," +
-        "category VARCHAR(100))";
-        statement.execute(questionsTable);
-
-    //answers table.
-    String answersTable = "CREATE TABLE IF NOT EXISTS answers(" +
-    "answerId INT AUTO_INCREMENT PRIMARY KEY," +
-    "questionId INT NOT NULL," +
-    "content TEXT NOT NULL," +
-    "authorUserName VARCHAR(255) NOT NULL," +
-    "createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-    "updatedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-    "isAccepted BOOLEAN DEFAULT FALSE," +
-    "FOREIGN KEY (questionId) REFERENCES questions(questionId))";
-
-    statement.execute(answersTable);
-    // flagged items + notes (persisted)
-    String flaggedTable = "CREATE TABLE IF NOT EXISTS flagged_items(itemId VARCHAR(100) PRIMARY KEY)";
-    String flaggedNotes = "CREATE TABLE IF NOT EXISTS flagged_notes(noteId INT AUTO_INCREMENT PRIMARY KEY, itemId VARCHAR(100), note TEXT, author VARCHAR(255))";
-    statement.execute(flaggedTable);
-    statement.execute(flaggedNotes);
-    try { statement.execute("ALTER TABLE flagged_notes ADD COLUMN IF NOT EXISTS author VARCHAR(255)"); } catch (SQLException ex) { /* ignore */ }
-
-    // admin logs (store optional author for each entry)
-    String logsTable = "CREATE TABLE IF NOT EXISTS admin_logs(logId INT AUTO_INCREMENT PRIMARY KEY, entry TEXT, author VARCHAR(255), createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
-    statement.execute(logsTable);
-    // ensure older DBs get the author column
-    try {
-        statement.execute("ALTER TABLE admin_logs ADD COLUMN IF NOT EXISTS author VARCHAR(255)");
-    } catch (SQLException ex) { /* ignore */ }
-
-    // private feedback persistent store
-    String fbTable = "CREATE TABLE IF NOT EXISTS private_feedback(feedbackId INT AUTO_INCREMENT PRIMARY KEY, questionId INT, author VARCHAR(255), feedback TEXT, createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
-    statement.execute(fbTable);
-
-    // answer-level private feedback (per-answer feedback entries)
-    String afbTable = "CREATE TABLE IF NOT EXISTS answer_feedback(feedbackId INT AUTO_INCREMENT PRIMARY KEY, answerId INT, author VARCHAR(255), feedback TEXT, createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
-    statement.execute(afbTable);
-
-    // tasks persistent store (unresolved tasks)
-    String tasksTable = "CREATE TABLE IF NOT EXISTS tasks(taskId INT AUTO_INCREMENT PRIMARY KEY, description TEXT, createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
-    statement.execute(tasksTable);
+            archiveLogsBefore(LocalDateTime.now().minusDays(LOG_RETENTION_DAYS));
+        } catch (SQLException e) { /* retry on the next start */ }
+    }
+
+    // recomputes a question's answer stats from its answers (indexed by the answers -> questions key)
+    private static final String ANSWER_STATS =
+        "answerCount = (SELECT COUNT(*) FROM answers a WHERE a.questionId = q.questionId), " +
+        "acceptedAnswerId = (SELECT MIN(a.answerId) FROM answers a WHERE a.questionId = q.questionId AND a.isAccepted), " +
+        "lastActivityAt = GREATEST(q.updatedAt, COALESCE((SELECT MAX(a.updatedAt) FROM answers a WHERE a.questionId = q.questionId), q.updatedAt))";
+
+    // refresh the stats of one question inside the caller's transaction
+    private static void refreshAnswerStats(Connection connection, int questionId) throws SQLException {
+        try (PreparedStatement p = connection.prepareStatement("UPDATE questions q SET " + ANSWER_STATS + " WHERE q.questionId = ?")) {
+            p.setInt(1, questionId);
+            p.executeUpdate();
+        }
+    }
+
+    // run an answer write and the refresh of its question's stats in one transaction, then drop the
+    // cached question (its stats changed), its answer list and any of the given answers
+    private <T> T withAnswerStats(SqlWork<T> work, int questionId, int... answerIds) throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            try {
+                connection.setAutoCommit(false);
+                T result = work.run(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException ex) {
+                try { connection.rollback(); } catch (SQLException e) { /* ignore rollback errors */ }
+                throw ex;
+            } finally {
+                try { connection.setAutoCommit(autoCommit); } catch (SQLException e) { /* ignore */ }
+                for (int answerId : answerIds) answerCache.invalidate(answerId);
+                invalidateQuestion(questionId);
+            }
+        }
+    }
+
+    // drop the cached copies of a question and of its answer list
+    private static void invalidateQuestion(int questionId) {
+        questionCache.invalidate(questionId);
+        answerListCache.invalidate(questionId);
+    }
+
+    // drop every cached question and answer (after a bulk import, see BoardDataTransfer)
+    static void clearEntityCaches() {
+        questionCache.clear();
+        answerCache.clear();
+        answerListCache.clear();
+    }
+
+    // a deleted question takes its answers with it (ON DELETE CASCADE)
+    private static void invalidateDeletedQuestion(int questionId) {
+        invalidateQuestion(questionId);
+        answerCache.invalidateIf((id, a) -> a.getQuestionId() == questionId);
+    }
+
+    // estimated heap bytes of a cached entity: object overhead plus two bytes per character
+    private static int weigh(Question q) {
+        return 96 + 2 * (length(q.getTitle()) + length(q.getContent()) + length(q.getAuthorUserName()) + length(q.getCategory()));
+    }
+    private static int weigh(Answer a) {
+        return 80 + 2 * (length(a.getContent()) + length(a.getAuthorUserName()));
+    }
+    private static int weigh(List<Answer> answers) {
+        int w = 32;
+        for (Answer a : answers) w += weigh(a);
+        return w;
+    }
+    private static int length(String s) { return s == null ? 0 : s.length(); }
+
+    private static List<Answer> copyAnswers(List<Answer> answers) {
+        List<Answer> copy = new ArrayList<>(answers.size());
+        for (Answer a : answers) copy.add(new Answer(a));
+        return copy;
+    }
+
+    @FunctionalInterface
+    private interface SqlWork<T> {
+        T run(Connection connection) throws SQLException;
+    }
+
+    // insert the flags row for a key and return its flagId
+    private static int insertFlag(Connection connection, FlagKey key) throws SQLException {
+        String ins = "INSERT INTO flags(targetType, targetId, feedbackIndex, questionId, answerId) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement p = connection.prepareStatement(ins, Statement.RETURN_GENERATED_KEYS)) {
+            bindFlagKey(p, 1, key);
+            setRef(p, 4, key.getQuestionId());
+            setRef(p, 5, key.getAnswerId());
+            p.executeUpdate();
+            try (ResultSet keys = p.getGeneratedKeys()) {
+                if (!keys.next()) throw new SQLException("No flagId generated for " + key);
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    // flagId for a key, or null if the item is not flagged
+    private Integer findFlagId(Connection connection, FlagKey key) throws SQLException {
+        String sql = "SELECT flagId FROM flags WHERE targetType = ? AND targetId = ? AND feedbackIndex = ?";
+        try (PreparedStatement p = connection.prepareStatement(sql)) {
+            bindFlagKey(p, 1, key);
+            try (ResultSet rs = p.executeQuery()) { return rs.next() ? rs.getInt(1) : null; }
+        }
+    }
+
+    // bind targetType, targetId, feedbackIndex starting at the given parameter index
+    private static void bindFlagKey(PreparedStatement ps, int index, FlagKey key) throws SQLException {
+        ps.setString(index, key.getType().name());
+        ps.setInt(index + 1, key.getTargetId());
+        ps.setInt(index + 2, key.getFeedbackIndex());
+    }
+
+    // read targetType, targetId, feedbackIndex columns; null for a type this version does not know
+    private static FlagKey readFlagKey(ResultSet rs) throws SQLException {
+        try {
+            return FlagKey.of(FlagKey.Type.valueOf(rs.getString("targetType")), rs.getInt("targetId"), rs.getInt("feedbackIndex"));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static void setRef(PreparedStatement ps, int index, Integer id) throws SQLException {
+        if (id == null) ps.setNull(index, Types.INTEGER);
+        else ps.setInt(index, id);
+    }
+
+    // flags on a question or any of its answers (read before a delete so in-memory state can be purged)
+    private List<FlagKey> flagKeysForQuestion(Connection connection, int questionId) throws SQLException {
+        List<FlagKey> keys = new ArrayList<>();
+        String sql = "SELECT targetType, targetId, feedbackIndex FROM flags WHERE questionId = ? " +
+            "UNION ALL SELECT f.targetType, f.targetId, f.feedbackIndex FROM flags f JOIN answers a ON f.answerId = a.answerId WHERE a.questionId = ?";
+        try (PreparedStatement p = connection.prepareStatement(sql)) {
+            p.setInt(1, questionId);
+            p.setInt(2, questionId);
+            try (ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    FlagKey key = readFlagKey(rs);
+                    if (key != null) keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    // true when both full-text indexes exist; otherwise search uses LIKE
+    private static boolean searchIndexReady(Statement statement) {
+        try {
+            List<String> indexed = indexedTables(statement);
+            return indexed.contains("QUESTIONS") && indexed.contains("ANSWERS");
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private static List<String> indexedTables(Statement statement) throws SQLException {
+        List<String> indexed = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery("SELECT \"TABLE\" FROM FT.INDEXES WHERE \"SCHEMA\" = 'PUBLIC'")) {
+            while (rs.next()) indexed.add(rs.getString(1));
+        }
+        return indexed;
     }
 
     // load persisted flagged items, notes, logs, and private feedback into in-memory maps/lists
-    private void loadPersistentState() {
+    private void loadPersistentState(Connection connection) {
         try {
-            // load flagged items and notes
-            String sql = "SELECT fi.itemId, fn.note, fn.author FROM flagged_items fi LEFT JOIN flagged_notes fn ON fi.itemId = fn.itemId ORDER BY fn.noteId ASC";
+            // load flagged items and notes (flags without notes included)
+            String sql = "SELECT f.targetType, f.targetId, f.feedbackIndex, n.noteId, n.note, n.author FROM flags f LEFT JOIN flag_notes n ON n.flagId = f.flagId ORDER BY f.flagId ASC, n.noteId ASC";
             try (PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
-                flaggedItems.clear();
+                Map<FlagKey, List<String>> loaded = new HashMap<>();
+                long lastNoteId = 0;
                 while (rs.next()) {
-                    String itemId = rs.getString("itemId");
+                    lastNoteId = Math.max(lastNoteId, rs.getLong("noteId"));
+                    FlagKey key = readFlagKey(rs);
+                    if (key == null) continue;
                     String note = rs.getString("note");
-                    String author = rs.getString("author");
-                    if (itemId == null) continue;
-                    if (note == null) note = "";
-                    String display = (author != null && !author.trim().isEmpty()) ? (author + ": " + note) : note;
-                    flaggedItems.computeIfAbsent(itemId, k -> new ArrayList<>()).add(display);
+                    loaded.computeIfAbsent(key, k -> new ArrayList<>()).add(withAuthor(note == null ? "" : note, rs.getString("author")));
                 }
+                state.replaceFlags(loaded);
+                state.flagNoteCursor.reset(lastNoteId);
+            }
+            // logs, feedback and tasks load through the same delta reads later DAOs use
+            catchUp(connection);
+            // changes recorded before this load are already reflected in it
+            try (PreparedStatement sp = connection.prepareStatement("SELECT COALESCE(MAX(seq), 0) FROM change_feed"); ResultSet sr = sp.executeQuery()) {
+                if (sr.next()) state.changeCursor.reset(sr.getLong(1));
             }
+        } catch (SQLException e) {
+            // best-effort load; keep in-memory state if DB read fails
+            e.printStackTrace();
+        }
+    }
 
-            // load logs (include author if present)
-            String lsql = "SELECT entry, author FROM admin_logs ORDER BY createdAt ASC";
-            try (PreparedStatement lp = connection.prepareStatement(lsql); ResultSet lr = lp.executeQuery()) {
-                logs.clear();
-                while (lr.next()) {
-                    String entry = lr.getString("entry");
-                    String author = lr.getString("author");
-                    if (author != null && !author.trim().isEmpty()) logs.add(author + ": " + entry);
-                    else logs.add(entry);
-                }
+    // source of rows for one cursor: turns a row into the change to apply to the shared state
+    @FunctionalInterface
+    private interface RowChange {
+        Runnable read(ResultSet rs) throws SQLException;
+    }
+
+    // apply rows past the cursor's floor it has not applied yet; the query's first column is the row id and its only parameter the floor
+    private static void catchUp(Connection connection, DiscussionBoardState.ChangeCursor cursor, String sql, RowChange change) throws SQLException {
+        try (PreparedStatement p = connection.prepareStatement(sql)) {
+            p.setLong(1, cursor.floor());
+            try (ResultSet rs = p.executeQuery()) {
+                while (rs.next()) cursor.applyNew(rs.getLong(1), change.read(rs));
             }
+        }
+    }
+
+    // bring the shared state up to date with rows added to the append-only tables since the last look
+    private void catchUp(Connection connection) throws SQLException {
+        catchUp(connection, state.flagNoteCursor,
+                "SELECT n.noteId, f.targetType, f.targetId, f.feedbackIndex, n.note, n.author FROM flag_notes n JOIN flags f ON f.flagId = n.flagId WHERE n.noteId > ? ORDER BY n.noteId ASC",
+                rs -> {
+                    FlagKey key = readFlagKey(rs);
+                    String display = withAuthor(rs.getString("note"), rs.getString("author"));
+                    return () -> { if (key != null) state.addFlagNote(key, display); };
+                });
+        catchUpLogs(connection);
+        catchUp(connection, state.feedbackCursor,
+                "SELECT feedbackId, questionId, author, feedback FROM private_feedback WHERE feedbackId > ? ORDER BY feedbackId ASC",
+                rs -> {
+                    int questionId = rs.getInt("questionId");
+                    String entry = feedbackEntry(rs.getString("author"), rs.getString("feedback"));
+                    return () -> state.addQuestionFeedback(questionId, entry);
+                });
+        catchUp(connection, state.answerFeedbackCursor,
+                "SELECT feedbackId, answerId, author, feedback FROM answer_feedback WHERE feedbackId > ? ORDER BY feedbackId ASC",
+                rs -> {
+                    int answerId = rs.getInt("answerId");
+                    String entry = feedbackEntry(rs.getString("author"), rs.getString("feedback"));
+                    return () -> state.addAnswerFeedback(answerId, entry);
+                });
+        catchUp(connection, state.taskCursor,
+                "SELECT taskId, description, status, assignee, priority, createdAt FROM tasks WHERE taskId > ? AND status = 'OPEN' ORDER BY taskId ASC",
+                rs -> {
+                    Task task = extractTaskFromResultSet(rs);
+                    return () -> state.putTask(task);
+                });
+    }
 
-            // load private feedback
-            String fsql = "SELECT questionId, author, feedback FROM private_feedback ORDER BY createdAt ASC";
-            try (PreparedStatement fp = connection.prepareStatement(fsql); ResultSet fr = fp.executeQuery()) {
-                privateFeedback.clear();
-                while (fr.next()) {
-                    int qid = fr.getInt("questionId");
-                    String author = fr.getString("author");
-                    String feedback = fr.getString("feedback");
-                    privateFeedback.computeIfAbsent(qid, k -> new ArrayList<>()).add((author == null ? "anon" : author) + ": " + feedback);
+    // only the newest MAX_CACHED_LOGS new entries matter to the bounded in-memory list, so older ones are not read
+    // (the limit also covers the already applied rows of the cursor's late-commit window)
+    private void catchUpLogs(Connection connection) throws SQLException {
+        String sql = "SELECT logId, entry, author FROM admin_logs WHERE logId > ? ORDER BY logId DESC LIMIT ?";
+        List<Long> ids = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        try (PreparedStatement p = connection.prepareStatement(sql)) {
+            p.setLong(1, state.logCursor.floor());
+            p.setInt(2, DiscussionBoardState.MAX_CACHED_LOGS + (int) DiscussionBoardState.ChangeCursor.LATE_WINDOW);
+            try (ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong("logId"));
+                    lines.add(withAuthor(rs.getString("entry"), rs.getString("author")));
                 }
             }
-                    // load answer-level private feedback
-                    try {
-                        String afsql = "SELECT answerId, author, feedback FROM answer_feedback ORDER BY createdAt ASC";
-                        try (PreparedStatement afp = connection.prepareStatement(afsql); ResultSet afr = afp.executeQuery()) {
-                            privateAnswerFeedback.clear();
-                            while (afr.next()) {
-                                int aid = afr.getInt("answerId");
-                                String author = afr.getString("author");
-                                String feedback = afr.getString("feedback");
-                                privateAnswerFeedback.computeIfAbsent(aid, k -> new ArrayList<>()).add((author == null ? "anon" : author) + ": " + feedback);
-                            }
+        }
+        for (int i = ids.size() - 1; i >= 0; i--) {
+            String line = lines.get(i);
+            state.logCursor.applyNew(ids.get(i), () -> state.appendLog(line));
+        }
+    }
+
+    // run a single-row INSERT and return the generated id (0 if none was reported)
+    private long insertReturningId(String sql, Object... params) throws SQLException {
+        try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < params.length; i++) p.setObject(i + 1, params[i]);
+            p.executeUpdate();
+            try (ResultSet keys = p.getGeneratedKeys()) { return keys.next() ? keys.getLong(1) : 0; }
+        }
+    }
+
+    // record a removal/update for other clients; runs on the caller's connection so it commits with the change
+    private static void recordChange(Connection connection, String entity, String op, String itemKey) throws SQLException {
+        String ins = "INSERT INTO change_feed(origin, entity, op, itemKey) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement p = connection.prepareStatement(ins)) {
+            p.setString(1, ORIGIN);
+            p.setString(2, entity);
+            p.setString(3, op);
+            p.setString(4, itemKey);
+            p.executeUpdate();
+        }
+    }
+
+    // apply change_feed rows other processes recorded since the last poll
+    private void applyChangeFeed(Connection connection) throws SQLException {
+        catchUp(connection, state.changeCursor,
+                "SELECT seq, origin, entity, op, itemKey FROM change_feed WHERE seq > ? ORDER BY seq ASC",
+                rs -> {
+                    if (ORIGIN.equals(rs.getString("origin"))) return () -> { };
+                    String entity = rs.getString("entity");
+                    String op = rs.getString("op");
+                    String itemKey = rs.getString("itemKey");
+                    if ("FLAG".equals(entity)) {
+                        FlagKey key = FlagKey.parse(itemKey);
+                        return () -> { if (key != null) state.removeFlag(key); };
+                    }
+                    if ("QUESTION".equals(entity)) {
+                        int questionId = Integer.parseInt(itemKey);
+                        if ("DELETE".equals(op)) return () -> invalidateDeletedQuestion(questionId);
+                        return () -> invalidateQuestion(questionId);
+                    }
+                    if ("ANSWER".equals(entity)) {
+                        int answerId = Integer.parseInt(itemKey);
+                        return () -> answerCache.invalidate(answerId);
+                    }
+                    if ("TASK".equals(entity)) {
+                        int taskId = Integer.parseInt(itemKey);
+                        if ("RESOLVE".equals(op)) return () -> state.removeTask(taskId);
+                        // updated: take the row as it is now
+                        Task current = null;
+                        try (PreparedStatement tp = connection.prepareStatement("SELECT taskId, description, status, assignee, priority, createdAt FROM tasks WHERE taskId = ?")) {
+                            tp.setInt(1, taskId);
+                            try (ResultSet tr = tp.executeQuery()) { if (tr.next()) current = extractTaskFromResultSet(tr); }
                         }
-                    } catch (SQLException ex) { /* ignore answer feedback load errors */ }
-            // load tasks
-            try {
-                List<String> dbTasks = new ArrayList<>();
-                String tsql = "SELECT description FROM tasks ORDER BY createdAt ASC";
-                try (PreparedStatement tp = connection.prepareStatement(tsql); ResultSet tr = tp.executeQuery()) {
-                    while (tr.next()) dbTasks.add(tr.getString("description"));
-                }
-                taskBoard.clear();
-                taskBoard.addAll(dbTasks);
-            } catch (SQLException tex) { /* ignore task load errors */ }
+                        Task task = current;
+                        return () -> {
+                            if (task != null && task.isOpen()) state.replaceTask(task);
+                            else state.removeTask(taskId);
+                        };
+                    }
+                    return () -> { };
+                });
+    }
+
+    /**
+     * Bring this process up to date with changes other clients made to the shared database:
+     * new flags, notes, logs, feedback and tasks, plus removed flags and resolved or reassigned tasks.
+     * Runs every CHANGE_POLL_MS on a background thread; task subscribers get the resulting events and
+     * flag listeners the new snapshot.
+     */
+    public void pollChanges() {
+        long flagVersion = state.flagVersion();
+        try (Connection connection = pool.getConnection()) {
+            catchUp(connection);
+            applyChangeFeed(connection);
         } catch (SQLException e) {
-            // best-effort load; keep in-memory state if DB read fails
-            e.printStackTrace();
+            // try again on the next poll
+        }
+        if (state.flagVersion() != flagVersion) state.notifyFlagListeners();
+    }
+
+    private void startChangeFeed() {
+        synchronized (DiscussionBoardDAO.class) {
+            if (changePoller != null) return;
+            changePoller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "change-feed");
+                t.setDaemon(true);
+                return t;
+            });
+            changePoller.scheduleWithFixedDelay(this::pollChanges, CHANGE_POLL_MS, CHANGE_POLL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Stop polling for other clients' changes (call on application exit, before the pool is shut down). */
+    public static void stopChangeFeed() {
+        synchronized (DiscussionBoardDAO.class) {
+            if (changePoller == null) return;
+            changePoller.shutdown();
+            try {
+                changePoller.awaitTermination(CHANGE_POLL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            changePoller = null;
         }
     }
+
+    // "author: text", or just the text when there is no author
+    private static String withAuthor(String text, String author) {
+        return (author == null || author.trim().isEmpty()) ? text : (author + ": " + text);
+    }
+
+    private static String feedbackEntry(String author, String feedback) {
+        return (author == null ? "anon" : author) + ": " + feedback;
+    }
     //insert a question
     public int createQuestion(Question question) throws SQLException {
         String sql = "INSERT INTO questions (title, content, authorUserName, category) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, question.getTitle());
             pstmt.setString(2, question.getContent());
             pstmt.setString(3, question.getAuthorUserName());
@@ -196,11 +529,10 @@ public class DiscussionBoardDAO {
         }
             return -1;
         }
-        //get all questions
+        //get all questions, with their content (list views use getQuestionSummaries)
         public Questions getAllQuestions() throws SQLException {
             Questions questions = new Questions();
-            String sql = "SELECT * FROM questions ORDER BY createdAt DESC";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql);
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(ALL_QUESTIONS);
                  ResultSet rs = pstmt.executeQuery()) {
 
                 while (rs.next()) {
@@ -210,10 +542,71 @@ public class DiscussionBoardDAO {
             }
             return questions;
         }
-        //get question by id
+        /**
+         * Every question as a list row, newest first: the list columns and a preview of the
+         * content (getPreview()), but no content (getContent() is null). Load the full
+         * question with getQuestionById when it is opened.
+         * @return all questions without their bodies
+         */
+        public Questions getQuestionSummaries() throws SQLException {
+            Questions questions = new Questions();
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(ALL_QUESTION_SUMMARIES);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) questions.addQuestion(extractQuestionSummaryFromResultSet(rs));
+            }
+            return questions;
+        }
+        /**
+         * Keyset-paged question listing for list views, newest first. Only list columns and a
+         * content preview are selected: the returned questions have no content loaded (getContent()
+         * is null), so load the full question with getQuestionById when it is opened.
+         * @param afterCreatedAt createdAt of the last question on the previous page, or null for the first page
+         * @param afterId questionId of the last question on the previous page (ignored for the first page)
+         * @param pageSize maximum number of questions to return
+         * @return the next page of questions
+         */
+        public Questions getQuestionsPage(LocalDateTime afterCreatedAt, int afterId, int pageSize) throws SQLException {
+            Questions questions = new Questions();
+            String sql = afterCreatedAt == null ? QUESTIONS_FIRST_PAGE : QUESTIONS_NEXT_PAGE;
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                int i = 1;
+                if (afterCreatedAt != null) {
+                    Timestamp ts = Timestamp.valueOf(afterCreatedAt);
+                    pstmt.setTimestamp(i++, ts);
+                    pstmt.setTimestamp(i++, ts);
+                    pstmt.setInt(i++, afterId);
+                }
+                pstmt.setInt(i, pageSize);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) questions.addQuestion(extractQuestionSummaryFromResultSet(rs));
+                }
+            }
+            return questions;
+        }
+        /**
+         * Questions nobody has answered yet, most recently active first. Reads the maintained
+         * answerCount column (index IDX_QUESTIONS_ANSWER_COUNT) instead of joining answers;
+         * as with getQuestionsPage, content is not loaded.
+         * @param limit maximum number of questions to return
+         * @return questions with no answers
+         */
+        public Questions getQuestionsWithoutAnswers(int limit) throws SQLException {
+            Questions questions = new Questions();
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(QUESTIONS_WITHOUT_ANSWERS)) {
+                pstmt.setInt(1, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) questions.addQuestion(extractQuestionSummaryFromResultSet(rs));
+                }
+            }
+            return questions;
+        }
+        //get question by id (a copy of the cached question when it has been read before)
         public Question getQuestionById(int questionId) throws SQLException {
+            return questionCache.get(questionId, this::loadQuestion);
+        }
+        private Question loadQuestion(int questionId) throws SQLException {
             String sql = "SELECT * FROM questions WHERE questionId = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
                 pstmt.setInt(1, questionId);
                 ResultSet rs = pstmt.executeQuery();
                 if (rs.next()) {
@@ -224,117 +617,118 @@ public class DiscussionBoardDAO {
         }
         //update a question
         public boolean updateQuestion(Question question) throws SQLException {
-            String sql = "UPDATE questions SET title = ?, content = ?, updatedAt = ?, "
+            // SET sees the row's old values, so the edit time is bound twice rather than read back from updatedAt;
+            // GREATEST keeps answer activity that is newer than the edit
+            String sql = "UPDATE questions SET title = ?, content = ?, updatedAt = ?, lastActivityAt = GREATEST(?, COALESCE(lastActivityAt, ?)), "
                     + "isAnswered = ?, category = ? WHERE questionId = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
                 pstmt.setString(1, question.getTitle());
                 pstmt.setString(2, question.getContent());
-                pstmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
-                pstmt.setBoolean(4, question.getIsAnswered());
-                pstmt.setString(5, question.getCategory());
-                pstmt.setInt(6, question.getQuestionId());
-                return pstmt.executeUpdate() > 0;
+                pstmt.setTimestamp(3, now);
+                pstmt.setTimestamp(4, now);
+                pstmt.setTimestamp(5, now);
+                pstmt.setBoolean(6, question.getIsAnswered());
+                pstmt.setString(7, question.getCategory());
+                pstmt.setInt(8, question.getQuestionId());
+                if (pstmt.executeUpdate() == 0) return false;
+                recordChange(connection, "QUESTION", "UPDATE", String.valueOf(question.getQuestionId()));
+            } finally {
+                invalidateQuestion(question.getQuestionId());
             }
+            return true;
         }
         //delete a question
         public boolean deleteQuestion(int questionId) throws SQLException {
-            // perform cleanup: remove answers, related flagged notes/items, and then the question
-            boolean autoCommit = connection.getAutoCommit();
-            try {
-                connection.setAutoCommit(false);
-                // find answers for the question
-                String findAnswers = "SELECT answerId FROM answers WHERE questionId = ?";
-                try (PreparedStatement fa = connection.prepareStatement(findAnswers)) {
-                    fa.setInt(1, questionId);
-                    try (ResultSet rs = fa.executeQuery()) {
-                        while (rs.next()) {
-                            int aid = rs.getInt("answerId");
-                            // remove any flagged notes/items for this answer and its feedback
-                            try (PreparedStatement dp1 = connection.prepareStatement("DELETE FROM flagged_notes WHERE itemId = ?")) {
-                                dp1.setString(1, "A:" + aid); dp1.executeUpdate();
-                            }
-                            try (PreparedStatement dp2 = connection.prepareStatement("DELETE FROM flagged_items WHERE itemId = ?")) {
-                                dp2.setString(1, "A:" + aid); dp2.executeUpdate();
-                            }
-                            try (PreparedStatement dp3 = connection.prepareStatement("DELETE FROM flagged_notes WHERE itemId LIKE ?")) {
-                                dp3.setString(1, "FB:A:" + aid + ":%"); dp3.executeUpdate();
-                            }
-                            try (PreparedStatement dp4 = connection.prepareStatement("DELETE FROM flagged_items WHERE itemId LIKE ?")) {
-                                dp4.setString(1, "FB:A:" + aid + ":%"); dp4.executeUpdate();
-                            }
-                            // remove answer-level private feedback
-                            try (PreparedStatement ap = connection.prepareStatement("DELETE FROM answer_feedback WHERE answerId = ?")) { ap.setInt(1, aid); ap.executeUpdate(); }
-                        }
-                    }
+            // answers, feedback, flags and flag notes go with the question via ON DELETE CASCADE
+            try (Connection connection = pool.getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                try {
+                    connection.setAutoCommit(false);
+                    List<FlagKey> flagKeys = flagKeysForQuestion(connection, questionId);
+                    int res;
+                    try (PreparedStatement dq = connection.prepareStatement("DELETE FROM questions WHERE questionId = ?")) { dq.setInt(1, questionId); res = dq.executeUpdate(); }
+                    for (FlagKey key : flagKeys) recordChange(connection, "FLAG", "REMOVE", key.toItemId());
+                    if (res > 0) recordChange(connection, "QUESTION", "DELETE", String.valueOf(questionId));
+                    connection.commit();
+                    state.removeFlags(flagKeys);
+                    invalidateDeletedQuestion(questionId);
+                    return res > 0;
+                } catch (SQLException ex) {
+                    try { connection.rollback(); } catch (SQLException e) { /* ignore rollback errors */ }
+                    throw ex;
+                } finally {
+                    try { connection.setAutoCommit(autoCommit); } catch (SQLException e) { /* ignore */ }
                 }
-                // remove question-level flagged notes/items and private feedback
-                try (PreparedStatement dpq1 = connection.prepareStatement("DELETE FROM flagged_notes WHERE itemId = ?")) { dpq1.setString(1, "Q:" + questionId); dpq1.executeUpdate(); }
-                try (PreparedStatement dpq2 = connection.prepareStatement("DELETE FROM flagged_items WHERE itemId = ?")) { dpq2.setString(1, "Q:" + questionId); dpq2.executeUpdate(); }
-                try (PreparedStatement dpq3 = connection.prepareStatement("DELETE FROM flagged_notes WHERE itemId LIKE ?")) { dpq3.setString(1, "FB:" + questionId + ":%"); dpq3.executeUpdate(); }
-                try (PreparedStatement dpq4 = connection.prepareStatement("DELETE FROM flagged_items WHERE itemId LIKE ?")) { dpq4.setString(1, "FB:" + questionId + ":%"); dpq4.executeUpdate(); }
-                try (PreparedStatement pfp = connection.prepareStatement("DELETE FROM private_feedback WHERE questionId = ?")) { pfp.setInt(1, questionId); pfp.executeUpdate(); }
-
-                // remove answers
-                try (PreparedStatement da = connection.prepareStatement("DELETE FROM answers WHERE questionId = ?")) { da.setInt(1, questionId); da.executeUpdate(); }
-
-                // finally remove the question
-                try (PreparedStatement dq = connection.prepareStatement("DELETE FROM questions WHERE questionId = ?")) { dq.setInt(1, questionId); int res = dq.executeUpdate(); connection.commit(); return res > 0; }
-            } catch (SQLException ex) {
-                try { connection.rollback(); } catch (SQLException e) { /* ignore rollback errors */ }
-                throw ex;
-            } finally {
-                try { connection.setAutoCommit(autoCommit); } catch (SQLException e) { /* ignore */ }
             }
         }
 
         //ANSWER CRUD OPERATIONS
 
-        //insert an answer
+        //insert an answer (and bump its question's answer stats in the same transaction)
         public int createAnswer(Answer answer) throws SQLException {
             String sql = "INSERT INTO answers (questionId, content, authorUserName, createdAt, updatedAt, isAccepted) "
                     + "VALUES (?, ?, ?, ?, ?, ?)";
 
-            try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                pstmt.setInt(1, answer.getQuestionId());
-                pstmt.setString(2, answer.getContent());
-                pstmt.setString(3, answer.getAuthorUserName());
-                pstmt.setTimestamp(4, Timestamp.valueOf(answer.getCreatedAt()));
-                pstmt.setTimestamp(5, Timestamp.valueOf(answer.getUpdatedAt()));
-                pstmt.setBoolean(6, answer.getIsAccepted());
+            return withAnswerStats(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, answer.getQuestionId());
+                    pstmt.setString(2, answer.getContent());
+                    pstmt.setString(3, answer.getAuthorUserName());
+                    pstmt.setTimestamp(4, Timestamp.valueOf(answer.getCreatedAt()));
+                    pstmt.setTimestamp(5, Timestamp.valueOf(answer.getUpdatedAt()));
+                    pstmt.setBoolean(6, answer.getIsAccepted());
 
-                pstmt.executeUpdate();
+                    pstmt.executeUpdate();
 
-                // generate answerId
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
+                    // generate answerId
+                    ResultSet rs = pstmt.getGeneratedKeys();
+                    if (!rs.next()) return -1;
                     int generatedId = rs.getInt(1);
                     answer.setAnswerId(generatedId);
+                    refreshAnswerStats(connection, answer.getQuestionId());
+                    recordChange(connection, "QUESTION", "UPDATE", String.valueOf(answer.getQuestionId()));
                     return generatedId;
                 }
-            }
-            return -1;
+            }, answer.getQuestionId());
         }
-        //get all answers for a question
+        //get all answers for a question (copies of the cached list when it has been read before)
         public Answers getAnswersForQuestion(int questionId) throws SQLException {
-            Answers answers = new Answers();
-            String sql = "SELECT * FROM answers WHERE questionId = ? ORDER BY isAccepted DESC, createdAt ASC";
-
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            return new Answers(answerListCache.get(questionId, this::loadAnswersForQuestion));
+        }
+        //the answers also seed the by-id cache
+        private List<Answer> loadAnswersForQuestion(int questionId) throws SQLException {
+            List<Answer> answers = new ArrayList<>();
+            long stamp = answerCache.stamp();
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(ANSWERS_FOR_QUESTION)) {
                 pstmt.setInt(1, questionId);
                 ResultSet rs = pstmt.executeQuery();
 
                 while (rs.next()) {
                     Answer a = extractAnswerFromResultSet(rs);
-                    answers.addAnswer(a);
+                    answers.add(a);
                 }
             }
+            for (Answer a : answers) answerCache.putIfCurrent(a.getAnswerId(), a, stamp);
+            return answers;
+        }
+        /**
+         * Every answer as a list row, newest first: a preview of the content (getPreview()) but
+         * no content (getContent() is null); load the answer with getAnswerById when needed.
+         * @return all answers without their bodies
+         */
+        public Answers getAnswerSummaries() throws SQLException {
+            Answers answers = new Answers();
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(ALL_ANSWER_SUMMARIES);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) answers.addAnswer(extractAnswerSummaryFromResultSet(rs));
+            }
             return answers;
         }
-        //get all answers
+        //get all answers, with their content (list views use getAnswerSummaries)
         public Answers getAllAnswers() throws SQLException {
             Answers answers = new Answers();
-            String sql = "SELECT * FROM answers ORDER BY createdAt DESC";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql);
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(ALL_ANSWERS);
                  ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     Answer a = extractAnswerFromResultSet(rs);
@@ -347,32 +741,63 @@ public class DiscussionBoardDAO {
         public boolean updateAnswer(Answer answer) throws SQLException {
             String sql = "UPDATE answers SET content = ?, updatedAt = ?, isAccepted = ? WHERE answerId = ?";
 
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setString(1, answer.getContent());
-                pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
-                pstmt.setBoolean(3, answer.getIsAccepted());
-                pstmt.setInt(4, answer.getAnswerId());
+            return withAnswerStats(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setString(1, answer.getContent());
+                    pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                    pstmt.setBoolean(3, answer.getIsAccepted());
+                    pstmt.setInt(4, answer.getAnswerId());
 
-                return pstmt.executeUpdate() > 0;
-            }
+                    if (pstmt.executeUpdate() == 0) return false;
+                }
+                // acceptance or activity may have changed
+                refreshAnswerStats(connection, answer.getQuestionId());
+                recordChange(connection, "ANSWER", "UPDATE", String.valueOf(answer.getAnswerId()));
+                recordChange(connection, "QUESTION", "UPDATE", String.valueOf(answer.getQuestionId()));
+                return true;
+            }, answer.getQuestionId(), answer.getAnswerId());
         }
         //delete an answer
         public boolean deleteAnswer(int answerId) throws SQLException {
-            // remove flagged notes/items and answer-feedback associated with this answer, then delete the answer
-            boolean autoCommit = connection.getAutoCommit();
-            try {
-                connection.setAutoCommit(false);
-                try (PreparedStatement dp1 = connection.prepareStatement("DELETE FROM flagged_notes WHERE itemId = ?")) { dp1.setString(1, "A:" + answerId); dp1.executeUpdate(); }
-                try (PreparedStatement dp2 = connection.prepareStatement("DELETE FROM flagged_items WHERE itemId = ?")) { dp2.setString(1, "A:" + answerId); dp2.executeUpdate(); }
-                try (PreparedStatement dp3 = connection.prepareStatement("DELETE FROM flagged_notes WHERE itemId LIKE ?")) { dp3.setString(1, "FB:A:" + answerId + ":%"); dp3.executeUpdate(); }
-                try (PreparedStatement dp4 = connection.prepareStatement("DELETE FROM flagged_items WHERE itemId LIKE ?")) { dp4.setString(1, "FB:A:" + answerId + ":%"); dp4.executeUpdate(); }
-                try (PreparedStatement af = connection.prepareStatement("DELETE FROM answer_feedback WHERE answerId = ?")) { af.setInt(1, answerId); af.executeUpdate(); }
-                try (PreparedStatement da = connection.prepareStatement("DELETE FROM answers WHERE answerId = ?")) { da.setInt(1, answerId); int res = da.executeUpdate(); connection.commit(); return res > 0; }
-            } catch (SQLException ex) {
-                try { connection.rollback(); } catch (SQLException e) { /* ignore rollback errors */ }
-                throw ex;
-            } finally {
-                try { connection.setAutoCommit(autoCommit); } catch (SQLException e) { /* ignore */ }
+            // answer feedback, flags and flag notes go with the answer via ON DELETE CASCADE
+            try (Connection connection = pool.getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                try {
+                    connection.setAutoCommit(false);
+                    List<FlagKey> flagKeys = new ArrayList<>();
+                    try (PreparedStatement fp = connection.prepareStatement(FLAGS_FOR_ANSWER)) {
+                        fp.setInt(1, answerId);
+                        try (ResultSet rs = fp.executeQuery()) {
+                            while (rs.next()) {
+                                FlagKey key = readFlagKey(rs);
+                                if (key != null) flagKeys.add(key);
+                            }
+                        }
+                    }
+                    int questionId = -1;
+                    try (PreparedStatement qp = connection.prepareStatement("SELECT questionId FROM answers WHERE answerId = ?")) {
+                        qp.setInt(1, answerId);
+                        try (ResultSet rs = qp.executeQuery()) { if (rs.next()) questionId = rs.getInt(1); }
+                    }
+                    int res;
+                    try (PreparedStatement da = connection.prepareStatement("DELETE FROM answers WHERE answerId = ?")) { da.setInt(1, answerId); res = da.executeUpdate(); }
+                    if (res > 0) {
+                        refreshAnswerStats(connection, questionId);
+                        recordChange(connection, "ANSWER", "DELETE", String.valueOf(answerId));
+                        recordChange(connection, "QUESTION", "UPDATE", String.valueOf(questionId));
+                    }
+                    for (FlagKey key : flagKeys) recordChange(connection, "FLAG", "REMOVE", key.toItemId());
+                    connection.commit();
+                    state.removeFlags(flagKeys);
+                    answerCache.invalidate(answerId);
+                    if (res > 0) invalidateQuestion(questionId);
+                    return res > 0;
+                } catch (SQLException ex) {
+                    try { connection.rollback(); } catch (SQLException e) { /* ignore rollback errors */ }
+                    throw ex;
+                } finally {
+                    try { connection.setAutoCommit(autoCommit); } catch (SQLException e) { /* ignore */ }
+                }
             }
         }
         //helper methods for all operations
@@ -383,12 +808,33 @@ public class DiscussionBoardDAO {
                 rs.getString("authorUserName")
             );
             q.setQuestionId(rs.getInt("questionId"));
+            q.setIsAnswered(rs.getBoolean("isAnswered")); // before setUpdatedAt, since it touches updatedAt
             q.setCreatedAt(rs.getTimestamp("createdAt").toLocalDateTime());
             q.setUpdatedAt(rs.getTimestamp("updatedAt").toLocalDateTime());
+            q.setCategory(rs.getString("category"));
+            readAnswerStats(rs, q);
+            return q;
+        }
+        //extract a list-view question (preview instead of content) from the result set
+        private Question extractQuestionSummaryFromResultSet(ResultSet rs) throws SQLException {
+            Question q = new Question(rs.getString("title"), null, rs.getString("authorUserName"));
+            q.setQuestionId(rs.getInt("questionId"));
+            q.setPreview(snippet(rs.getString("preview")));
             q.setIsAnswered(rs.getBoolean("isAnswered"));
             q.setCategory(rs.getString("category"));
+            q.setCreatedAt(rs.getTimestamp("createdAt").toLocalDateTime());
+            q.setUpdatedAt(rs.getTimestamp("updatedAt").toLocalDateTime());
+            readAnswerStats(rs, q);
             return q;
         }
+        //read the denormalized answer stats columns
+        private static void readAnswerStats(ResultSet rs, Question q) throws SQLException {
+            q.setAnswerCount(rs.getInt("answerCount"));
+            int accepted = rs.getInt("acceptedAnswerId");
+            q.setAcceptedAnswerId(rs.wasNull() ? null : accepted);
+            Timestamp activity = rs.getTimestamp("lastActivityAt");
+            q.setLastActivityAt(activity == null ? q.getUpdatedAt() : activity.toLocalDateTime());
+        }
         //extract an answer from the result set
         private Answer extractAnswerFromResultSet(ResultSet rs) throws SQLException {
             Answer a = new Answer(
@@ -402,11 +848,28 @@ public class DiscussionBoardDAO {
             );
             return a;
         }
+        //extract a list-view answer (preview instead of content) from the result set
+        private Answer extractAnswerSummaryFromResultSet(ResultSet rs) throws SQLException {
+            Answer a = new Answer(
+                rs.getInt("answerId"),
+                rs.getInt("questionId"),
+                null,
+                rs.getString("authorUserName"),
+                rs.getTimestamp("createdAt").toLocalDateTime(),
+                rs.getTimestamp("updatedAt").toLocalDateTime(),
+                rs.getBoolean("isAccepted")
+            );
+            a.setPreview(snippet(rs.getString("preview")));
+            return a;
+        }
 
-        // get answer by id
+        // get answer by id (a copy of the cached answer when it has been read before)
         public Answer getAnswerById(int answerId) throws SQLException {
+            return answerCache.get(answerId, this::loadAnswer);
+        }
+        private Answer loadAnswer(int answerId) throws SQLException {
             String sql = "SELECT * FROM answers WHERE answerId = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
                 pstmt.setInt(1, answerId);
                 ResultSet rs = pstmt.executeQuery();
                 if (rs.next()) return extractAnswerFromResultSet(rs);
@@ -414,12 +877,123 @@ public class DiscussionBoardDAO {
             return null;
         }
 
+        /**
+         * Keyword search over question titles and content using the full-text index.
+         * Every word of the query must match; questions whose title contains the query
+         * rank above content-only matches, newest first within each rank. The index covers
+         * questions and answers together and returns matches unordered, so it is not capped:
+         * its matches are narrowed to questions first, and the ranking, limit and offset apply
+         * to all of those, so consecutive pages never repeat or skip a question.
+         * @param query search words
+         * @param limit maximum number of results
+         * @param offset number of ranked results to skip (for paging)
+         * @return matching questions in rank order
+         */
+        public Questions searchQuestions(String query, int limit, int offset) throws SQLException {
+            Questions questions = new Questions();
+            if (query == null || query.trim().isEmpty()) return questions;
+            String q = query.trim();
+            String sql = fullTextAvailable
+                ? "SELECT qs.*, CASE WHEN LOCATE(UPPER(?), UPPER(qs.title)) > 0 THEN 2 ELSE 1 END AS rank "
+                    + "FROM FT_SEARCH_DATA(?, 0, 0) ft JOIN questions qs ON qs.questionId = CAST(ft.KEYS[1] AS INT) "
+                    + "WHERE ft.\"TABLE\" = 'QUESTIONS' ORDER BY rank DESC, qs.createdAt DESC LIMIT ? OFFSET ?"
+                : "SELECT qs.*, CASE WHEN LOCATE(UPPER(?), UPPER(qs.title)) > 0 THEN 2 ELSE 1 END AS rank "
+                    + "FROM questions qs WHERE LOCATE(UPPER(?), UPPER(qs.title)) > 0 OR LOCATE(UPPER(?), UPPER(qs.content)) > 0 "
+                    + "ORDER BY rank DESC, qs.createdAt DESC LIMIT ? OFFSET ?";
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                int i = 1;
+                pstmt.setString(i++, q);
+                pstmt.setString(i++, q);
+                if (!fullTextAvailable) pstmt.setString(i++, q);
+                pstmt.setInt(i++, limit);
+                pstmt.setInt(i, offset);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) questions.addQuestion(extractQuestionFromResultSet(rs));
+                }
+            }
+            return questions;
+        }
+
+        /**
+         * Keyword search over answer content using the full-text index, accepted answers first,
+         * then newest first. As in searchQuestions, the limit and offset apply to every matching answer.
+         * @param query search words
+         * @param limit maximum number of results
+         * @param offset number of results to skip (for paging)
+         * @return matching answers
+         */
+        public Answers searchAnswers(String query, int limit, int offset) throws SQLException {
+            Answers answers = new Answers();
+            if (query == null || query.trim().isEmpty()) return answers;
+            String q = query.trim();
+            String sql = fullTextAvailable
+                ? "SELECT a.* FROM FT_SEARCH_DATA(?, 0, 0) ft JOIN answers a ON a.answerId = CAST(ft.KEYS[1] AS INT) "
+                    + "WHERE ft.\"TABLE\" = 'ANSWERS' ORDER BY a.isAccepted DESC, a.createdAt DESC LIMIT ? OFFSET ?"
+                : "SELECT a.* FROM answers a WHERE LOCATE(UPPER(?), UPPER(a.content)) > 0 "
+                    + "ORDER BY a.isAccepted DESC, a.createdAt DESC LIMIT ? OFFSET ?";
+            try (Connection connection = pool.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                int i = 1;
+                pstmt.setString(i++, q);
+                pstmt.setInt(i++, limit);
+                pstmt.setInt(i, offset);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) answers.addAnswer(extractAnswerFromResultSet(rs));
+                }
+            }
+            return answers;
+        }
+
         /**
          * Check if an itemId (Q:<id> | A:<id> | FB:<qId>:<idx>) is flagged.
          * @param itemId identifier
          * @return true if flagged
          */
-        public boolean isItemFlagged(String itemId) { return flaggedItems.containsKey(itemId); }
+        public boolean isItemFlagged(String itemId) { return state.isFlagged(FlagKey.parse(itemId)); }
+
+        /**
+         * Check if an item is flagged.
+         * @param key flagged item
+         * @return true if flagged
+         */
+        public boolean isFlagged(FlagKey key) { return state.isFlagged(key); }
+
+        /** Check whether a question is flagged by numeric id (no itemId string needed). */
+        public boolean isQuestionFlagged(int questionId) { return state.flagSnapshot().isQuestionFlagged(questionId); }
+
+        /** Check whether an answer is flagged by numeric id (no itemId string needed). */
+        public boolean isAnswerFlagged(int answerId) { return state.flagSnapshot().isAnswerFlagged(answerId); }
+
+        /**
+         * Look up the flag status of many items in one pass.
+         * @param itemIds identifiers (Q:<id> | A:<id> | FB:...)
+         * @return map of each itemId to whether it is flagged
+         */
+        public Map<String, Boolean> getFlagStatus(Collection<String> itemIds) {
+            Map<String, Boolean> status = new HashMap<>();
+            if (itemIds == null) return status;
+            FlagSnapshot snapshot = getFlagSnapshot();
+            for (String itemId : itemIds) status.put(itemId, snapshot.isFlagged(itemId));
+            return status;
+        }
+
+        /**
+         * Current version of the flag state; changes whenever an item is flagged or unflagged.
+         * Compare with {@link FlagSnapshot#getVersion()} to decide whether a snapshot is stale.
+         * @return flag state version
+         */
+        public long getFlagVersion() { return state.flagVersion(); }
+
+        /**
+         * Take an immutable snapshot of the flag state for rendering a list.
+         * The snapshot is published with every flag change, so this does not copy.
+         * @return flag snapshot
+         */
+        public FlagSnapshot getFlagSnapshot() { return state.flagSnapshot(); }
+
+        // add a note to the in-memory flag state (flags the item if needed)
+        private void recordFlagNote(FlagKey key, String display) {
+            state.addFlagNote(key, display);
+        }
 
         /**
          * Remove flag for an item.
@@ -434,17 +1008,28 @@ public class DiscussionBoardDAO {
          * @param author username performing the unflag (may be null)
          * @return true if removed
          */
-        public boolean unflagItem(String itemId, String author) {
+        public boolean unflagItem(String itemId, String author) { return unflag(FlagKey.parse(itemId), author); }
+
+        /**
+         * Unflag an item and record who performed the unflag operation (optional).
+         * @param key flagged item
+         * @param author username performing the unflag (may be null)
+         * @return true if removed
+         */
+        public boolean unflag(FlagKey key, String author) {
+            if (key == null) return false;
             try {
-                String delNotes = "DELETE FROM flagged_notes WHERE itemId = ?";
-                try (PreparedStatement dp = connection.prepareStatement(delNotes)) { dp.setString(1, itemId); dp.executeUpdate(); }
-                String delItem = "DELETE FROM flagged_items WHERE itemId = ?";
-                try (PreparedStatement dip = connection.prepareStatement(delItem)) { dip.setString(1, itemId); dip.executeUpdate(); }
+                // notes are removed with the flag (ON DELETE CASCADE)
+                String delFlag = "DELETE FROM flags WHERE targetType = ? AND targetId = ? AND feedbackIndex = ?";
+                try (Connection connection = pool.getConnection(); PreparedStatement dp = connection.prepareStatement(delFlag)) {
+                    bindFlagKey(dp, 1, key);
+                    if (dp.executeUpdate() > 0) recordChange(connection, "FLAG", "REMOVE", key.toItemId());
+                }
             } catch (SQLException e) {
                 // ignore DB errors, continue to remove in-memory
             }
-            if (flaggedItems.remove(itemId) != null) {
-                addLog("UNFLAG " + itemId, author);
+            if (state.removeFlag(key)) {
+                addLog("UNFLAG " + key.toItemId(), author);
                 return true;
             }
             return false;
@@ -453,32 +1038,55 @@ public class DiscussionBoardDAO {
         /**
          * Convenience to flag an answer by id.
          */
-    public void flagAnswer(int answerId, String note) { flagItem("A:" + answerId, note); }
-    public void flagAnswer(int answerId, String note, String author) { flagItem("A:" + answerId, note, author); }
+    public void flagAnswer(int answerId, String note) { flag(FlagKey.answer(answerId), note, null); }
+    public void flagAnswer(int answerId, String note, String author) { flag(FlagKey.answer(answerId), note, author); }
 
         /**
          * Convenience to flag a question by id.
          */
-    public void flagQuestion(int questionId, String note) { flagItem("Q:" + questionId, note); }
-    public void flagQuestion(int questionId, String note, String author) { flagItem("Q:" + questionId, note, author); }
+    public void flagQuestion(int questionId, String note) { flag(FlagKey.question(questionId), note, null); }
+    public void flagQuestion(int questionId, String note, String author) { flag(FlagKey.question(questionId), note, author); }
 
         /**
          * Convenience to flag a feedback entry by questionId and feedback index.
          */
-    public void flagFeedback(int questionId, int feedbackIndex, String note) { flagItem("FB:" + questionId + ":" + feedbackIndex, note); }
-    public void flagFeedback(int questionId, int feedbackIndex, String note, String author) { flagItem("FB:" + questionId + ":" + feedbackIndex, note, author); }
+    public void flagFeedback(int questionId, int feedbackIndex, String note) { flag(FlagKey.questionFeedback(questionId, feedbackIndex), note, null); }
+    public void flagFeedback(int questionId, int feedbackIndex, String note, String author) { flag(FlagKey.questionFeedback(questionId, feedbackIndex), note, author); }
 
     /** Flag a feedback entry attached to an answer. */
-    public void flagAnswerFeedback(int answerId, int feedbackIndex, String note) { flagItem("FB:A:" + answerId + ":" + feedbackIndex, note); }
-    public void flagAnswerFeedback(int answerId, int feedbackIndex, String note, String author) { flagItem("FB:A:" + answerId + ":" + feedbackIndex, note, author); }
-        //finally, close the connection
+    public void flagAnswerFeedback(int answerId, int feedbackIndex, String note) { flag(FlagKey.answerFeedback(answerId, feedbackIndex), note, null); }
+    public void flagAnswerFeedback(int answerId, int feedbackIndex, String note, String author) { flag(FlagKey.answerFeedback(answerId, feedbackIndex), note, author); }
+        //finally, release the DAO. Connections are borrowed per call from the shared pool,
+        //so there is nothing left open here; the pool itself is shut down on application exit.
         public void closeConnection() {
-            try {
-                if (statement != null) statement.close();
-                if (connection != null) connection.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+            // connections are pooled; just make sure queued log entries are written
+            logWriter.flush();
+        }
+
+        /**
+         * Write any queued log entries and stop the log writer thread (call on application exit,
+         * before the connection pool is shut down).
+         */
+        public static void shutdownLogWriter() { logWriter.shutdown(); }
+
+        /**
+         * Metrics for the background log writer (queue depth, written/direct/failed entries, batches).
+         * @return writer stats snapshot
+         */
+        public AuditLogWriter.Stats getLogWriterStats() { return logWriter.getStats(); }
+
+        /**
+         * Metrics for the shared connection pool (active/idle connections, borrow wait times).
+         * @return pool stats snapshot
+         */
+        public ConnectionPool.Stats getPoolStats() { return pool.getStats(); }
+
+        /**
+         * Metrics for the question, answer and answers-by-question caches (size, hit rate, evictions).
+         * @return one stats snapshot per cache
+         */
+        public List<EntityCache.Stats> getEntityCacheStats() {
+            return Arrays.asList(questionCache.getStats(), answerCache.getStats(), answerListCache.getStats());
         }
 
 
@@ -486,12 +1094,12 @@ public class DiscussionBoardDAO {
          * Add a staff member to the in-memory list (not persisted to DB).
          * @param staff the staff member instance
          */
-        public void addStaff(Staff staff) { staffList.add(staff); }
+        public void addStaff(Staff staff) { state.addStaff(staff); }
         /**
          * Get all staff members currently tracked (defensive copy).
          * @return list of staff
          */
-        public List<Staff> getAllStaff() { return new ArrayList<>(staffList); }
+        public List<Staff> getAllStaff() { return state.staffCopy(); }
         /**
          * Flag an item (question/answer/feedback) with a note for review.
          * @param itemId identifier (e.g., Q:<id>, A:<id>)
@@ -507,72 +1115,100 @@ public class DiscussionBoardDAO {
 
         /**
          * Flag an item (question/answer/feedback) with a note for review, recording the author who flagged it.
+         * Ids of another shape than Q:<id> | A:<id> | FB:<qId>:<idx> | FB:A:<aId>:<idx> are ignored.
          * @param itemId identifier (e.g., Q:<id>, A:<id>)
          * @param note explanatory note
          * @param author username who performed the flag (may be null)
          */
-        public void flagItem(String itemId, String note, String author) {
-            if (itemId == null || itemId.trim().isEmpty() || note == null || note.trim().isEmpty()) return;
+        public void flagItem(String itemId, String note, String author) { flag(FlagKey.parse(itemId), note, author); }
+
+        /**
+         * Flag an item with a note for review, recording the author who flagged it, and add a review task.
+         * @param key flagged item
+         * @param note explanatory note
+         * @param author username who performed the flag (may be null)
+         */
+        public void flag(FlagKey key, String note, String author) {
+            if (key == null || note == null || note.trim().isEmpty()) return;
             String n = note.trim();
+            String itemId = key.toItemId();
             try {
-                String mergeSql = "MERGE INTO flagged_items(itemId) KEY(itemId) VALUES (?)";
-                try (PreparedStatement mp = connection.prepareStatement(mergeSql)) { mp.setString(1, itemId); mp.executeUpdate(); }
-                String ins = "INSERT INTO flagged_notes(itemId, note, author) VALUES (?, ?, ?)";
-                try (PreparedStatement ip = connection.prepareStatement(ins)) { ip.setString(1, itemId); ip.setString(2, n); ip.setString(3, author); ip.executeUpdate(); }
+                long noteId = insertFlagNote(key, n, author);
                 // store display of note (author included if present)
-                String display = (author == null || author.trim().isEmpty()) ? n : (author + ": " + n);
-                flaggedItems.computeIfAbsent(itemId, k -> new ArrayList<>()).add(display);
+                String display = withAuthor(n, author);
+                state.flagNoteCursor.applyOwn(noteId, () -> recordFlagNote(key, display));
                 addLog("FLAG " + itemId + " -> " + n, author);
                 // also add a task entry so staff/admin have it on their task board
                 try {
                     String contentSnippet = itemId;
-                    if (itemId.startsWith("Q:")) {
-                        int qid = Integer.parseInt(itemId.substring(2));
-                        Question q = getQuestionById(qid);
-                        if (q != null) contentSnippet = "Q:" + qid + " - " + q.getTitle();
-                    } else if (itemId.startsWith("A:")) {
-                        int aid = Integer.parseInt(itemId.substring(2));
-                        Answer a = getAnswerById(aid);
+                    if (key.getType() == FlagKey.Type.QUESTION) {
+                        Question q = getQuestionById(key.getTargetId());
+                        if (q != null) contentSnippet = itemId + " - " + q.getTitle();
+                    } else if (key.getType() == FlagKey.Type.ANSWER) {
+                        Answer a = getAnswerById(key.getTargetId());
                         if (a != null) {
                             String c = a.getContent();
                             if (c.length() > 120) c = c.substring(0, 117) + "...";
-                            contentSnippet = "A:" + aid + " - " + c;
+                            contentSnippet = itemId + " - " + c;
                         }
-                    } else if (itemId.startsWith("FB:")) {
-                        contentSnippet = "FB:" + itemId.substring(3);
                     }
                     addTask("Review flagged item " + contentSnippet + " -> " + n);
                 } catch (Exception ex) { /* ignore task add errors */ }
             } catch (SQLException e) {
                 // fallback to in-memory only
                 String display = n;
-                flaggedItems.computeIfAbsent(itemId, k -> new ArrayList<>()).add(display);
+                recordFlagNote(key, display);
                 addLog("FLAG " + itemId + " -> " + n, author);
                 try { addTask("Review flagged item " + itemId + " -> " + n); } catch (Exception ex) { /* ignore */ }
             }
         }
+        // store a note on an item's flag, creating the flags row if the item is not flagged yet; returns the noteId
+        private long insertFlagNote(FlagKey key, String note, String author) throws SQLException {
+            try (Connection connection = pool.getConnection()) {
+                Integer flagId = findFlagId(connection, key);
+                if (flagId == null) {
+                    try {
+                        flagId = insertFlag(connection, key);
+                    } catch (SQLException ex) {
+                        // another session may have flagged it first; otherwise the post is gone
+                        flagId = findFlagId(connection, key);
+                        if (flagId == null) throw ex;
+                    }
+                }
+                String ins = "INSERT INTO flag_notes(flagId, note, author) VALUES (?, ?, ?)";
+                try (PreparedStatement ip = connection.prepareStatement(ins, Statement.RETURN_GENERATED_KEYS)) {
+                    ip.setInt(1, flagId); ip.setString(2, note); ip.setString(3, author); ip.executeUpdate();
+                    try (ResultSet keys = ip.getGeneratedKeys()) { return keys.next() ? keys.getLong(1) : 0; }
+                }
+            }
+        }
         /**
-         * Add an additional note to an already flagged item. This does NOT create a new task
-         * and will not re-create the flagged_items row. Stores note into flagged_notes and records a NOTE log.
+         * Add an additional note to an already flagged item. This does NOT create a new task.
+         * Stores the note into flag_notes (flagging the item if needed) and records a NOTE log.
          * @param itemId the item identifier
          * @param note the note to append
          * @param author optional author username
          */
-        public void addFlagNote(String itemId, String note, String author) {
-            if (itemId == null || itemId.trim().isEmpty() || note == null || note.trim().isEmpty()) return;
+        public void addFlagNote(String itemId, String note, String author) { addFlagNote(FlagKey.parse(itemId), note, author); }
+
+        /**
+         * Add an additional note to a flagged item without creating a new task.
+         * @param key flagged item
+         * @param note the note to append
+         * @param author optional author username
+         */
+        public void addFlagNote(FlagKey key, String note, String author) {
+            if (key == null || note == null || note.trim().isEmpty()) return;
             String n = note.trim();
+            String itemId = key.toItemId();
             try {
-                // ensure parent flagged_items exists
-                String mergeSql = "MERGE INTO flagged_items(itemId) KEY(itemId) VALUES (?)";
-                try (PreparedStatement mp = connection.prepareStatement(mergeSql)) { mp.setString(1, itemId); mp.executeUpdate(); }
-                String ins = "INSERT INTO flagged_notes(itemId, note, author) VALUES (?, ?, ?)";
-                try (PreparedStatement ip = connection.prepareStatement(ins)) { ip.setString(1, itemId); ip.setString(2, n); ip.setString(3, author); ip.executeUpdate(); }
-                String display = (author == null || author.trim().isEmpty()) ? n : (author + ": " + n);
-                flaggedItems.computeIfAbsent(itemId, k -> new ArrayList<>()).add(display);
+                long noteId = insertFlagNote(key, n, author);
+                String display = withAuthor(n, author);
+                state.flagNoteCursor.applyOwn(noteId, () -> recordFlagNote(key, display));
                 addLog("NOTE " + itemId + " -> " + n, author);
             } catch (SQLException e) {
                 // fallback to in-memory only
-                flaggedItems.computeIfAbsent(itemId, k -> new ArrayList<>()).add(n);
+                recordFlagNote(key, n);
                 addLog("NOTE " + itemId + " -> " + n, author);
             }
         }
@@ -585,7 +1221,95 @@ public class DiscussionBoardDAO {
          */
         public Map<String, List<String>> getFlaggedItems() {
             // return defensive copy
-            return new HashMap<>(flaggedItems);
+            Map<String, List<String>> out = new HashMap<>();
+            state.flagsCopy().forEach((key, notes) -> out.put(key.toItemId(), notes));
+            return out;
+        }
+        /**
+         * Retrieve all flags and their notes by typed key.
+         * @return map of flag key to notes (defensive copy)
+         */
+        public Map<FlagKey, List<String>> getFlags() { return state.flagsCopy(); }
+        /**
+         * Every flagged item with a description of its target, for the moderation lists.
+         * Titles, answer snippets and feedback entries for all flags come from one query
+         * (flags joined to each kind of target) instead of one lookup per item.
+         * @return flagged items, oldest flag first; notes come from the shared flag state
+         */
+        public List<FlaggedItem> resolveFlaggedItems() throws SQLException {
+            Map<FlagKey, List<String>> flags = state.flagsCopy();
+            List<FlaggedItem> out = new ArrayList<>(flags.size());
+            try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(FLAGGED_TARGETS);
+                 ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    FlagKey key = readFlagKey(rs);
+                    List<String> notes = key == null ? null : flags.remove(key);
+                    if (notes == null) continue; // removed since the snapshot
+                    String text = rs.getString("text");
+                    if (text != null && key.getType().isFeedback()) text = feedbackEntry(rs.getString("author"), text);
+                    out.add(new FlaggedItem(key, describeFlag(key, text), notes, text != null));
+                }
+            }
+            // flags held only in memory (their row could not be written)
+            flags.forEach((key, notes) -> out.add(new FlaggedItem(key, describeFlag(key, null), notes, false)));
+            return out;
+        }
+        // one-line description of a flag's target; text is the title, answer content or feedback entry, or null if not found
+        private static String describeFlag(FlagKey key, String text) {
+            int id = key.getTargetId();
+            switch (key.getType()) {
+                case QUESTION:
+                    return text != null ? "Question " + id + ": " + text : "Question " + id;
+                case ANSWER:
+                    return text != null ? "Answer " + id + ": " + snippet(text) : "Answer " + id;
+                case ANSWER_FEEDBACK:
+                    return text != null ? "Feedback A:" + id + " -> " + snippet(text) : "Feedback A:" + id + " [" + key.getFeedbackIndex() + "]";
+                default:
+                    return text != null ? "Feedback Q:" + id + " -> " + snippet(text) : "Feedback Q:" + id + " [" + key.getFeedbackIndex() + "]";
+            }
+        }
+        private static String snippet(String text) {
+            return text.length() > SNIPPET_LENGTH ? text.substring(0, SNIPPET_LENGTH - 3) + "..." : text;
+        }
+        /**
+         * Count flagged items of each type with one grouped query over the flags index.
+         * @return count per type (types with no flags are absent)
+         */
+        public Map<FlagKey.Type, Integer> countFlagsByType() {
+            Map<FlagKey.Type, Integer> counts = new EnumMap<>(FlagKey.Type.class);
+            String sql = "SELECT targetType, COUNT(*) AS n FROM flags GROUP BY targetType";
+            try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(sql); ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    try { counts.put(FlagKey.Type.valueOf(rs.getString("targetType")), rs.getInt("n")); }
+                    catch (IllegalArgumentException ex) { /* type from a newer version */ }
+                }
+            } catch (SQLException e) {
+                // fall back to the in-memory flags
+                counts.clear();
+                for (FlagKey key : state.flagsCopy().keySet()) counts.merge(key.getType(), 1, Integer::sum);
+            }
+            return counts;
+        }
+        /**
+         * Totals for the staff Summary tab in one round-trip: every figure is a COUNT answered from
+         * table row counts or an index (IDX_QUESTIONS_ANSWER_COUNT, UQ_FLAGS_TARGET, IDX_TASKS_OPEN).
+         * Questions without answers are counted by answerCount (kept current by every answer write); the
+         * Summary tab labels them so, since the board's Unanswered filter goes by the answered status.
+         * @return board stats
+         */
+        public BoardStats getBoardStats() throws SQLException {
+            StringBuilder sql = new StringBuilder("SELECT (SELECT COUNT(*) FROM questions)"
+                    + ", (SELECT COUNT(*) FROM questions WHERE answerCount = 0)"
+                    + ", (SELECT COUNT(*) FROM answers)"
+                    + ", (SELECT COUNT(*) FROM tasks WHERE status = 'OPEN')");
+            FlagKey.Type[] types = FlagKey.Type.values();
+            for (FlagKey.Type type : types) sql.append(", (SELECT COUNT(*) FROM flags WHERE targetType = '").append(type.name()).append("')");
+            try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(sql.toString()); ResultSet rs = p.executeQuery()) {
+                rs.next();
+                Map<FlagKey.Type, Integer> flagged = new EnumMap<>(FlagKey.Type.class);
+                for (int i = 0; i < types.length; i++) flagged.put(types[i], rs.getInt(5 + i));
+                return new BoardStats(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), flagged);
+            }
         }
         /**
          * Add a historical log entry (actions, messages, etc.).
@@ -599,16 +1323,8 @@ public class DiscussionBoardDAO {
         public void addLog(String logEntry, String author) {
             if (logEntry == null || logEntry.trim().isEmpty()) return;
             String e = logEntry.trim();
-            try {
-                String ins = "INSERT INTO admin_logs(entry, author) VALUES (?, ?)";
-                try (PreparedStatement p = connection.prepareStatement(ins)) { p.setString(1, e); p.setString(2, author); p.executeUpdate(); }
-                if (author == null || author.trim().isEmpty()) logs.add(e);
-                else logs.add(author + ": " + e);
-            } catch (SQLException ex) {
-                // fallback to in-memory
-                if (author == null || author.trim().isEmpty()) logs.add(e);
-                else logs.add(author + ": " + e);
-            }
+            // queued for the background writer; readers below flush it first
+            logWriter.submit(e, author, withAuthor(e, author));
         }
 
         /**
@@ -616,97 +1332,329 @@ public class DiscussionBoardDAO {
          */
         public void addLog(String logEntry) { addLog(logEntry, null); }
         /**
-         * Get all historical log entries.
+         * Get the most recent log entries (at most 500, oldest first); use the paged
+         * getLogs(from, to, author, limit, cursor) to browse further back.
          * @return list of log strings
          */
         public List<String> getLogs() {
-            // try to read from DB to ensure latest
-            try {
-                List<String> dbLogs = new ArrayList<>();
-                String sql = "SELECT entry, author FROM admin_logs ORDER BY createdAt ASC";
-                try (PreparedStatement p = connection.prepareStatement(sql); ResultSet rs = p.executeQuery()) {
+            logWriter.flush();
+            // pick up entries other sessions wrote since the last look (only rows past the high-water mark are read)
+            try (Connection connection = pool.getConnection()) {
+                catchUpLogs(connection);
+            } catch (SQLException ex) { /* serve the in-memory copy */ }
+            return state.logsCopy();
+        }
+
+        /**
+         * Page through log entries, newest first.
+         * @param from earliest createdAt (inclusive), or null
+         * @param to latest createdAt (exclusive), or null
+         * @param author only entries by this author, or null/empty for all
+         * @param limit page size (capped at 500)
+         * @param cursor null for the first page, else the previous page's next cursor
+         * @return the page
+         */
+        public LogPage getLogs(LocalDateTime from, LocalDateTime to, String author, int limit, Long cursor) throws SQLException {
+            return getLogs(from, to, author, null, limit, cursor);
+        }
+
+        /**
+         * Page through log entries, newest first, filtered by action as well.
+         * @param action only entries with this action keyword (e.g. "FLAG", "TASK"), or null/empty for all
+         * @see #getLogs(LocalDateTime, LocalDateTime, String, int, Long)
+         */
+        public LogPage getLogs(LocalDateTime from, LocalDateTime to, String author, String action, int limit, Long cursor) throws SQLException {
+            logWriter.flush();
+            int size = Math.max(1, Math.min(limit, MAX_LOG_PAGE));
+            // keyset paging on logId: each page is an index range scan, however deep the user pages
+            StringBuilder sql = new StringBuilder("SELECT logId, createdAt, author, action, entry FROM admin_logs WHERE 1 = 1");
+            List<Object> params = new ArrayList<>();
+            if (cursor != null) { sql.append(" AND logId < ?"); params.add(cursor); }
+            if (from != null) { sql.append(" AND createdAt >= ?"); params.add(Timestamp.valueOf(from)); }
+            if (to != null) { sql.append(" AND createdAt < ?"); params.add(Timestamp.valueOf(to)); }
+            if (author != null && !author.trim().isEmpty()) { sql.append(" AND author = ?"); params.add(author.trim()); }
+            if (action != null && !action.trim().isEmpty()) { sql.append(" AND action = ?"); params.add(action.trim().toUpperCase()); }
+            sql.append(" ORDER BY logId DESC LIMIT ?");
+            params.add(size + 1);
+            List<LogEntry> entries = new ArrayList<>();
+            try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(sql.toString())) {
+                for (int i = 0; i < params.size(); i++) p.setObject(i + 1, params.get(i));
+                try (ResultSet rs = p.executeQuery()) {
                     while (rs.next()) {
-                        String entry = rs.getString("entry");
-                        String author = rs.getString("author");
-                        if (author != null && !author.trim().isEmpty()) dbLogs.add(author + ": " + entry);
-                        else dbLogs.add(entry);
+                        Timestamp at = rs.getTimestamp("createdAt");
+                        entries.add(new LogEntry(rs.getLong("logId"), at == null ? null : at.toLocalDateTime(),
+                                rs.getString("author"), rs.getString("action"), rs.getString("entry")));
                     }
                 }
-                // update in-memory copy
-                logs.clear(); logs.addAll(dbLogs);
-                return new ArrayList<>(logs);
-            } catch (SQLException ex) {
-                return new ArrayList<>(logs);
+            }
+            // the extra row only tells whether another page exists
+            Long next = null;
+            if (entries.size() > size) {
+                entries.remove(size);
+                next = entries.get(size - 1).getLogId();
+            }
+            return new LogPage(entries, next);
+        }
+
+        /**
+         * Move log entries created before a cutoff out of admin_logs into compressed archive
+         * segments of up to 1000 entries. Each segment is written and its rows deleted in one transaction.
+         * @param cutoff entries created before this time are archived
+         * @return number of entries archived
+         */
+        public int archiveLogsBefore(LocalDateTime cutoff) throws SQLException {
+            logWriter.flush();
+            int archived = 0;
+            String sel = "SELECT logId, createdAt, author, action, entry FROM admin_logs WHERE createdAt < ? ORDER BY logId ASC LIMIT ?";
+            String ins = "INSERT INTO admin_log_archive(firstLogId, lastLogId, firstAt, lastAt, entryCount, payload) VALUES (?, ?, ?, ?, ?, ?)";
+            String del = "DELETE FROM admin_logs WHERE createdAt < ? AND logId <= ?";
+            try (Connection connection = pool.getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    while (true) {
+                        List<LogEntry> segment = new ArrayList<>();
+                        try (PreparedStatement p = connection.prepareStatement(sel)) {
+                            p.setTimestamp(1, Timestamp.valueOf(cutoff));
+                            p.setInt(2, LOG_SEGMENT_SIZE);
+                            try (ResultSet rs = p.executeQuery()) {
+                                while (rs.next()) {
+                                    Timestamp at = rs.getTimestamp("createdAt");
+                                    segment.add(new LogEntry(rs.getLong("logId"), at == null ? null : at.toLocalDateTime(),
+                                            rs.getString("author"), rs.getString("action"), rs.getString("entry")));
+                                }
+                            }
+                        }
+                        if (segment.isEmpty()) break;
+                        LogEntry first = segment.get(0);
+                        LogEntry last = segment.get(segment.size() - 1);
+                        try (PreparedStatement p = connection.prepareStatement(ins)) {
+                            p.setLong(1, first.getLogId());
+                            p.setLong(2, last.getLogId());
+                            p.setObject(3, first.getCreatedAt() == null ? null : Timestamp.valueOf(first.getCreatedAt()));
+                            p.setObject(4, last.getCreatedAt() == null ? null : Timestamp.valueOf(last.getCreatedAt()));
+                            p.setInt(5, segment.size());
+                            p.setBytes(6, LogSegment.encode(segment));
+                            p.executeUpdate();
+                        } catch (IOException ex) {
+                            throw new SQLException("Could not encode log segment", ex);
+                        }
+                        try (PreparedStatement p = connection.prepareStatement(del)) {
+                            p.setTimestamp(1, Timestamp.valueOf(cutoff));
+                            p.setLong(2, last.getLogId());
+                            p.executeUpdate();
+                        }
+                        connection.commit();
+                        archived += segment.size();
+                        if (segment.size() < LOG_SEGMENT_SIZE) break;
+                    }
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+            return archived;
+        }
+
+        /**
+         * List archived log segments, newest first.
+         * @return segment metadata
+         */
+        public List<LogSegment> getLogSegments() throws SQLException {
+            List<LogSegment> out = new ArrayList<>();
+            String sql = "SELECT segmentId, firstLogId, lastLogId, firstAt, lastAt, entryCount FROM admin_log_archive ORDER BY segmentId DESC";
+            try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(sql); ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp firstAt = rs.getTimestamp("firstAt");
+                    Timestamp lastAt = rs.getTimestamp("lastAt");
+                    out.add(new LogSegment(rs.getInt("segmentId"), rs.getLong("firstLogId"), rs.getLong("lastLogId"),
+                            firstAt == null ? null : firstAt.toLocalDateTime(), lastAt == null ? null : lastAt.toLocalDateTime(), rs.getInt("entryCount")));
+                }
+            }
+            return out;
+        }
+
+        /**
+         * Expand one archived segment.
+         * @param segmentId segment id
+         * @return its entries, oldest first (empty if there is no such segment)
+         */
+        public List<LogEntry> getArchivedLogs(int segmentId) throws SQLException {
+            String sql = "SELECT payload FROM admin_log_archive WHERE segmentId = ?";
+            try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(sql)) {
+                p.setInt(1, segmentId);
+                try (ResultSet rs = p.executeQuery()) {
+                    if (!rs.next()) return new ArrayList<>();
+                    return LogSegment.decode(rs.getBytes("payload"));
+                }
+            } catch (IOException ex) {
+                throw new SQLException("Could not read log segment " + segmentId, ex);
             }
         }
         /**
          * Add a task / issue to the task board (unresolved by default).
          * @param description task description
-         * @return index id of task
+         * @return the task's position on the board (prefer createTask and resolveTaskById, whose ids are stable)
          */
         public int addTask(String description) {
-            if (description == null || description.trim().isEmpty()) return -1;
+            Task task = createTask(description, null, 0);
+            return task == null ? -1 : state.taskIndex(task.getTaskId());
+        }
+        /**
+         * Add an open task to the task board.
+         * @param description task description
+         * @param assignee staff username the task is assigned to (may be null)
+         * @param priority higher is more urgent (0 = normal)
+         * @return the task, or null if the description is empty
+         */
+        public Task createTask(String description, String assignee, int priority) {
+            if (description == null || description.trim().isEmpty()) return null;
             String desc = description.trim();
+            int taskId = 0;
             try {
-                String ins = "INSERT INTO tasks(description) VALUES (?)";
-                try (PreparedStatement p = connection.prepareStatement(ins)) { p.setString(1, desc); p.executeUpdate(); }
+                taskId = (int) insertReturningId("INSERT INTO tasks(description, assignee, priority) VALUES (?, ?, ?)", desc, assignee, priority);
             } catch (SQLException ex) {
                 // ignore DB error and continue with in-memory only
             }
-            taskBoard.add(desc);
+            if (taskId <= 0) taskId = state.nextLocalTaskId();
+            Task task = new Task(taskId, desc, Task.OPEN, assignee, priority, LocalDateTime.now());
+            state.taskCursor.applyOwn(task.getTaskId(), () -> state.putTask(task));
             addLog("TASK ADD -> " + desc);
-            // notify listeners about updated tasks
-            try {
-                List<String> snapshot = new ArrayList<>(taskBoard);
-                for (java.util.function.Consumer<List<String>> l : taskListeners) {
-                    try { l.accept(snapshot); } catch (Exception ex) { /* ignore listener errors */ }
-                }
-            } catch (Exception ex) { /* ignore notify errors */ }
-            return taskBoard.size() - 1;
+            return task;
         }
         /**
-         * Resolve a task by its index (removes it from unresolved list).
-         * @param taskIndex index returned from addTask
+         * Resolve a task by its board position (removes it from unresolved list).
+         * @param taskIndex position returned from addTask
          * @return true if removed
          */
         public boolean resolveTask(int taskIndex) {
-            if (taskIndex < 0 || taskIndex >= taskBoard.size()) return false;
-            String removed = taskBoard.remove(taskIndex);
-            addLog("TASK RESOLVED -> " + removed);
-            // attempt to remove a matching row from DB (remove the oldest matching description)
-            try {
-                String del = "DELETE FROM tasks WHERE taskId = (SELECT taskId FROM tasks WHERE description = ? ORDER BY createdAt ASC LIMIT 1)";
-                try (PreparedStatement dp = connection.prepareStatement(del)) { dp.setString(1, removed); dp.executeUpdate(); }
-            } catch (SQLException ex) { /* ignore DB delete errors */ }
-            // notify listeners about updated tasks
-            try {
-                List<String> snapshot = new ArrayList<>(taskBoard);
-                for (java.util.function.Consumer<List<String>> l : taskListeners) {
-                    try { l.accept(snapshot); } catch (Exception ex) { /* ignore listener errors */ }
-                }
-            } catch (Exception ex) { /* ignore notify errors */ }
+            // bounds check and removal happen atomically in the store
+            Task removed = state.removeTaskAt(taskIndex);
+            if (removed == null) return false;
+            markResolved(removed.getTaskId());
+            addLog("TASK RESOLVED -> " + removed.getDescription());
+            return true;
+        }
+        /**
+         * Resolve a task by id.
+         * @param taskId the task id
+         * @return true if an open task was resolved
+         */
+        public boolean resolveTaskById(int taskId) {
+            Task removed = state.removeTask(taskId);
+            // a task another session added may not have been caught up with yet
+            boolean stored = markResolved(taskId);
+            if (removed == null && !stored) return false;
+            addLog("TASK RESOLVED -> " + (removed != null ? removed.getDescription() : "task " + taskId));
             return true;
         }
+        // set status RESOLVED by primary key; returns false if no open row was updated
+        private boolean markResolved(int taskId) {
+            if (taskId <= 0) return false;
+            String upd = "UPDATE tasks SET status = 'RESOLVED', resolvedAt = CURRENT_TIMESTAMP WHERE taskId = ? AND status = 'OPEN'";
+            try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(upd)) {
+                p.setInt(1, taskId);
+                if (p.executeUpdate() == 0) return false;
+                recordChange(connection, "TASK", "RESOLVE", Integer.toString(taskId));
+                return true;
+            } catch (SQLException ex) {
+                return false; // ignore DB update errors
+            }
+        }
+        /**
+         * Change a task's assignee and priority.
+         * @param taskId the task id
+         * @param assignee staff username (may be null to unassign)
+         * @param priority higher is more urgent
+         * @return true if the task is open and was updated
+         */
+        public boolean updateTask(int taskId, String assignee, int priority) {
+            Task current = state.task(taskId);
+            boolean stored = false;
+            if (taskId > 0) {
+                String upd = "UPDATE tasks SET assignee = ?, priority = ? WHERE taskId = ? AND status = 'OPEN'";
+                try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(upd)) {
+                    p.setString(1, assignee);
+                    p.setInt(2, priority);
+                    p.setInt(3, taskId);
+                    stored = p.executeUpdate() > 0;
+                    if (stored) recordChange(connection, "TASK", "UPDATE", Integer.toString(taskId));
+                } catch (SQLException ex) { /* keep the in-memory change */ }
+            }
+            boolean changed = current != null && state.replaceTask(current.withAssignment(assignee, priority));
+            if (!changed && !stored) return false;
+            addLog("TASK ASSIGN " + taskId + " -> " + (assignee == null ? "unassigned" : assignee) + " P" + priority);
+            return true;
+        }
+        /**
+         * Open tasks on the board, oldest first.
+         * @return task copies
+         */
+        public List<Task> getOpenTasks() { return state.openTasks(); }
+        /**
+         * Open tasks assigned to a user, most urgent first (read from the database via IDX_TASKS_ASSIGNEE).
+         * @param assignee staff username
+         * @return the user's open tasks
+         */
+        public List<Task> getOpenTasks(String assignee) throws SQLException {
+            List<Task> out = new ArrayList<>();
+            try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(OPEN_TASKS_FOR_ASSIGNEE)) {
+                p.setString(1, assignee);
+                try (ResultSet rs = p.executeQuery()) {
+                    while (rs.next()) out.add(extractTaskFromResultSet(rs));
+                }
+            }
+            return out;
+        }
+        private static Task extractTaskFromResultSet(ResultSet rs) throws SQLException {
+            Timestamp createdAt = rs.getTimestamp("createdAt");
+            return new Task(rs.getInt("taskId"), rs.getString("description"), rs.getString("status"),
+                    rs.getString("assignee"), rs.getInt("priority"), createdAt == null ? null : createdAt.toLocalDateTime());
+        }
 
         /**
          * Register a listener to be notified when the task board changes.
-         * Listener receives a snapshot list of current tasks.
+         * Listener receives a snapshot list of current tasks, on a background thread,
+         * once per burst of changes. Prefer getTaskEventBus() for add/resolve deltas.
          */
         public void registerTaskListener(java.util.function.Consumer<List<String>> listener) {
             if (listener == null) return;
-            taskListeners.add(listener);
+            state.addTaskListener(listener);
         }
 
         /** Unregister a previously registered task listener. */
         public void unregisterTaskListener(java.util.function.Consumer<List<String>> listener) {
             if (listener == null) return;
-            taskListeners.remove(listener);
+            state.removeTaskListener(listener);
         }
+
+        /**
+         * Register a listener called (on the change-feed thread) when another client's changes
+         * alter the flagged items; it receives the new flag snapshot.
+         */
+        public void registerFlagListener(java.util.function.Consumer<FlagSnapshot> listener) {
+            if (listener == null) return;
+            state.addFlagListener(listener);
+        }
+
+        /** Unregister a previously registered flag listener. */
+        public void unregisterFlagListener(java.util.function.Consumer<FlagSnapshot> listener) {
+            if (listener == null) return;
+            state.removeFlagListener(listener);
+        }
+
+        /**
+         * Task board change events (added / updated / resolved task ids), shared by every DAO.
+         * @return the event bus
+         */
+        public TaskEventBus getTaskEventBus() { return state.taskEvents; }
         /**
          * Get current unresolved tasks.
          * @return list of task descriptions
          */
-        public List<String> getTasks() { return new ArrayList<>(taskBoard); }
+        public List<String> getTasks() { return state.tasksCopy(); }
         /**
          * Add private feedback entry for a question.
          * @param questionId the question id
@@ -718,13 +1666,12 @@ public class DiscussionBoardDAO {
             String fb = feedback.trim();
             String auth = author == null ? "anon" : author;
             try {
-                String ins = "INSERT INTO private_feedback(questionId, author, feedback) VALUES (?, ?, ?)";
-                try (PreparedStatement p = connection.prepareStatement(ins)) { p.setInt(1, questionId); p.setString(2, auth); p.setString(3, fb); p.executeUpdate(); }
-                privateFeedback.computeIfAbsent(questionId, k -> new ArrayList<>()).add(auth + ": " + fb);
+                long feedbackId = insertReturningId("INSERT INTO private_feedback(questionId, author, feedback) VALUES (?, ?, ?)", questionId, auth, fb);
+                state.feedbackCursor.applyOwn(feedbackId, () -> state.addQuestionFeedback(questionId, auth + ": " + fb));
                 addLog("FEEDBACK Q:" + questionId + " -> " + fb, auth);
             } catch (SQLException e) {
                 // fallback to in-memory
-                privateFeedback.computeIfAbsent(questionId, k -> new ArrayList<>()).add(auth + ": " + fb);
+                state.addQuestionFeedback(questionId, auth + ": " + fb);
                 addLog("FEEDBACK Q:" + questionId + " -> " + fb, auth);
             }
         }
@@ -735,12 +1682,11 @@ public class DiscussionBoardDAO {
             String fb = feedback.trim();
             String auth = author == null ? "anon" : author;
             try {
-                String ins = "INSERT INTO answer_feedback(answerId, author, feedback) VALUES (?, ?, ?)";
-                try (PreparedStatement p = connection.prepareStatement(ins)) { p.setInt(1, answerId); p.setString(2, auth); p.setString(3, fb); p.executeUpdate(); }
-                privateAnswerFeedback.computeIfAbsent(answerId, k -> new ArrayList<>()).add(auth + ": " + fb);
+                long feedbackId = insertReturningId("INSERT INTO answer_feedback(answerId, author, feedback) VALUES (?, ?, ?)", answerId, auth, fb);
+                state.answerFeedbackCursor.applyOwn(feedbackId, () -> state.addAnswerFeedback(answerId, auth + ": " + fb));
                 addLog("FEEDBACK A:" + answerId + " -> " + fb, auth);
             } catch (SQLException e) {
-                privateAnswerFeedback.computeIfAbsent(answerId, k -> new ArrayList<>()).add(auth + ": " + fb);
+                state.addAnswerFeedback(answerId, auth + ": " + fb);
                 addLog("FEEDBACK A:" + answerId + " -> " + fb, auth);
             }
         }
@@ -749,17 +1695,15 @@ public class DiscussionBoardDAO {
         public List<String> getPrivateFeedbackForAnswer(int answerId) {
             try {
                 List<String> out = new ArrayList<>();
-                String sql = "SELECT author, feedback FROM answer_feedback WHERE answerId = ? ORDER BY createdAt ASC";
-                try (PreparedStatement p = connection.prepareStatement(sql)) {
+                try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(FEEDBACK_FOR_ANSWER)) {
                     p.setInt(1, answerId);
                     try (ResultSet rs = p.executeQuery()) {
                         while (rs.next()) out.add(rs.getString("author") + ": " + rs.getString("feedback"));
                     }
                 }
-                privateAnswerFeedback.put(answerId, new ArrayList<>(out));
                 return out;
             } catch (SQLException e) {
-                return privateAnswerFeedback.getOrDefault(answerId, new ArrayList<>());
+                return state.answerFeedback(answerId);
             }
         }
         /**
@@ -771,23 +1715,20 @@ public class DiscussionBoardDAO {
             // try to read from DB for freshness
             try {
                 List<String> out = new ArrayList<>();
-                String sql = "SELECT author, feedback FROM private_feedback WHERE questionId = ? ORDER BY createdAt ASC";
-                try (PreparedStatement p = connection.prepareStatement(sql)) {
+                try (Connection connection = pool.getConnection(); PreparedStatement p = connection.prepareStatement(FEEDBACK_FOR_QUESTION)) {
                     p.setInt(1, questionId);
                     try (ResultSet rs = p.executeQuery()) {
                         while (rs.next()) out.add(rs.getString("author") + ": " + rs.getString("feedback"));
                     }
                 }
-                // update in-memory map
-                privateFeedback.put(questionId, new ArrayList<>(out));
                 return out;
             } catch (SQLException e) {
-                return privateFeedback.getOrDefault(questionId, new ArrayList<>());
+                return state.questionFeedback(questionId);
             }
         }
         /**
          * Get all private feedback keyed by question id.
-         * @return map of questionId to feedback list
+         * @return read-only live view of questionId to feedback list
          */
-        public Map<Integer, List<String>> getAllPrivateFeedback() { return privateFeedback; }
+        public Map<Integer, List<String>> getAllPrivateFeedback() { return state.questionFeedbackView(); }
     }
@@ -0,0 +1,338 @@
+package databasePart1;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import application.Staff;
+import application.Task;
+
+/**
+ * Process-wide in-memory state shared by every DiscussionBoardDAO: flagged items and
+ * their notes, admin logs, the task board, task listeners and private feedback.
+ *
+ * Visibility guarantees:
+ * - Flags are copy-on-write. Every change builds a new immutable table and publishes it
+ *   through a volatile field, so readers (list cells, filters) never lock and always see
+ *   a consistent map, id bitmaps and version together.
+ * - Feedback maps are ConcurrentHashMaps whose values are immutable lists replaced
+ *   atomically per key, so a reader sees either the old or the new list for a post.
+ * - Tasks are keyed by taskId in insertion order and guarded by the task lock, so add,
+ *   resolve-by-id and lookups are constant time. Every change is published to taskEvents
+ *   after the lock is released. Staff is a CopyOnWriteArrayList.
+ * - Logs are appended under the log lock and only the newest MAX_CACHED_LOGS are kept
+ *   (older entries are read page by page from the database); readers get a copy.
+ * A change made on any thread happens-before every read that observes it.
+ *
+ * Rows other processes add to the append-only tables (flag notes, logs, feedback, tasks)
+ * are picked up incrementally through one ChangeCursor per table.
+ */
+final class DiscussionBoardState {
+
+    /**
+     * Read position for one append-only table. Ids come from an identity column, so a row can
+     * commit after rows with larger ids have already been read; catch-up reads therefore start
+     * {@link #LATE_WINDOW} ids below the highest id applied and skip the ids in that window they
+     * have already applied. Ids this process inserted and applied itself are remembered the same
+     * way, so a later catch-up read does not apply them twice.
+     */
+    static final class ChangeCursor {
+        /** How far below the highest applied id a catch-up read looks for rows that committed late. */
+        static final long LATE_WINDOW = 256;
+
+        private long mark;
+        // ids at or below the floor are never read again
+        private long floor;
+        // ids above the floor that were already applied
+        private final Set<Long> applied = new HashSet<>();
+
+        /** @return id a catch-up read starts after */
+        synchronized long floor() { return floor; }
+
+        /** Start from a full load that covered every row up to the given id. */
+        synchronized void reset(long loadedUpTo) {
+            mark = loadedUpTo;
+            floor = loadedUpTo;
+            applied.clear();
+        }
+
+        /** Apply a row this process just inserted (id <= 0 when it was not persisted), unless a catch-up already did. */
+        synchronized void applyOwn(long id, Runnable apply) {
+            if (id > 0 && (id <= floor || !applied.add(id))) return;
+            apply.run();
+        }
+
+        /** Apply a row found by a catch-up read, unless it was applied already; rows may arrive in any order. */
+        synchronized void applyNew(long id, Runnable apply) {
+            if (id <= floor || !applied.add(id)) return;
+            apply.run();
+            if (id > mark) {
+                mark = id;
+                long newFloor = mark - LATE_WINDOW;
+                if (newFloor > floor) {
+                    floor = newFloor;
+                    applied.removeIf(appliedId -> appliedId <= newFloor);
+                }
+            }
+        }
+    }
+
+    final ChangeCursor flagNoteCursor = new ChangeCursor();
+    final ChangeCursor logCursor = new ChangeCursor();
+    final ChangeCursor feedbackCursor = new ChangeCursor();
+    final ChangeCursor answerFeedbackCursor = new ChangeCursor();
+    final ChangeCursor taskCursor = new ChangeCursor();
+    // position in change_feed (removals and updates made by other processes)
+    final ChangeCursor changeCursor = new ChangeCursor();
+
+    /** Immutable flag table; replaced wholesale on every change. */
+    private static final class FlagTable {
+        final Map<FlagKey, List<String>> notes; // flag -> notes (unmodifiable)
+        final FlagSnapshot snapshot;
+
+        FlagTable(Map<FlagKey, List<String>> notes, long version) {
+            this.notes = Collections.unmodifiableMap(notes);
+            BitSet questions = new BitSet();
+            BitSet answers = new BitSet();
+            Set<FlagKey> feedback = new HashSet<>();
+            for (FlagKey key : notes.keySet()) {
+                switch (key.getType()) {
+                    case QUESTION: questions.set(key.getTargetId()); break;
+                    case ANSWER: answers.set(key.getTargetId()); break;
+                    default: feedback.add(key); break;
+                }
+            }
+            this.snapshot = new FlagSnapshot(version, questions, answers, feedback);
+        }
+    }
+
+    private final Object flagLock = new Object();
+    private final List<Consumer<FlagSnapshot>> flagListeners = new CopyOnWriteArrayList<>();
+    private volatile FlagTable flags = new FlagTable(new HashMap<>(), 0);
+
+    /** Recent log entries kept in memory; the full history is paged from admin_logs. */
+    static final int MAX_CACHED_LOGS = 500;
+
+    private final Object logLock = new Object();
+    private final ArrayDeque<String> logs = new ArrayDeque<>();
+
+    private final Object taskLock = new Object();
+    private final LinkedHashMap<Integer, Task> taskBoard = new LinkedHashMap<>();
+    private int nextLocalTaskId = -1; // ids for tasks that could not be stored, counting down
+    /** Task board changes, delivered asynchronously to subscribers. */
+    final TaskEventBus taskEvents = new TaskEventBus();
+    // snapshot-style listeners (registerTaskListener) and the bus listeners bridging to them
+    private final Map<Consumer<List<String>>, TaskEventBus.Listener> snapshotListeners = new ConcurrentHashMap<>();
+
+    private final List<Staff> staffList = new CopyOnWriteArrayList<>();
+    private final Map<Integer, List<String>> privateFeedback = new ConcurrentHashMap<>();
+    private final Map<Integer, List<String>> privateAnswerFeedback = new ConcurrentHashMap<>();
+
+    // ---- flags ----
+
+    boolean isFlagged(FlagKey key) { return key != null && flags.notes.containsKey(key); }
+
+    FlagSnapshot flagSnapshot() { return flags.snapshot; }
+
+    long flagVersion() { return flags.snapshot.getVersion(); }
+
+    /** Copy of the flag map with copied note lists. */
+    Map<FlagKey, List<String>> flagsCopy() {
+        Map<FlagKey, List<String>> copy = new HashMap<>();
+        flags.notes.forEach((id, notes) -> copy.put(id, new ArrayList<>(notes)));
+        return copy;
+    }
+
+    /** Append a note to an item, flagging it if it was not flagged yet. */
+    void addFlagNote(FlagKey key, String note) {
+        synchronized (flagLock) {
+            Map<FlagKey, List<String>> next = new HashMap<>(flags.notes);
+            List<String> notes = new ArrayList<>(next.getOrDefault(key, Collections.emptyList()));
+            notes.add(note);
+            next.put(key, Collections.unmodifiableList(notes));
+            flags = new FlagTable(next, flagVersion() + 1);
+        }
+    }
+
+    /** Remove an item's flag and notes; returns false if it was not flagged. */
+    boolean removeFlag(FlagKey key) {
+        synchronized (flagLock) {
+            if (!flags.notes.containsKey(key)) return false;
+            Map<FlagKey, List<String>> next = new HashMap<>(flags.notes);
+            next.remove(key);
+            flags = new FlagTable(next, flagVersion() + 1);
+            return true;
+        }
+    }
+
+    /** Remove several items' flags at once (one version bump). */
+    void removeFlags(Collection<FlagKey> keys) {
+        if (keys.isEmpty()) return;
+        synchronized (flagLock) {
+            Map<FlagKey, List<String>> next = new HashMap<>(flags.notes);
+            if (!next.keySet().removeAll(keys)) return;
+            flags = new FlagTable(next, flagVersion() + 1);
+        }
+    }
+
+    /** Replace all flags (used when loading from the database). */
+    void replaceFlags(Map<FlagKey, List<String>> loaded) {
+        Map<FlagKey, List<String>> next = new HashMap<>();
+        loaded.forEach((id, notes) -> next.put(id, Collections.unmodifiableList(new ArrayList<>(notes))));
+        synchronized (flagLock) {
+            flags = new FlagTable(next, flagVersion() + 1);
+        }
+    }
+
+    void addFlagListener(Consumer<FlagSnapshot> listener) { flagListeners.add(listener); }
+
+    void removeFlagListener(Consumer<FlagSnapshot> listener) { flagListeners.remove(listener); }
+
+    /** Give every flag listener the current snapshot; listener errors are ignored. */
+    void notifyFlagListeners() {
+        FlagSnapshot snapshot = flagSnapshot();
+        for (Consumer<FlagSnapshot> l : flagListeners) {
+            try { l.accept(snapshot); } catch (Exception ex) { /* ignore listener errors */ }
+        }
+    }
+
+    // ---- logs ----
+
+    void appendLog(String entry) {
+        synchronized (logLock) {
+            logs.addLast(entry);
+            if (logs.size() > MAX_CACHED_LOGS) logs.removeFirst();
+        }
+    }
+
+    List<String> logsCopy() {
+        synchronized (logLock) { return new ArrayList<>(logs); }
+    }
+
+    // ---- tasks ----
+
+    /** Add or replace a task (by id). */
+    void putTask(Task task) {
+        Task old;
+        synchronized (taskLock) { old = taskBoard.put(task.getTaskId(), task); }
+        taskEvents.publish(old == null ? TaskEvent.added(task) : TaskEvent.updated(task));
+    }
+
+    /** Replace a task only if it is still on the board; returns false otherwise. */
+    boolean replaceTask(Task task) {
+        synchronized (taskLock) {
+            if (taskBoard.replace(task.getTaskId(), task) == null) return false;
+        }
+        taskEvents.publish(TaskEvent.updated(task));
+        return true;
+    }
+
+    /** Remove a task by id; returns null if it is not on the board. */
+    Task removeTask(int taskId) {
+        Task removed;
+        synchronized (taskLock) { removed = taskBoard.remove(taskId); }
+        if (removed != null) taskEvents.publish(TaskEvent.resolved(taskId));
+        return removed;
+    }
+
+    Task task(int taskId) {
+        synchronized (taskLock) { return taskBoard.get(taskId); }
+    }
+
+    /** Remove the task at a board position (oldest first); returns null if out of range. */
+    Task removeTaskAt(int index) {
+        Task t;
+        synchronized (taskLock) {
+            t = taskAt(index);
+            if (t != null) taskBoard.remove(t.getTaskId());
+        }
+        if (t != null) taskEvents.publish(TaskEvent.resolved(t.getTaskId()));
+        return t;
+    }
+
+    /** Board position of a task, or -1. */
+    int taskIndex(int taskId) {
+        synchronized (taskLock) {
+            int i = 0;
+            for (Integer id : taskBoard.keySet()) {
+                if (id == taskId) return i;
+                i++;
+            }
+            return -1;
+        }
+    }
+
+    private Task taskAt(int index) {
+        if (index < 0 || index >= taskBoard.size()) return null;
+        int i = 0;
+        for (Task t : taskBoard.values()) if (i++ == index) return t;
+        return null;
+    }
+
+    /** Id for a task that only exists in memory (negative, so it never clashes with a taskId). */
+    int nextLocalTaskId() {
+        synchronized (taskLock) { return nextLocalTaskId--; }
+    }
+
+    /** Open tasks in board order. */
+    List<Task> openTasks() {
+        synchronized (taskLock) { return new ArrayList<>(taskBoard.values()); }
+    }
+
+    /** Descriptions of the open tasks in board order. */
+    List<String> tasksCopy() {
+        synchronized (taskLock) {
+            List<String> out = new ArrayList<>(taskBoard.size());
+            for (Task t : taskBoard.values()) out.add(t.getDescription());
+            return out;
+        }
+    }
+
+    /** Give a listener a snapshot of the board after each (coalesced) batch of task events. */
+    void addTaskListener(Consumer<List<String>> listener) {
+        TaskEventBus.Listener bridge = events -> listener.accept(Collections.unmodifiableList(tasksCopy()));
+        if (snapshotListeners.putIfAbsent(listener, bridge) == null) taskEvents.subscribe(bridge, null);
+    }
+
+    void removeTaskListener(Consumer<List<String>> listener) {
+        TaskEventBus.Listener bridge = snapshotListeners.remove(listener);
+        if (bridge != null) taskEvents.unsubscribe(bridge);
+    }
+
+    // ---- staff ----
+
+    void addStaff(Staff staff) { staffList.add(staff); }
+
+    List<Staff> staffCopy() { return new ArrayList<>(staffList); }
+
+    // ---- private feedback ----
+
+    void addQuestionFeedback(int questionId, String entry) { append(privateFeedback, questionId, entry); }
+
+    void addAnswerFeedback(int answerId, String entry) { append(privateAnswerFeedback, answerId, entry); }
+
+    List<String> questionFeedback(int questionId) { return new ArrayList<>(privateFeedback.getOrDefault(questionId, Collections.emptyList())); }
+
+    List<String> answerFeedback(int answerId) { return new ArrayList<>(privateAnswerFeedback.getOrDefault(answerId, Collections.emptyList())); }
+
+    Map<Integer, List<String>> questionFeedbackView() { return Collections.unmodifiableMap(privateFeedback); }
+
+    private static void append(Map<Integer, List<String>> map, int key, String entry) {
+        map.compute(key, (k, old) -> {
+            List<String> next = old == null ? new ArrayList<>() : new ArrayList<>(old);
+            next.add(entry);
+            return Collections.unmodifiableList(next);
+        });
+    }
+}
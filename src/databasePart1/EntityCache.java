@@ -0,0 +1,192 @@
+package databasePart1;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through cache of board entities in front of the DAO's by-id reads, bounded by an
+ * estimated size in bytes rather than an entry count (a question with a 5000-character body
+ * weighs far more than one with a title only). The least recently used entries are evicted
+ * once the budget is exceeded.
+ *
+ * Values are mutable entities, so the cache keeps its own copy and hands a fresh copy to every
+ * caller. Writers invalidate the keys they change; a load that overlaps an invalidation is
+ * returned to its caller but not stored, so a stale row read just before a write cannot
+ * re-enter the cache after it.
+ *
+ * @param <K> key type
+ * @param <V> cached value type
+ */
+public final class EntityCache<K, V> {
+
+    // database read for a key that is not cached; null means "no such row" and is not cached
+    @FunctionalInterface
+    interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private final String name;
+    private final long maxWeight;
+    private final ToIntFunction<V> weigher;
+    private final UnaryOperator<V> copier;
+
+    // guarded by this
+    private final LinkedHashMap<K, Weighted<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weight;
+    // bumped by every invalidation; loads started before a bump are not stored
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private static final class Weighted<V> {
+        final V value;
+        final int weight;
+
+        Weighted(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * @param name name shown in the stats
+     * @param maxWeight budget in (estimated) bytes
+     * @param weigher estimated size of a value in bytes
+     * @param copier copies a value, so callers never share the cached instance
+     */
+    EntityCache(String name, long maxWeight, ToIntFunction<V> weigher, UnaryOperator<V> copier) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.copier = copier;
+    }
+
+    /**
+     * Get a copy of the cached value, loading (and caching) it on a miss.
+     * @param key key to look up
+     * @param loader reads the value from the database
+     * @return a copy of the value, or null if the loader found none
+     */
+    V get(K key, Loader<K, V> loader) throws SQLException {
+        long stamp;
+        synchronized (this) {
+            Weighted<V> w = entries.get(key);
+            if (w != null) {
+                hits++;
+                return copier.apply(w.value);
+            }
+            misses++;
+            stamp = generation;
+        }
+        V loaded = loader.load(key);
+        if (loaded == null) return null;
+        putIfCurrent(key, loaded, stamp);
+        return copier.apply(loaded);
+    }
+
+    /** @return generation to pass to {@link #putIfCurrent} for a value about to be read from the database */
+    synchronized long stamp() { return generation; }
+
+    /**
+     * Cache a copy of a value read from the database, unless an invalidation happened since the read began.
+     * @param key key of the value
+     * @param value value as read
+     * @param stamp {@link #stamp()} taken before the read
+     */
+    synchronized void putIfCurrent(K key, V value, long stamp) {
+        if (stamp != generation) return;
+        Weighted<V> w = new Weighted<>(copier.apply(value), weigher.applyAsInt(value));
+        Weighted<V> old = entries.put(key, w);
+        if (old != null) weight -= old.weight;
+        weight += w.weight;
+        evict();
+    }
+
+    /** Drop one key. */
+    synchronized void invalidate(K key) {
+        generation++;
+        Weighted<V> old = entries.remove(key);
+        if (old != null) weight -= old.weight;
+    }
+
+    /** Drop every entry the predicate matches (e.g. the answers of a deleted question). */
+    synchronized void invalidateIf(BiPredicate<K, V> predicate) {
+        generation++;
+        Iterator<Map.Entry<K, Weighted<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Weighted<V>> e = it.next();
+            if (predicate.test(e.getKey(), e.getValue().value)) {
+                weight -= e.getValue().weight;
+                it.remove();
+            }
+        }
+    }
+
+    /** Drop everything. */
+    synchronized void clear() {
+        generation++;
+        entries.clear();
+        weight = 0;
+    }
+
+    // least recently used first; always keeps the newest entry even if it alone is over budget
+    private void evict() {
+        Iterator<Weighted<V>> it = entries.values().iterator();
+        while (weight > maxWeight && entries.size() > 1 && it.hasNext()) {
+            weight -= it.next().weight;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Snapshot of the cache metrics.
+     * @return current stats
+     */
+    public synchronized Stats getStats() {
+        return new Stats(name, entries.size(), weight, maxWeight, hits, misses, evictions);
+    }
+
+    /** Immutable view of one cache's size and hit rate. */
+    public static final class Stats {
+        private final String name;
+        private final int size;
+        private final long weight;
+        private final long maxWeight;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        Stats(String name, int size, long weight, long maxWeight, long hits, long misses, long evictions) {
+            this.name = name;
+            this.size = size;
+            this.weight = weight;
+            this.maxWeight = maxWeight;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public String getName() { return name; }
+        public int getSize() { return size; }
+        /** @return estimated bytes held */
+        public long getWeight() { return weight; }
+        public long getMaxWeight() { return maxWeight; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public double getHitRate() { return hits + misses == 0 ? 0 : (double) hits / (hits + misses); }
+
+        @Override
+        public String toString() {
+            return String.format("Cache{%s: size=%d, weight=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d}",
+                    name, size, weight, maxWeight, hits, misses, getHitRate() * 100, evictions);
+        }
+    }
+}
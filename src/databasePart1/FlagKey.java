@@ -0,0 +1,123 @@
+package databasePart1;
+
+/**
+ * Typed identity of a flag: what kind of item is flagged, the id of the question or answer
+ * it belongs to and, for feedback, the feedback entry's index. Replaces parsing
+ * "Q:12" / "A:7" / "FB:12:3" / "FB:A:7:2" strings; {@link #parse} and {@link #toItemId}
+ * convert to and from that form for the string-based DAO methods.
+ */
+public final class FlagKey {
+
+    /** Kind of flagged item, with the prefix used by its string item id. */
+    public enum Type {
+        QUESTION("Q:"),
+        ANSWER("A:"),
+        QUESTION_FEEDBACK("FB:"),
+        ANSWER_FEEDBACK("FB:A:");
+
+        private final String prefix;
+
+        Type(String prefix) { this.prefix = prefix; }
+
+        public String getPrefix() { return prefix; }
+
+        /** @return true for feedback entries (keyed by target id plus index) */
+        public boolean isFeedback() { return this == QUESTION_FEEDBACK || this == ANSWER_FEEDBACK; }
+    }
+
+    /** Feedback index used for question and answer flags. */
+    public static final int NO_FEEDBACK = -1;
+
+    private final Type type;
+    private final int targetId;
+    private final int feedbackIndex;
+
+    private FlagKey(Type type, int targetId, int feedbackIndex) {
+        this.type = type;
+        this.targetId = targetId;
+        this.feedbackIndex = feedbackIndex;
+    }
+
+    /**
+     * Build a key from its parts (as stored in the flags table).
+     * @param type item type
+     * @param targetId question id (QUESTION, QUESTION_FEEDBACK) or answer id (ANSWER, ANSWER_FEEDBACK)
+     * @param feedbackIndex feedback entry index, or NO_FEEDBACK
+     * @return the key
+     */
+    public static FlagKey of(Type type, int targetId, int feedbackIndex) {
+        if (type == null) throw new IllegalArgumentException("type is required");
+        if (targetId < 0) throw new IllegalArgumentException("targetId must not be negative");
+        if (type.isFeedback() ? feedbackIndex < 0 : feedbackIndex != NO_FEEDBACK) {
+            throw new IllegalArgumentException("feedbackIndex does not match " + type);
+        }
+        return new FlagKey(type, targetId, feedbackIndex);
+    }
+
+    public static FlagKey question(int questionId) { return of(Type.QUESTION, questionId, NO_FEEDBACK); }
+
+    public static FlagKey answer(int answerId) { return of(Type.ANSWER, answerId, NO_FEEDBACK); }
+
+    public static FlagKey questionFeedback(int questionId, int index) { return of(Type.QUESTION_FEEDBACK, questionId, index); }
+
+    public static FlagKey answerFeedback(int answerId, int index) { return of(Type.ANSWER_FEEDBACK, answerId, index); }
+
+    /**
+     * Parse a string item id (Q:<id> | A:<id> | FB:<qId>:<idx> | FB:A:<aId>:<idx>).
+     * @param itemId identifier
+     * @return the key, or null if the id has another shape
+     */
+    public static FlagKey parse(String itemId) {
+        if (itemId == null) return null;
+        int id = FlagSnapshot.numericId(itemId, "Q:");
+        if (id >= 0) return question(id);
+        id = FlagSnapshot.numericId(itemId, "A:");
+        if (id >= 0) return answer(id);
+        int last = itemId.lastIndexOf(':');
+        if (!itemId.startsWith("FB:") || last < 3) return null;
+        int index = FlagSnapshot.numericId(itemId.substring(last), ":");
+        if (index < 0) return null;
+        String target = itemId.substring(0, last);
+        id = FlagSnapshot.numericId(target, "FB:A:");
+        if (id >= 0) return answerFeedback(id, index);
+        id = FlagSnapshot.numericId(target, "FB:");
+        if (id >= 0) return questionFeedback(id, index);
+        return null;
+    }
+
+    public Type getType() { return type; }
+
+    public int getTargetId() { return targetId; }
+
+    /** @return feedback entry index, or NO_FEEDBACK for question and answer flags */
+    public int getFeedbackIndex() { return feedbackIndex; }
+
+    /** @return id of the question this flag hangs off, or null if it belongs to an answer */
+    public Integer getQuestionId() {
+        return type == Type.QUESTION || type == Type.QUESTION_FEEDBACK ? Integer.valueOf(targetId) : null;
+    }
+
+    /** @return id of the answer this flag hangs off, or null if it belongs to a question */
+    public Integer getAnswerId() {
+        return type == Type.ANSWER || type == Type.ANSWER_FEEDBACK ? Integer.valueOf(targetId) : null;
+    }
+
+    /** @return the string item id for this key (e.g. "FB:A:7:2") */
+    public String toItemId() {
+        return type.prefix + targetId + (type.isFeedback() ? ":" + feedbackIndex : "");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FlagKey)) return false;
+        FlagKey k = (FlagKey) o;
+        return type == k.type && targetId == k.targetId && feedbackIndex == k.feedbackIndex;
+    }
+
+    @Override
+    public int hashCode() { return (type.ordinal() * 31 + targetId) * 31 + feedbackIndex; }
+
+    @Override
+    public String toString() { return toItemId(); }
+}
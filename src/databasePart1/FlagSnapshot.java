@@ -0,0 +1,86 @@
+package databasePart1;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable, point-in-time view of which items are flagged. Questions and answers are
+ * held in bitmaps keyed by their numeric id, so list cells can check flag status without
+ * building "Q:<id>" / "A:<id>" strings or probing the shared flag map on every render.
+ * Feedback flags are rare and kept as their FlagKeys.
+ */
+public final class FlagSnapshot {
+    /** Snapshot with nothing flagged. */
+    public static final FlagSnapshot EMPTY = new FlagSnapshot(-1, new BitSet(), new BitSet(), Collections.emptySet());
+
+    private final long version;
+    private final BitSet questions;
+    private final BitSet answers;
+    private final Set<FlagKey> feedback;
+
+    FlagSnapshot(long version, BitSet questions, BitSet answers, Set<FlagKey> feedback) {
+        this.version = version;
+        this.questions = questions;
+        this.answers = answers;
+        this.feedback = Collections.unmodifiableSet(new HashSet<>(feedback));
+    }
+
+    /**
+     * Version of the DAO flag state this snapshot was taken from.
+     * @return flag state version
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * @param questionId question id
+     * @return true if the question was flagged when the snapshot was taken
+     */
+    public boolean isQuestionFlagged(int questionId) { return questionId >= 0 && questions.get(questionId); }
+
+    /**
+     * @param answerId answer id
+     * @return true if the answer was flagged when the snapshot was taken
+     */
+    public boolean isAnswerFlagged(int answerId) { return answerId >= 0 && answers.get(answerId); }
+
+    /**
+     * Check any item id (Q:<id> | A:<id> | FB:...) against the snapshot.
+     * @param itemId identifier
+     * @return true if flagged
+     */
+    public boolean isFlagged(String itemId) { return isFlagged(FlagKey.parse(itemId)); }
+
+    /**
+     * Check any flag key against the snapshot.
+     * @param key flag key
+     * @return true if flagged
+     */
+    public boolean isFlagged(FlagKey key) {
+        if (key == null) return false;
+        switch (key.getType()) {
+            case QUESTION: return isQuestionFlagged(key.getTargetId());
+            case ANSWER: return isAnswerFlagged(key.getTargetId());
+            default: return feedback.contains(key);
+        }
+    }
+
+    /**
+     * Number of flagged items in the snapshot.
+     * @return flagged item count
+     */
+    public int size() { return questions.cardinality() + answers.cardinality() + feedback.size(); }
+
+    // parse "<prefix><int>" item ids, returning -1 when the id has another shape
+    static int numericId(String itemId, String prefix) {
+        if (!itemId.startsWith(prefix) || itemId.length() == prefix.length()) return -1;
+        int id = 0;
+        for (int i = prefix.length(); i < itemId.length(); i++) {
+            char c = itemId.charAt(i);
+            if (c < '0' || c > '9' || id > (Integer.MAX_VALUE - 9) / 10) return -1;
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+}
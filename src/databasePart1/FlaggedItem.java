@@ -0,0 +1,40 @@
+package databasePart1;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A flagged item ready for the moderation lists: its key, a one-line description of the
+ * flagged content and its notes. Built in bulk by {@link DiscussionBoardDAO#resolveFlaggedItems()};
+ * toString() is the description, so items can go straight into a ListView.
+ */
+public final class FlaggedItem {
+    private final FlagKey key;
+    private final String display;
+    private final List<String> notes;
+    private final boolean targetFound;
+
+    FlaggedItem(FlagKey key, String display, List<String> notes, boolean targetFound) {
+        this.key = key;
+        this.display = display;
+        this.notes = Collections.unmodifiableList(notes);
+        this.targetFound = targetFound;
+    }
+
+    public FlagKey getKey() { return key; }
+
+    /** @return the string item id (e.g. "Q:12"), as taken by the string-based DAO methods */
+    public String getItemId() { return key.toItemId(); }
+
+    /** @return description such as "Question 12: title" or "Answer 7: first 80 chars..." */
+    public String getDisplay() { return display; }
+
+    /** @return notes attached to the flag, oldest first */
+    public List<String> getNotes() { return notes; }
+
+    /** @return false if the flagged question, answer or feedback entry could not be found */
+    public boolean isTargetFound() { return targetFound; }
+
+    @Override
+    public String toString() { return display; }
+}
@@ -0,0 +1,55 @@
+package databasePart1;
+
+import java.time.LocalDateTime;
+
+/**
+ * One admin log row: id, time, optional author, action keyword and the entry text.
+ * The action is the entry's leading word ("FLAG", "TASK", "MSG", ...) and is what
+ * {@link DiscussionBoardDAO#getLogs(LocalDateTime, LocalDateTime, String, String, int, Long)} filters on.
+ */
+public final class LogEntry {
+    private final long logId;
+    private final LocalDateTime createdAt;
+    private final String author;
+    private final String action;
+    private final String entry;
+
+    public LogEntry(long logId, LocalDateTime createdAt, String author, String action, String entry) {
+        this.logId = logId;
+        this.createdAt = createdAt;
+        this.author = author;
+        this.action = action;
+        this.entry = entry;
+    }
+
+    public long getLogId() { return logId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    /** @return author username, or null for system entries */
+    public String getAuthor() { return author; }
+
+    /** @return action keyword, or null if the entry does not start with a word */
+    public String getAction() { return action; }
+
+    public String getEntry() { return entry; }
+
+    /**
+     * Action keyword of a log text: its leading letters, upper-cased and cut to 32 characters.
+     * @param entry log text
+     * @return action, or null if the text does not start with a letter
+     */
+    public static String actionOf(String entry) {
+        if (entry == null) return null;
+        String e = entry.trim();
+        int end = 0;
+        while (end < e.length() && end < 32 && Character.isLetter(e.charAt(end))) end++;
+        return end == 0 ? null : e.substring(0, end).toUpperCase();
+    }
+
+    /** @return "author: entry", or just the entry when there is no author (the getLogs() form) */
+    @Override
+    public String toString() {
+        return (author == null || author.trim().isEmpty()) ? entry : (author + ": " + entry);
+    }
+}
@@ -0,0 +1,25 @@
+package databasePart1;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of admin log entries, newest first, with the cursor for the next (older) page.
+ */
+public final class LogPage {
+    private final List<LogEntry> entries;
+    private final Long nextCursor;
+
+    LogPage(List<LogEntry> entries, Long nextCursor) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.nextCursor = nextCursor;
+    }
+
+    /** @return entries on this page, newest first */
+    public List<LogEntry> getEntries() { return entries; }
+
+    /** @return cursor to pass for the next page, or null if this is the last page */
+    public Long getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,105 @@
+package databasePart1;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Metadata of one archived block of admin log entries. Old rows are rolled out of
+ * admin_logs into admin_log_archive as gzip-compressed segments, so the live table
+ * (and its indexes) only hold the retention window; {@link DiscussionBoardDAO#getArchivedLogs}
+ * expands a segment again.
+ */
+public final class LogSegment {
+    private final int segmentId;
+    private final long firstLogId;
+    private final long lastLogId;
+    private final LocalDateTime firstAt;
+    private final LocalDateTime lastAt;
+    private final int entryCount;
+
+    LogSegment(int segmentId, long firstLogId, long lastLogId, LocalDateTime firstAt, LocalDateTime lastAt, int entryCount) {
+        this.segmentId = segmentId;
+        this.firstLogId = firstLogId;
+        this.lastLogId = lastLogId;
+        this.firstAt = firstAt;
+        this.lastAt = lastAt;
+        this.entryCount = entryCount;
+    }
+
+    public int getSegmentId() { return segmentId; }
+    public long getFirstLogId() { return firstLogId; }
+    public long getLastLogId() { return lastLogId; }
+    public LocalDateTime getFirstAt() { return firstAt; }
+    public LocalDateTime getLastAt() { return lastAt; }
+    public int getEntryCount() { return entryCount; }
+
+    @Override
+    public String toString() {
+        return "Segment " + segmentId + " (" + entryCount + " entries, " + firstAt + " .. " + lastAt + ")";
+    }
+
+    // ---- payload codec: gzip of (logId, epoch second, nano, author, action, entry) records ----
+
+    static byte[] encode(List<LogEntry> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(entries.size());
+            for (LogEntry e : entries) {
+                out.writeLong(e.getLogId());
+                LocalDateTime at = e.getCreatedAt();
+                out.writeBoolean(at != null);
+                if (at != null) {
+                    out.writeLong(at.toLocalDate().toEpochDay());
+                    out.writeLong(at.toLocalTime().toNanoOfDay());
+                }
+                writeString(out, e.getAuthor());
+                writeString(out, e.getAction());
+                writeString(out, e.getEntry());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<LogEntry> decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            int n = in.readInt();
+            List<LogEntry> out = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                long logId = in.readLong();
+                LocalDateTime at = null;
+                if (in.readBoolean()) {
+                    at = LocalDateTime.of(LocalDate.ofEpochDay(in.readLong()), LocalTime.ofNanoOfDay(in.readLong()));
+                }
+                out.add(new LogEntry(logId, at, readString(in), readString(in), readString(in)));
+            }
+            return out;
+        }
+    }
+
+    // length-prefixed UTF-8 (-1 for null); writeUTF would cap entries at 64 KB
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) { out.writeInt(-1); return; }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) return null;
+        byte[] b = new byte[len];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,68 @@
+package databasePart1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * EXPLAIN-based self-check for the DAO's list and per-parent queries: each one must be
+ * answered from an index. H2 marks a full table read as "tableScan" in the plan, so a
+ * dropped index or a rewritten predicate that stops using one shows up here (and fails
+ * the startup tests) before it shows up as a slow board on a large database.
+ */
+public final class QueryPlanCheck {
+
+    // the queries checked; parameters stay unbound since EXPLAIN only plans them
+    static final List<String> QUERIES = Arrays.asList(
+        DiscussionBoardDAO.ALL_QUESTIONS,
+        DiscussionBoardDAO.ALL_QUESTION_SUMMARIES,
+        DiscussionBoardDAO.QUESTIONS_FIRST_PAGE,
+        DiscussionBoardDAO.QUESTIONS_NEXT_PAGE,
+        DiscussionBoardDAO.QUESTIONS_WITHOUT_ANSWERS,
+        DiscussionBoardDAO.ANSWERS_FOR_QUESTION,
+        DiscussionBoardDAO.ALL_ANSWERS,
+        DiscussionBoardDAO.ALL_ANSWER_SUMMARIES,
+        DiscussionBoardDAO.FEEDBACK_FOR_QUESTION,
+        DiscussionBoardDAO.FEEDBACK_FOR_ANSWER,
+        DiscussionBoardDAO.FLAGS_FOR_ANSWER,
+        DiscussionBoardDAO.OPEN_TASKS_FOR_ASSIGNEE
+    );
+
+    private QueryPlanCheck() { }
+
+    /**
+     * Plan every checked query and report the ones that read a whole table.
+     * The schema must exist (construct a DiscussionBoardDAO first).
+     * @return "query -> plan" for each query that scans; empty when all use an index
+     */
+    public static List<String> findTableScans() throws SQLException {
+        try (Connection connection = ConnectionPool.getInstance().getConnection()) {
+            return findTableScans(connection);
+        }
+    }
+
+    static List<String> findTableScans(Connection connection) throws SQLException {
+        List<String> scans = new ArrayList<>();
+        for (String sql : QUERIES) {
+            String plan = explain(connection, sql);
+            if (plan.contains(".tableScan")) scans.add(sql + " -> " + plan);
+        }
+        return scans;
+    }
+
+    /**
+     * @param connection database connection
+     * @param sql query to plan
+     * @return H2's plan for the query on one line
+     */
+    static String explain(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement p = connection.prepareStatement("EXPLAIN " + sql);
+             ResultSet rs = p.executeQuery()) {
+            return rs.next() ? rs.getString(1).replaceAll("\\s+", " ") : "";
+        }
+    }
+}
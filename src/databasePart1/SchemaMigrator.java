@@ -0,0 +1,379 @@
+package databasePart1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Numbered schema changes, each applied once per database and recorded in schema_version.
+ * Startup runs {@link #migrate()} once per process: on a database that is already current
+ * it reads schema_version and issues no DDL at all.
+ *
+ * The version row is written only after a migration's steps succeed, and the steps are
+ * re-runnable (H2 commits DDL as it goes), so a migration that fails part-way is retried on
+ * the next start. Add new changes as a new version at the end of {@link #MIGRATIONS};
+ * never edit one that has shipped. Each migration carries its own SQL and does not call DAO
+ * code, so changing the DAO later cannot change what an old migration does.
+ */
+public final class SchemaMigrator {
+
+    // the work of one migration
+    @FunctionalInterface
+    private interface Step {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    // one numbered change
+    private static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+
+        Migration(int version, String description, String... statements) {
+            this(version, description, connection -> {
+                try (Statement st = connection.createStatement()) {
+                    for (String sql : statements) st.execute(sql);
+                }
+            });
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+        // the tables as they were before schema versioning; later changes are versions of their own.
+        // Databases from before the author columns get them here (ADD COLUMN IF NOT EXISTS is a no-op otherwise)
+        new Migration(0, "baseline schema",
+            "CREATE TABLE IF NOT EXISTS cse360users (id INT AUTO_INCREMENT PRIMARY KEY, userName VARCHAR(255) UNIQUE, password VARCHAR(255), role VARCHAR(20))",
+            "CREATE TABLE IF NOT EXISTS InvitationCodes (code VARCHAR(10) PRIMARY KEY, isUsed BOOLEAN DEFAULT FALSE)",
+            "CREATE TABLE IF NOT EXISTS questions(questionId INT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(255) NOT NULL, content TEXT NOT NULL, "
+                + "authorUserName VARCHAR(255) NOT NULL, createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updatedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                + "isAnswered BOOLEAN DEFAULT FALSE, category VARCHAR(100))",
+            "CREATE TABLE IF NOT EXISTS answers(answerId INT AUTO_INCREMENT PRIMARY KEY, questionId INT NOT NULL, content TEXT NOT NULL, "
+                + "authorUserName VARCHAR(255) NOT NULL, createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updatedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                + "isAccepted BOOLEAN DEFAULT FALSE, FOREIGN KEY (questionId) REFERENCES questions(questionId))",
+            "CREATE TABLE IF NOT EXISTS flagged_items(itemId VARCHAR(100) PRIMARY KEY)",
+            "CREATE TABLE IF NOT EXISTS flagged_notes(noteId INT AUTO_INCREMENT PRIMARY KEY, itemId VARCHAR(100), note TEXT, author VARCHAR(255))",
+            "ALTER TABLE flagged_notes ADD COLUMN IF NOT EXISTS author VARCHAR(255)",
+            "CREATE TABLE IF NOT EXISTS admin_logs(logId INT AUTO_INCREMENT PRIMARY KEY, entry TEXT, author VARCHAR(255), createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+            "ALTER TABLE admin_logs ADD COLUMN IF NOT EXISTS author VARCHAR(255)",
+            "CREATE TABLE IF NOT EXISTS private_feedback(feedbackId INT AUTO_INCREMENT PRIMARY KEY, questionId INT, author VARCHAR(255), feedback TEXT, createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+            "CREATE TABLE IF NOT EXISTS answer_feedback(feedbackId INT AUTO_INCREMENT PRIMARY KEY, answerId INT, author VARCHAR(255), feedback TEXT, createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+            "CREATE TABLE IF NOT EXISTS tasks(taskId INT AUTO_INCREMENT PRIMARY KEY, description TEXT, createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"),
+        // indexes for the filters and sort orders the DAO queries use (checked by QueryPlanCheck).
+        // DESC columns let newest-first listings read the index in order instead of sorting.
+        new Migration(1, "secondary indexes",
+            "CREATE INDEX IF NOT EXISTS IDX_QUESTIONS_CREATED ON questions(createdAt DESC, questionId DESC)",
+            "CREATE INDEX IF NOT EXISTS IDX_QUESTIONS_AUTHOR ON questions(authorUserName, createdAt DESC)",
+            "CREATE INDEX IF NOT EXISTS IDX_ANSWERS_QUESTION ON answers(questionId, isAccepted DESC, createdAt)",
+            "CREATE INDEX IF NOT EXISTS IDX_ANSWERS_CREATED ON answers(createdAt DESC)",
+            "CREATE INDEX IF NOT EXISTS IDX_PRIVATE_FEEDBACK_QUESTION ON private_feedback(questionId, createdAt)",
+            "CREATE INDEX IF NOT EXISTS IDX_ANSWER_FEEDBACK_ANSWER ON answer_feedback(answerId, createdAt)"),
+        // best effort: without it search falls back to LIKE
+        new Migration(2, "full-text search index", SchemaMigrator::createSearchIndex),
+        new Migration(3, "default staff account",
+            "MERGE INTO cse360users (userName, password, role) KEY(userName) VALUES ('Staff', 'Karson123', 'staff')"),
+        // the schema changes below were made in place before versioning, so on databases that
+        // recorded versions 0-3 then they find their work done and change nothing
+        new Migration(4, "delete cascades", SchemaMigrator::addDeleteCascades),
+        new Migration(5, "typed flags", SchemaMigrator::createFlagTables),
+        // action keyword (leading word of the entry) so logs can be filtered without scanning TEXT,
+        // and segments that hold entries past the retention window
+        new Migration(6, "admin log filters and archive",
+            "ALTER TABLE admin_logs ADD COLUMN IF NOT EXISTS action VARCHAR(32)",
+            "CREATE INDEX IF NOT EXISTS IDX_ADMIN_LOGS_CREATED ON admin_logs(createdAt)",
+            "CREATE INDEX IF NOT EXISTS IDX_ADMIN_LOGS_AUTHOR ON admin_logs(author, logId)",
+            "CREATE INDEX IF NOT EXISTS IDX_ADMIN_LOGS_ACTION ON admin_logs(action, logId)",
+            "UPDATE admin_logs SET action = LEFT(UPPER(REGEXP_SUBSTR(TRIM(entry), '^[A-Za-z]+')), 32) WHERE action IS NULL AND entry IS NOT NULL",
+            "CREATE TABLE IF NOT EXISTS admin_log_archive(segmentId INT AUTO_INCREMENT PRIMARY KEY, firstLogId INT NOT NULL, lastLogId INT NOT NULL, "
+                + "firstAt TIMESTAMP, lastAt TIMESTAMP, entryCount INT NOT NULL, payload BLOB NOT NULL)"),
+        // resolved tasks are kept (status RESOLVED) instead of deleted; open ones are read through IDX_TASKS_OPEN
+        new Migration(7, "task status and assignee",
+            "ALTER TABLE tasks ADD COLUMN IF NOT EXISTS status VARCHAR(16) DEFAULT 'OPEN' NOT NULL",
+            "ALTER TABLE tasks ADD COLUMN IF NOT EXISTS assignee VARCHAR(255)",
+            "ALTER TABLE tasks ADD COLUMN IF NOT EXISTS priority INT DEFAULT 0 NOT NULL",
+            "ALTER TABLE tasks ADD COLUMN IF NOT EXISTS resolvedAt TIMESTAMP",
+            "CREATE INDEX IF NOT EXISTS IDX_TASKS_OPEN ON tasks(status, taskId)",
+            "CREATE INDEX IF NOT EXISTS IDX_TASKS_ASSIGNEE ON tasks(assignee, status)"),
+        // cross-process change feed: one row per removal/update (see DiscussionBoardDAO.recordChange)
+        new Migration(8, "change feed",
+            "CREATE TABLE IF NOT EXISTS change_feed(seq BIGINT AUTO_INCREMENT PRIMARY KEY, origin VARCHAR(36) NOT NULL, "
+                + "entity VARCHAR(16) NOT NULL, op VARCHAR(16) NOT NULL, itemKey VARCHAR(64) NOT NULL, createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+            "CREATE INDEX IF NOT EXISTS IDX_CHANGE_FEED_CREATED ON change_feed(createdAt)"),
+        // per-question answer stats kept on the questions row (see DiscussionBoardDAO.refreshAnswerStats),
+        // so list views and unanswered filters read one table
+        new Migration(9, "answer stats on questions", SchemaMigrator::addAnswerStats)
+    );
+
+    private static volatile boolean current = false;
+
+    private SchemaMigrator() { }
+
+    /**
+     * Bring the shared database up to date, once per process.
+     * @return number of migrations applied (0 on a warm start or a later call)
+     */
+    public static int migrate() throws SQLException {
+        if (current) return 0;
+        synchronized (SchemaMigrator.class) {
+            if (current) return 0;
+            int applied;
+            try (Connection connection = ConnectionPool.getInstance().getConnection()) {
+                applied = migrate(connection);
+            }
+            current = true;
+            return applied;
+        }
+    }
+
+    /**
+     * Apply every migration this database has not recorded yet, in version order.
+     * @param connection connection to migrate
+     * @return number of migrations applied
+     */
+    public static int migrate(Connection connection) throws SQLException {
+        Set<Integer> applied = appliedVersions(connection);
+        int count = 0;
+        for (Migration m : MIGRATIONS) {
+            if (applied.contains(m.version)) continue;
+            apply(connection, m);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param connection database connection
+     * @return highest recorded migration version, or -1 if none has been applied
+     */
+    public static int currentVersion(Connection connection) throws SQLException {
+        int max = -1;
+        for (int v : appliedVersions(connection)) max = Math.max(max, v);
+        return max;
+    }
+
+    /** @return newest version this build knows about */
+    public static int latestVersion() { return MIGRATIONS.get(MIGRATIONS.size() - 1).version; }
+
+    // recorded versions; schema_version itself is created (the only DDL outside a migration) when missing
+    private static Set<Integer> appliedVersions(Connection connection) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement st = connection.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'SCHEMA_VERSION'")) {
+                if (!rs.next() || rs.getInt(1) == 0) {
+                    st.execute("CREATE TABLE IF NOT EXISTS schema_version(version INT PRIMARY KEY, description VARCHAR(255), appliedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+                    return versions;
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT version FROM schema_version")) {
+                while (rs.next()) versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    // run one migration, then record it (MERGE: another client may have applied it concurrently)
+    private static void apply(Connection connection, Migration m) throws SQLException {
+        try {
+            m.step.apply(connection);
+        } catch (SQLException ex) {
+            throw new SQLException("Schema migration " + m.version + " (" + m.description + ") failed: " + ex.getMessage(), ex);
+        }
+        try (PreparedStatement p = connection.prepareStatement("MERGE INTO schema_version(version, description) KEY(version) VALUES (?, ?)")) {
+            p.setInt(1, m.version);
+            p.setString(2, m.description);
+            p.executeUpdate();
+        }
+    }
+
+    // steps of the migrations above that need more than a list of statements
+
+    // version 2: H2 native FullText over question title/content and answer content. FT_CREATE_INDEX
+    // installs triggers, so the index stays current on insert/update/delete.
+    private static void createSearchIndex(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE ALIAS IF NOT EXISTS FT_INIT FOR 'org.h2.fulltext.FullText.init'");
+            st.execute("CALL FT_INIT()");
+            List<String> indexed = indexedTables(st);
+            if (!indexed.contains("QUESTIONS")) st.execute("CALL FT_CREATE_INDEX('PUBLIC', 'QUESTIONS', 'TITLE,CONTENT')");
+            if (!indexed.contains("ANSWERS")) st.execute("CALL FT_CREATE_INDEX('PUBLIC', 'ANSWERS', 'CONTENT')");
+        } catch (SQLException ex) {
+            // searches fall back to LIKE scans if the full-text module cannot be loaded
+        }
+    }
+
+    // version 4: schema-level ON DELETE CASCADE, so deleting a question removes its answers and feedback
+    private static void addDeleteCascades(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS WHERE CONSTRAINT_NAME = 'FK_ANSWER_FEEDBACK_ANSWER'")) {
+                if (rs.next() && rs.getInt(1) > 0) return;
+            }
+
+            // the original answers -> questions key had no delete rule; replace it
+            List<String> plainKeys = new ArrayList<>();
+            String keys = "SELECT tc.CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+                "JOIN INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc ON rc.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA AND rc.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+                "WHERE tc.TABLE_SCHEMA = 'PUBLIC' AND tc.TABLE_NAME = 'ANSWERS' AND tc.CONSTRAINT_TYPE = 'FOREIGN KEY' AND rc.DELETE_RULE <> 'CASCADE'";
+            try (ResultSet rs = st.executeQuery(keys)) {
+                while (rs.next()) plainKeys.add(rs.getString(1));
+            }
+            for (String name : plainKeys) st.execute("ALTER TABLE answers DROP CONSTRAINT \"" + name + "\"");
+
+            // rows the old per-answer deletes left behind would block the new keys
+            st.execute("DELETE FROM private_feedback WHERE questionId NOT IN (SELECT questionId FROM questions)");
+            st.execute("DELETE FROM answer_feedback WHERE answerId NOT IN (SELECT answerId FROM answers)");
+
+            st.execute("ALTER TABLE answers ADD CONSTRAINT IF NOT EXISTS FK_ANSWERS_QUESTION FOREIGN KEY (questionId) REFERENCES questions(questionId) ON DELETE CASCADE");
+            st.execute("ALTER TABLE private_feedback ADD CONSTRAINT IF NOT EXISTS FK_PRIVATE_FEEDBACK_QUESTION FOREIGN KEY (questionId) REFERENCES questions(questionId) ON DELETE CASCADE");
+            // added last: its presence marks the migration as done
+            st.execute("ALTER TABLE answer_feedback ADD CONSTRAINT IF NOT EXISTS FK_ANSWER_FEEDBACK_ANSWER FOREIGN KEY (answerId) REFERENCES answers(answerId) ON DELETE CASCADE");
+        }
+    }
+
+    // version 5: one typed row per flagged item (see FlagKey) plus its notes. questionId/answerId hold
+    // the post the flag hangs off, so flags cascade with it. Flags in the old string-keyed tables are copied over.
+    private static void createFlagTables(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS flags(flagId INT AUTO_INCREMENT PRIMARY KEY, targetType VARCHAR(20) NOT NULL, targetId INT NOT NULL, "
+                + "feedbackIndex INT NOT NULL DEFAULT -1, questionId INT, answerId INT, createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                + "CONSTRAINT UQ_FLAGS_TARGET UNIQUE (targetType, targetId, feedbackIndex), "
+                + "CONSTRAINT FK_FLAGS_QUESTION FOREIGN KEY (questionId) REFERENCES questions(questionId) ON DELETE CASCADE, "
+                + "CONSTRAINT FK_FLAGS_ANSWER FOREIGN KEY (answerId) REFERENCES answers(answerId) ON DELETE CASCADE)");
+            st.execute("CREATE TABLE IF NOT EXISTS flag_notes(noteId INT AUTO_INCREMENT PRIMARY KEY, flagId INT NOT NULL, note TEXT, author VARCHAR(255), "
+                + "createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                + "CONSTRAINT FK_FLAG_NOTES_FLAG FOREIGN KEY (flagId) REFERENCES flags(flagId) ON DELETE CASCADE)");
+            // the unique key serves lookups by target and counts by type; this one reads a flag's notes in order
+            st.execute("CREATE INDEX IF NOT EXISTS IDX_FLAG_NOTES_FLAG ON flag_notes(flagId, noteId)");
+        }
+        copyLegacyFlags(connection);
+    }
+
+    // copy flags from flagged_items/flagged_notes into flags/flag_notes, then drop the old tables.
+    // Old item ids are read with FlagKey.parse (the string id format the DAO still accepts); ids of
+    // another shape, or for posts that no longer exist, have nothing to attach to and are dropped.
+    private static void copyLegacyFlags(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'FLAGGED_ITEMS'")) {
+                if (!rs.next() || rs.getInt(1) == 0) return;
+            }
+            boolean copied;
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM flags")) { copied = rs.next() && rs.getInt(1) > 0; }
+            // a copy that committed before the old tables were dropped is not repeated
+            if (!copied) {
+                boolean autoCommit = connection.getAutoCommit();
+                try {
+                    connection.setAutoCommit(false);
+                    Map<FlagKey, Integer> byKey = new HashMap<>();
+                    Map<String, Integer> byItemId = new HashMap<>();
+                    try (ResultSet rs = st.executeQuery("SELECT itemId FROM flagged_items")) {
+                        while (rs.next()) {
+                            String itemId = rs.getString(1);
+                            FlagKey key = FlagKey.parse(itemId);
+                            if (key == null) continue;
+                            Integer flagId = byKey.get(key);
+                            if (flagId == null) {
+                                if (!postExists(connection, key)) continue;
+                                flagId = insertLegacyFlag(connection, key);
+                                byKey.put(key, flagId);
+                            }
+                            byItemId.put(itemId, flagId);
+                        }
+                    }
+                    try (PreparedStatement ip = connection.prepareStatement("INSERT INTO flag_notes(flagId, note, author) VALUES (?, ?, ?)");
+                         ResultSet rs = st.executeQuery("SELECT itemId, note, author FROM flagged_notes ORDER BY noteId ASC")) {
+                        while (rs.next()) {
+                            Integer flagId = byItemId.get(rs.getString("itemId"));
+                            if (flagId == null) continue;
+                            ip.setInt(1, flagId);
+                            ip.setString(2, rs.getString("note"));
+                            ip.setString(3, rs.getString("author"));
+                            ip.addBatch();
+                        }
+                        ip.executeBatch();
+                    }
+                    connection.commit();
+                } catch (SQLException ex) {
+                    try { connection.rollback(); } catch (SQLException e) { /* ignore rollback errors */ }
+                    throw ex;
+                } finally {
+                    try { connection.setAutoCommit(autoCommit); } catch (SQLException e) { /* ignore */ }
+                }
+            }
+            st.execute("DROP TABLE IF EXISTS flagged_notes");
+            st.execute("DROP TABLE IF EXISTS flagged_items");
+        }
+    }
+
+    private static boolean postExists(Connection connection, FlagKey key) throws SQLException {
+        String sql = key.getQuestionId() != null ? "SELECT 1 FROM questions WHERE questionId = ?" : "SELECT 1 FROM answers WHERE answerId = ?";
+        try (PreparedStatement p = connection.prepareStatement(sql)) {
+            p.setInt(1, key.getTargetId());
+            try (ResultSet rs = p.executeQuery()) { return rs.next(); }
+        }
+    }
+
+    private static int insertLegacyFlag(Connection connection, FlagKey key) throws SQLException {
+        String ins = "INSERT INTO flags(targetType, targetId, feedbackIndex, questionId, answerId) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement p = connection.prepareStatement(ins, Statement.RETURN_GENERATED_KEYS)) {
+            p.setString(1, key.getType().name());
+            p.setInt(2, key.getTargetId());
+            p.setInt(3, key.getFeedbackIndex());
+            if (key.getQuestionId() == null) p.setNull(4, Types.INTEGER); else p.setInt(4, key.getQuestionId());
+            if (key.getAnswerId() == null) p.setNull(5, Types.INTEGER); else p.setInt(5, key.getAnswerId());
+            p.executeUpdate();
+            try (ResultSet keys = p.getGeneratedKeys()) {
+                if (!keys.next()) throw new SQLException("No flagId generated for " + key);
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    // version 9: answerCount/acceptedAnswerId/lastActivityAt columns, backfilled when they are added
+    private static void addAnswerStats(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            boolean backfill;
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'QUESTIONS' AND COLUMN_NAME = 'ANSWERCOUNT'")) {
+                backfill = rs.next() && rs.getInt(1) == 0;
+            }
+            st.execute("ALTER TABLE questions ADD COLUMN IF NOT EXISTS answerCount INT DEFAULT 0 NOT NULL");
+            st.execute("ALTER TABLE questions ADD COLUMN IF NOT EXISTS acceptedAnswerId INT");
+            st.execute("ALTER TABLE questions ADD COLUMN IF NOT EXISTS lastActivityAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
+            st.execute("CREATE INDEX IF NOT EXISTS IDX_QUESTIONS_ANSWER_COUNT ON questions(answerCount, lastActivityAt)");
+            st.execute("CREATE INDEX IF NOT EXISTS IDX_QUESTIONS_ACTIVITY ON questions(lastActivityAt)");
+            if (backfill) {
+                st.executeUpdate("UPDATE questions q SET "
+                    + "answerCount = (SELECT COUNT(*) FROM answers a WHERE a.questionId = q.questionId), "
+                    + "acceptedAnswerId = (SELECT MIN(a.answerId) FROM answers a WHERE a.questionId = q.questionId AND a.isAccepted), "
+                    + "lastActivityAt = GREATEST(q.updatedAt, COALESCE((SELECT MAX(a.updatedAt) FROM answers a WHERE a.questionId = q.questionId), q.updatedAt))");
+                // adding columns rebuilds the table, which leaves its full-text index unusable until reindexed
+                try {
+                    if (!indexedTables(st).isEmpty()) st.execute("CALL FT_REINDEX()");
+                } catch (SQLException ex) {
+                    // no full-text module; search already falls back to LIKE
+                }
+            }
+        }
+    }
+
+    private static List<String> indexedTables(Statement statement) throws SQLException {
+        List<String> indexed = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery("SELECT \"TABLE\" FROM FT.INDEXES WHERE \"SCHEMA\" = 'PUBLIC'")) {
+            while (rs.next()) indexed.add(rs.getString(1));
+        }
+        return indexed;
+    }
+}
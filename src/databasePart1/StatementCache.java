@@ -0,0 +1,153 @@
+package databasePart1;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prepared statements of one physical pooled connection, kept open and keyed by SQL so
+ * repeated DAO calls skip parsing and planning. prepareStatement on a pooled handle returns
+ * a wrapper whose close() resets the statement and hands it back to this cache instead of
+ * closing it. Least recently used statements beyond {@link #MAX_STATEMENTS} are closed.
+ *
+ * A connection is used by one thread at a time (see ConnectionPool), so the cache is not
+ * synchronized. A statement that is still checked out (the same SQL prepared again inside
+ * a nested call) is not shared: the second caller gets an ordinary uncached statement.
+ */
+final class StatementCache {
+
+	/** Statements kept open per connection. */
+	static final int MAX_STATEMENTS = 64;
+
+	// one cached statement; checkout changes every time it is handed out or given back
+	private static final class Entry {
+		final PreparedStatement statement;
+		boolean inUse;
+		long checkout;
+
+		Entry(PreparedStatement statement) { this.statement = statement; }
+	}
+
+	private final Connection physical;
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final LongAdder hits;
+	private final LongAdder misses;
+
+	StatementCache(Connection physical, LongAdder hits, LongAdder misses) {
+		this.physical = physical;
+		this.hits = hits;
+		this.misses = misses;
+	}
+
+	/**
+	 * Prepare (or reuse) a statement.
+	 * @param sql statement text
+	 * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or NO_GENERATED_KEYS
+	 * @return a statement to close as usual when done
+	 */
+	PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+		String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : "N:" + sql;
+		Entry e = entries.get(key);
+		if (e != null && e.inUse) {
+			misses.increment();
+			return physical.prepareStatement(sql, autoGeneratedKeys);
+		}
+		if (e == null) {
+			misses.increment();
+			e = new Entry(physical.prepareStatement(sql, autoGeneratedKeys));
+			entries.put(key, e);
+			evict();
+		} else {
+			hits.increment();
+		}
+		e.inUse = true;
+		e.checkout++;
+		return wrap(e);
+	}
+
+	/** Take back statements the last borrower did not close; wrappers still held by it stop working. */
+	void reclaim() {
+		for (Entry e : entries.values()) {
+			if (e.inUse) checkIn(e);
+		}
+	}
+
+	/** Close every cached statement. */
+	void close() {
+		for (Entry e : entries.values()) {
+			try { e.statement.close(); } catch (SQLException ex) { /* ignore */ }
+		}
+		entries.clear();
+	}
+
+	int size() { return entries.size(); }
+
+	// close the least recently used idle statements beyond the limit
+	private void evict() {
+		Iterator<Entry> it = entries.values().iterator();
+		while (entries.size() > MAX_STATEMENTS && it.hasNext()) {
+			Entry e = it.next();
+			if (e.inUse) continue;
+			it.remove();
+			try { e.statement.close(); } catch (SQLException ex) { /* ignore */ }
+		}
+	}
+
+	// reset a statement for its next user: parameters, batch and any result set it still holds
+	private void checkIn(Entry e) {
+		e.inUse = false;
+		e.checkout++;
+		try {
+			ResultSet rs = e.statement.getResultSet();
+			if (rs != null) rs.close();
+			e.statement.clearParameters();
+			e.statement.clearBatch();
+		} catch (SQLException ex) {
+			// a statement that cannot be reset is not reused
+			entries.values().remove(e);
+			try { e.statement.close(); } catch (SQLException ignored) { /* already broken */ }
+		}
+	}
+
+	private PreparedStatement wrap(Entry e) {
+		long checkout = e.checkout;
+		InvocationHandler handler = new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				boolean open = e.inUse && e.checkout == checkout;
+				switch (method.getName()) {
+					case "close":
+						if (open) checkIn(e);
+						return null;
+					case "isClosed":
+						return !open;
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "toString":
+						return "CachedStatement[" + e.statement + "]";
+					default:
+						if (!open) throw new SQLException("Statement has been closed");
+						try {
+							return method.invoke(e.statement, args);
+						} catch (InvocationTargetException ex) {
+							throw ex.getCause();
+						}
+				}
+			}
+		};
+		return (PreparedStatement) Proxy.newProxyInstance(
+				PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, handler);
+	}
+}
@@ -0,0 +1,52 @@
+package databasePart1;
+
+import application.Task;
+
+/**
+ * A change to one task on the board, published through {@link TaskEventBus}.
+ */
+public final class TaskEvent {
+
+    public enum Kind { ADDED, UPDATED, RESOLVED }
+
+    private final Kind kind;
+    private final int taskId;
+    private final Task task;
+
+    private TaskEvent(Kind kind, int taskId, Task task) {
+        this.kind = kind;
+        this.taskId = taskId;
+        this.task = task;
+    }
+
+    public static TaskEvent added(Task task) { return new TaskEvent(Kind.ADDED, task.getTaskId(), task); }
+
+    public static TaskEvent updated(Task task) { return new TaskEvent(Kind.UPDATED, task.getTaskId(), task); }
+
+    public static TaskEvent resolved(int taskId) { return new TaskEvent(Kind.RESOLVED, taskId, null); }
+
+    public Kind getKind() { return kind; }
+
+    public int getTaskId() { return taskId; }
+
+    /** @return the task as it is now, or null for RESOLVED */
+    public Task getTask() { return task; }
+
+    /**
+     * Combine two events for the same task that are delivered together.
+     * @param earlier the pending event
+     * @param later the newer event
+     * @return the net event, or null if they cancel out (added, then resolved)
+     */
+    static TaskEvent merge(TaskEvent earlier, TaskEvent later) {
+        if (earlier == null) return later;
+        if (earlier.kind == Kind.ADDED) {
+            if (later.kind == Kind.RESOLVED) return null;
+            if (later.kind == Kind.UPDATED) return added(later.task);
+        }
+        return later;
+    }
+
+    @Override
+    public String toString() { return kind + " " + taskId; }
+}
@@ -0,0 +1,137 @@
+package databasePart1;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Publishes task board changes as delta events (added / updated / resolved task id)
+ * instead of handing every listener a copy of the whole board.
+ *
+ * Delivery is asynchronous and coalesced per subscriber: events published while a
+ * delivery is still pending on the subscriber's executor are merged into that delivery
+ * (per task id, so "added then resolved" disappears). With Platform::runLater as the
+ * executor a burst such as bulk flagging reaches the UI as one update per frame.
+ *
+ * Weakly registered listeners are only referenced weakly, so a dashboard that is closed
+ * without unsubscribing can still be garbage collected; its subscription is dropped on
+ * the next publish.
+ */
+public final class TaskEventBus {
+
+    /** Receives a batch of task events, in publish order. */
+    @FunctionalInterface
+    public interface Listener {
+        void onTaskEvents(List<TaskEvent> events);
+    }
+
+    // shared delivery thread for subscribers that do not name an executor
+    private static volatile ExecutorService background;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Subscribe, keeping a strong reference to the listener until unsubscribe.
+     * @param listener the listener
+     * @param executor where batches are delivered (e.g. Platform::runLater), or null for a background thread
+     */
+    public void subscribe(Listener listener, Executor executor) { add(listener, executor, false); }
+
+    /**
+     * Subscribe through a weak reference; the caller must keep the listener reachable for as long as it wants events.
+     * @param listener the listener
+     * @param executor where batches are delivered (e.g. Platform::runLater), or null for a background thread
+     */
+    public void subscribeWeak(Listener listener, Executor executor) { add(listener, executor, true); }
+
+    /** Remove a listener registered with either subscribe method. */
+    public void unsubscribe(Listener listener) {
+        subscriptions.removeIf(s -> { Listener l = s.listener(); return l == null || l == listener; });
+    }
+
+    /** @return number of live subscriptions */
+    public int getSubscriberCount() {
+        subscriptions.removeIf(s -> s.listener() == null);
+        return subscriptions.size();
+    }
+
+    void publish(TaskEvent event) {
+        for (Subscription s : subscriptions) {
+            if (s.listener() == null) subscriptions.remove(s);
+            else s.offer(event);
+        }
+    }
+
+    private void add(Listener listener, Executor executor, boolean weak) {
+        if (listener == null) return;
+        subscriptions.add(new Subscription(listener, executor != null ? executor : background(), weak));
+    }
+
+    private static Executor background() {
+        ExecutorService e = background;
+        if (e == null) {
+            synchronized (TaskEventBus.class) {
+                e = background;
+                if (e == null) {
+                    e = Executors.newSingleThreadExecutor(r -> {
+                        Thread t = new Thread(r, "task-events");
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    background = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    // one subscriber: pending events keyed by task id, and whether a delivery is already queued
+    private static final class Subscription {
+        private final Listener strong;
+        private final WeakReference<Listener> weak;
+        private final Executor executor;
+        private final LinkedHashMap<Integer, TaskEvent> pending = new LinkedHashMap<>(); // guarded by this
+        private boolean scheduled; // guarded by this
+
+        Subscription(Listener listener, Executor executor, boolean weakly) {
+            this.strong = weakly ? null : listener;
+            this.weak = weakly ? new WeakReference<>(listener) : null;
+            this.executor = executor;
+        }
+
+        Listener listener() { return strong != null ? strong : weak.get(); }
+
+        void offer(TaskEvent event) {
+            synchronized (this) {
+                TaskEvent merged = TaskEvent.merge(pending.remove(event.getTaskId()), event);
+                if (merged != null) pending.put(event.getTaskId(), merged);
+                if (scheduled || pending.isEmpty()) return;
+                scheduled = true;
+            }
+            try {
+                executor.execute(this::deliver);
+            } catch (RejectedExecutionException ex) {
+                synchronized (this) { scheduled = false; }
+            }
+        }
+
+        private void deliver() {
+            List<TaskEvent> batch;
+            synchronized (this) {
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                scheduled = false;
+            }
+            Listener l = listener();
+            if (l == null || batch.isEmpty()) return;
+            try { l.onTaskEvents(Collections.unmodifiableList(batch)); } catch (Exception ex) { /* ignore listener errors */ }
+        }
+    }
+}
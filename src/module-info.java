@@ -1,6 +1,7 @@
 module FoundationCode {
 	requires javafx.controls;
 	requires java.sql;
+	requires java.management;
 	requires junit;
 
 	opens application to javafx.graphics, javafx.fxml;
@@ -2,8 +2,25 @@ package test;
 
 import application.Staff;
 import application.Question;
+import application.Questions;
 import application.Answer;
+import application.StartupTimeline;
+import application.Task;
+import databasePart1.AsyncDiscussionBoardDAO;
+import databasePart1.AuditLogWriter;
+import databasePart1.BoardDataTransfer;
+import databasePart1.BoardStats;
+import databasePart1.ConnectionPool;
 import databasePart1.DiscussionBoardDAO;
+import databasePart1.FlagKey;
+import databasePart1.FlagSnapshot;
+import databasePart1.FlaggedItem;
+import databasePart1.LogEntry;
+import databasePart1.LogPage;
+import databasePart1.QueryPlanCheck;
+import databasePart1.SchemaMigrator;
+import databasePart1.TaskEvent;
+import databasePart1.TaskEventBus;
 
 import org.junit.After;
 import org.junit.Before;
@@ -11,14 +28,26 @@ import org.junit.Test;
 import static org.junit.Assert.*;
 
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JUnit4 tests for Staff / DiscussionBoardDAO features.
  */
 public class StaffTest {
 
+	// run against a private in-memory database, never the board's ~/FoundationDatabase
+	// (set before anything touches ConnectionPool, which reads the URL once)
+	static {
+		if (System.getProperty(ConnectionPool.DB_URL_PROPERTY) == null) {
+			System.setProperty(ConnectionPool.DB_URL_PROPERTY, "jdbc:h2:mem:cse360test;DB_CLOSE_DELAY=-1");
+		}
+	}
+
 	private DiscussionBoardDAO dao;
 	private Staff staff;
 	private Question question;
@@ -112,4 +141,633 @@ public class StaffTest {
 		assertTrue("Logs should contain a message entry", dao.getLogs().stream().anyMatch(log -> log.contains("MSG")));
 		assertTrue("There should be at least 1 log entry", dao.getLogs().size() >= 1);
 	}
+
+	/**
+	 * Tests that DAO instances share the pooled connections and hand them back
+	 * after each call.
+	 */
+	@Test
+	public void testConnectionPoolReuse() throws SQLException {
+		DiscussionBoardDAO second = new DiscussionBoardDAO();
+		assertNotNull(second.getQuestionById(question.getQuestionId()));
+		assertNotNull(dao.getQuestionById(question.getQuestionId()));
+		ConnectionPool.Stats stats = dao.getPoolStats();
+		assertEquals("No connection should stay borrowed between calls", 0, stats.getActive());
+		assertTrue("Pool should stay within its bound", stats.getOpen() <= stats.getMax());
+		second.closeConnection();
+	}
+
+	/**
+	 * Tests that keyword search finds the question by a word in its title
+	 * and the answer by a word in its content.
+	 */
+	@Test
+	public void testKeywordSearch() throws SQLException {
+		assertTrue("Search should find the question by title word",
+				dao.searchQuestions("Sample", 50, 0).getQuestionById(question.getQuestionId()) != null);
+		assertTrue("Search should find the answer by content word",
+				dao.searchAnswers("Answer", 50, 0).getAnswerById(answer.getAnswerId()) != null);
+		assertTrue("Blank query should return nothing", dao.searchQuestions("  ", 50, 0).isEmpty());
+	}
+
+	/**
+	 * Tests that keyset paging walks the question list without repeating rows
+	 * and returns list columns only.
+	 */
+	@Test
+	public void testQuestionsPage() throws SQLException {
+		Question second = new Question("Second Title", "Second Content", "student1");
+		dao.createQuestion(second);
+		try {
+			List<Question> first = dao.getQuestionsPage(null, 0, 1).getAllQuestions();
+			assertEquals(1, first.size());
+			Question last = first.get(0);
+			assertNull("Page rows should not carry content", last.getContent());
+			List<Question> next = dao.getQuestionsPage(last.getCreatedAt(), last.getQuestionId(), 1).getAllQuestions();
+			assertEquals(1, next.size());
+			assertNotEquals("Pages should not overlap", last.getQuestionId(), next.get(0).getQuestionId());
+		} finally {
+			dao.deleteQuestion(second.getQuestionId());
+		}
+	}
+
+	/**
+	 * Tests the bulk flag-status lookup and that flag snapshots track changes.
+	 */
+	@Test
+	public void testBatchedFlagStatus() {
+		String qKey = "Q:" + question.getQuestionId();
+		String aKey = "A:" + answer.getAnswerId();
+		dao.flagQuestion(question.getQuestionId(), "Needs review", staff.getUserName());
+		Map<String, Boolean> status = dao.getFlagStatus(java.util.Arrays.asList(qKey, aKey));
+		assertTrue("Question should be reported flagged", status.get(qKey));
+		assertFalse("Answer should be reported unflagged", status.get(aKey));
+		FlagSnapshot snapshot = dao.getFlagSnapshot();
+		assertTrue(snapshot.isQuestionFlagged(question.getQuestionId()));
+		dao.unflagItem(qKey);
+		assertNotEquals("Unflagging should invalidate the snapshot", snapshot.getVersion(), dao.getFlagVersion());
+		assertFalse(dao.getFlagSnapshot().isQuestionFlagged(question.getQuestionId()));
+	}
+
+	/**
+	 * Tests that tasks and flags can be changed from several threads at once
+	 * without losing updates.
+	 */
+	@Test
+	public void testConcurrentTasksAndFlags() throws InterruptedException {
+		int before = dao.getTasks().size();
+		Thread[] workers = new Thread[4];
+		for (int t = 0; t < workers.length; t++) {
+			final int n = t;
+			workers[t] = new Thread(() -> {
+				for (int i = 0; i < 5; i++) {
+					dao.addTask("Concurrent task " + n + "-" + i);
+					dao.addFlagNote("Q:" + question.getQuestionId(), "note " + n + "-" + i);
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread w : workers) w.join();
+		List<String> tasks = dao.getTasks();
+		assertEquals(before + 20, tasks.size());
+		assertEquals(20, dao.getFlaggedItems().get("Q:" + question.getQuestionId()).size());
+		for (int i = tasks.size() - 1; i >= before; i--) assertTrue(dao.resolveTask(i));
+		dao.unflagItem("Q:" + question.getQuestionId());
+	}
+
+	/**
+	 * Tests that the async DAO delivers results, drops superseded requests
+	 * and records per-operation latency.
+	 */
+	@Test
+	public void testAsyncDaoSupersedesStaleRequests() throws Exception {
+		AsyncDiscussionBoardDAO async = new AsyncDiscussionBoardDAO(dao, Runnable::run);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Integer> stale = async.submitLatest("search", "slowSearch", d -> {
+			try { release.await(5, TimeUnit.SECONDS); } catch (InterruptedException e) { /* ignore */ }
+			return 1;
+		});
+		CompletableFuture<Question> fresh = async.submitLatest("search", "getQuestionById", d -> d.getQuestionById(question.getQuestionId()));
+		release.countDown();
+		assertTrue("Superseded request should be cancelled", stale.isCancelled());
+		assertEquals(question.getQuestionId(), fresh.get(5, TimeUnit.SECONDS).getQuestionId());
+		assertTrue(async.getLatencyStats().get("getQuestionById").getCalls() >= 1);
+	}
+
+	/**
+	 * Tests that deleting a question also removes its answers, feedback and
+	 * the flags on both.
+	 */
+	@Test
+	public void testDeleteQuestionCascades() throws SQLException {
+		dao.flagAnswer(answer.getAnswerId(), "Off topic", staff.getUserName());
+		dao.addPrivateFeedbackForAnswer(answer.getAnswerId(), "Please cite sources", staff.getUserName());
+		dao.flagAnswerFeedback(answer.getAnswerId(), 0, "Too harsh", staff.getUserName());
+		dao.flagQuestion(question.getQuestionId(), "Duplicate", staff.getUserName());
+		assertTrue(dao.deleteQuestion(question.getQuestionId()));
+		assertNull(dao.getAnswerById(answer.getAnswerId()));
+		assertTrue(dao.getPrivateFeedbackForAnswer(answer.getAnswerId()).isEmpty());
+		assertFalse(dao.isItemFlagged("Q:" + question.getQuestionId()));
+		assertFalse(dao.isItemFlagged("A:" + answer.getAnswerId()));
+		assertFalse(dao.isItemFlagged("FB:A:" + answer.getAnswerId() + ":0"));
+		question = null;
+		answer = null;
+	}
+
+	/**
+	 * Tests typed flag keys: string ids round-trip, typed and string APIs agree,
+	 * and counts are grouped by type.
+	 */
+	@Test
+	public void testTypedFlagKeys() {
+		FlagKey fb = FlagKey.parse("FB:A:" + answer.getAnswerId() + ":2");
+		assertEquals(FlagKey.answerFeedback(answer.getAnswerId(), 2), fb);
+		assertEquals("FB:A:" + answer.getAnswerId() + ":2", fb.toItemId());
+		assertNull("Malformed ids should not parse", FlagKey.parse("FB:x:1"));
+		dao.flag(FlagKey.question(question.getQuestionId()), "Typed flag", staff.getUserName());
+		assertTrue(dao.isItemFlagged("Q:" + question.getQuestionId()));
+		assertTrue(dao.countFlagsByType().getOrDefault(FlagKey.Type.QUESTION, 0) >= 1);
+		assertTrue(dao.unflag(FlagKey.question(question.getQuestionId()), staff.getUserName()));
+		assertFalse(dao.isFlagged(FlagKey.question(question.getQuestionId())));
+	}
+
+	/**
+	 * Tests that rows written by another session are picked up incrementally,
+	 * and that rows this process wrote are not applied twice.
+	 */
+	@Test
+	public void testIncrementalCatchUp() throws SQLException {
+		String own = "OWN " + System.nanoTime();
+		String other = "OTHER " + System.nanoTime();
+		dao.addLog(own, staff.getUserName());
+		// simulate another session writing straight to the database
+		try (java.sql.Connection c = ConnectionPool.getInstance().getConnection();
+				java.sql.PreparedStatement p = c.prepareStatement("INSERT INTO admin_logs(entry, author) VALUES (?, NULL)")) {
+			p.setString(1, other);
+			p.executeUpdate();
+		}
+		new DiscussionBoardDAO();
+		List<String> logs = dao.getLogs();
+		assertEquals(1, logs.stream().filter(l -> l.endsWith(own)).count());
+		assertEquals(1, logs.stream().filter(other::equals).count());
+	}
+
+	/**
+	 * Tests paged log queries with author/action filters and archiving of
+	 * old entries into segments.
+	 */
+	@Test
+	public void testPagedLogsAndArchive() throws SQLException {
+		String author = "pager" + System.nanoTime();
+		for (int i = 0; i < 5; i++) dao.addLog("TASK paged " + i, author);
+		dao.addLog("MSG paged", author);
+		LogPage first = dao.getLogs(null, null, author, "task", 3, null);
+		assertEquals(3, first.getEntries().size());
+		assertTrue(first.hasMore());
+		assertEquals("TASK paged 4", first.getEntries().get(0).getEntry());
+		LogPage second = dao.getLogs(null, null, author, "TASK", 3, first.getNextCursor());
+		assertEquals(2, second.getEntries().size());
+		assertFalse(second.hasMore());
+		assertEquals(6, dao.getLogs(null, null, author, 10, null).getEntries().size());
+
+		// back-date only this test's entries and archive up to just after them
+		LocalDateTime backdated = LocalDateTime.of(2000, 1, 1, 0, 0);
+		try (java.sql.Connection c = ConnectionPool.getInstance().getConnection();
+				java.sql.PreparedStatement p = c.prepareStatement("UPDATE admin_logs SET createdAt = ? WHERE author = ?")) {
+			p.setTimestamp(1, java.sql.Timestamp.valueOf(backdated));
+			p.setString(2, author);
+			assertEquals(6, p.executeUpdate());
+		}
+		int archived = dao.archiveLogsBefore(backdated.plusSeconds(1));
+		assertEquals(6, archived);
+		assertTrue(dao.getLogs(null, null, author, 10, null).getEntries().isEmpty());
+		List<LogEntry> restored = dao.getArchivedLogs(dao.getLogSegments().get(0).getSegmentId());
+		assertEquals("MSG paged", restored.get(restored.size() - 1).getEntry());
+		assertEquals(author, restored.get(restored.size() - 1).getAuthor());
+	}
+
+	/**
+	 * Tests that queued log entries are written in batches and visible to
+	 * readers, which flush the writer first.
+	 */
+	@Test
+	public void testBatchedLogWriter() throws SQLException {
+		String author = "batch" + System.nanoTime();
+		long writtenBefore = dao.getLogWriterStats().getWritten();
+		for (int i = 0; i < 50; i++) dao.addLog("NOTE batched " + i, author);
+		assertEquals(50, dao.getLogs(null, null, author, 100, null).getEntries().size());
+		assertEquals(50, dao.getLogs().stream().filter(l -> l.startsWith(author + ": NOTE batched")).count());
+		AuditLogWriter.Stats stats = dao.getLogWriterStats();
+		assertTrue(stats.getWritten() - writtenBefore >= 50);
+		assertEquals(0, stats.getQueueDepth());
+		assertEquals(0, stats.getWrittenDirectly());
+	}
+
+	/**
+	 * Tests id-keyed tasks: duplicate descriptions resolve independently and
+	 * assignment is stored.
+	 */
+	@Test
+	public void testTasksById() throws SQLException {
+		String desc = "Duplicate task " + System.nanoTime();
+		Task first = dao.createTask(desc, null, 0);
+		Task second = dao.createTask(desc, null, 2);
+		assertNotEquals(first.getTaskId(), second.getTaskId());
+		assertTrue(dao.updateTask(second.getTaskId(), staff.getUserName(), 3));
+		assertTrue(dao.getOpenTasks(staff.getUserName()).stream().anyMatch(t -> t.getTaskId() == second.getTaskId() && t.getPriority() == 3));
+		assertTrue(dao.resolveTaskById(second.getTaskId()));
+		assertFalse("Already resolved", dao.resolveTaskById(second.getTaskId()));
+		assertTrue(dao.getOpenTasks().stream().anyMatch(t -> t.getTaskId() == first.getTaskId()));
+		assertTrue(dao.resolveTaskById(first.getTaskId()));
+		assertFalse(dao.getTasks().contains(desc));
+	}
+
+	/**
+	 * Tests that task events are delivered as coalesced deltas: a burst
+	 * arrives as one batch, and a task added then resolved within it cancels out.
+	 */
+	@Test
+	public void testTaskEventsCoalesce() {
+		List<Runnable> frame = new java.util.ArrayList<>();
+		List<List<TaskEvent>> batches = new java.util.ArrayList<>();
+		TaskEventBus.Listener listener = batches::add;
+		dao.getTaskEventBus().subscribe(listener, frame::add);
+		try {
+			Task kept = dao.createTask("Burst kept " + System.nanoTime(), null, 0);
+			for (int i = 0; i < 5; i++) {
+				Task t = dao.createTask("Burst " + i, null, 0);
+				assertTrue(dao.resolveTaskById(t.getTaskId()));
+			}
+			assertTrue(dao.updateTask(kept.getTaskId(), staff.getUserName(), 1));
+			assertEquals("One delivery is scheduled per burst", 1, frame.size());
+			frame.get(0).run();
+			assertEquals(1, batches.size());
+			assertEquals(1, batches.get(0).size());
+			TaskEvent ev = batches.get(0).get(0);
+			assertEquals(TaskEvent.Kind.ADDED, ev.getKind());
+			assertEquals(staff.getUserName(), ev.getTask().getAssignee());
+			dao.resolveTaskById(kept.getTaskId());
+		} finally {
+			dao.getTaskEventBus().unsubscribe(listener);
+		}
+	}
+
+	/**
+	 * Tests that removals recorded in the change feed by another client are
+	 * applied here, while this client's own entries are skipped.
+	 */
+	@Test
+	public void testChangeFeedAppliesRemoteChanges() throws SQLException {
+		FlagKey key = FlagKey.question(question.getQuestionId());
+		dao.flag(key, "Remote test", staff.getUserName());
+		Task task = dao.createTask("Remote task " + System.nanoTime(), null, 0);
+		dao.pollChanges();
+		assertTrue("Own changes are not echoed back", dao.isFlagged(key));
+		FlagSnapshot[] seen = new FlagSnapshot[1];
+		java.util.function.Consumer<FlagSnapshot> listener = snapshot -> seen[0] = snapshot;
+		dao.registerFlagListener(listener);
+		try {
+			// simulate another client unflagging and resolving through the shared database
+			try (java.sql.Connection c = ConnectionPool.getInstance().getConnection();
+					java.sql.Statement st = c.createStatement()) {
+				st.executeUpdate("DELETE FROM flags WHERE targetType = 'QUESTION' AND targetId = " + question.getQuestionId());
+				st.executeUpdate("UPDATE tasks SET status = 'RESOLVED' WHERE taskId = " + task.getTaskId());
+				st.executeUpdate("INSERT INTO change_feed(origin, entity, op, itemKey) VALUES ('other', 'FLAG', 'REMOVE', '" + key.toItemId() + "')");
+				st.executeUpdate("INSERT INTO change_feed(origin, entity, op, itemKey) VALUES ('other', 'TASK', 'RESOLVE', '" + task.getTaskId() + "')");
+			}
+			dao.pollChanges();
+		} finally {
+			dao.unregisterFlagListener(listener);
+		}
+		assertFalse(dao.isFlagged(key));
+		assertNotNull("Flag listeners hear about remote changes", seen[0]);
+		assertFalse(seen[0].isFlagged(key));
+		assertTrue(dao.getOpenTasks().stream().noneMatch(t -> t.getTaskId() == task.getTaskId()));
+	}
+
+	/**
+	 * Tests that board stats count questions, answers, flags and open tasks.
+	 */
+	@Test
+	public void testBoardStats() throws SQLException {
+		BoardStats before = dao.getBoardStats();
+		assertTrue(before.getTotalQuestions() >= 1);
+		assertTrue(before.getTotalAnswers() >= 1);
+		// a question with no answers counts as without answers whatever its isAnswered flag says
+		Question open = new Question("Stats unanswered", "No answers yet", "student1");
+		open.setQuestionId(dao.createQuestion(open));
+		open.setIsAnswered(true);
+		dao.updateQuestion(open);
+		assertEquals(before.getQuestionsWithoutAnswers() + 1, dao.getBoardStats().getQuestionsWithoutAnswers());
+		dao.deleteQuestion(open.getQuestionId());
+		dao.flagAnswer(answer.getAnswerId(), "Stats check", staff.getUserName());
+		BoardStats after = dao.getBoardStats();
+		assertEquals(before.getFlaggedByType().get(FlagKey.Type.ANSWER) + 1, (int) after.getFlaggedByType().get(FlagKey.Type.ANSWER));
+		assertEquals("Flagging adds a review task", before.getOpenTasks() + 1, after.getOpenTasks());
+		dao.unflagItem("A:" + answer.getAnswerId());
+	}
+
+	/**
+	 * Tests that answer writes keep the question's answer count and accepted answer current.
+	 */
+	@Test
+	public void testAnswerStatsOnQuestion() throws SQLException {
+		Question q = dao.getQuestionById(question.getQuestionId());
+		assertEquals(1, q.getAnswerCount());
+		assertNull(q.getAcceptedAnswerId());
+		Answer second = new Answer(question.getQuestionId(), "Second answer", "student3");
+		dao.createAnswer(second);
+		second.setIsAccepted(true);
+		dao.updateAnswer(second);
+		q = dao.getQuestionById(question.getQuestionId());
+		assertEquals(2, q.getAnswerCount());
+		assertEquals(Integer.valueOf(second.getAnswerId()), q.getAcceptedAnswerId());
+		assertFalse(q.getLastActivityAt().isBefore(q.getUpdatedAt()));
+		assertTrue(dao.getQuestionsWithoutAnswers(100).asList().stream().noneMatch(x -> x.getQuestionId() == question.getQuestionId()));
+		dao.deleteAnswer(second.getAnswerId());
+		q = dao.getQuestionById(question.getQuestionId());
+		assertEquals(1, q.getAnswerCount());
+		assertNull(q.getAcceptedAnswerId());
+	}
+
+	/**
+	 * Tests that the DAO's list and per-parent queries are planned against an index.
+	 */
+	@Test
+	public void testQueriesUseIndexes() throws SQLException {
+		List<String> scans = QueryPlanCheck.findTableScans();
+		assertTrue("Table scans: " + scans, scans.isEmpty());
+	}
+
+	/**
+	 * Tests that a migrated database is current, so later starts apply nothing.
+	 */
+	@Test
+	public void testSchemaMigrationsAppliedOnce() throws SQLException {
+		try (java.sql.Connection c = ConnectionPool.getInstance().getConnection()) {
+			assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.currentVersion(c));
+			assertEquals("Warm start runs no migrations", 0, SchemaMigrator.migrate(c));
+		}
+	}
+
+	/**
+	 * Tests that the startup timeline keeps the first mark of each phase and exports them in order.
+	 */
+	@Test
+	public void testStartupTimeline() throws Exception {
+		StartupTimeline timeline = new StartupTimeline();
+		assertTrue(timeline.mark(StartupTimeline.FX_START));
+		assertFalse("A phase is recorded once", timeline.mark(StartupTimeline.FX_START));
+		timeline.mark(StartupTimeline.DB_READY);
+		assertEquals(java.util.Arrays.asList(StartupTimeline.JVM_START, StartupTimeline.FX_START, StartupTimeline.DB_READY), timeline.getPhases());
+		assertTrue(timeline.millisAt(StartupTimeline.DB_READY) >= timeline.millisAt(StartupTimeline.FX_START));
+		java.nio.file.Path file = java.nio.file.Files.createTempFile("timeline", ".csv");
+		java.nio.file.Files.delete(file);
+		timeline.exportTo(file, "r1");
+		timeline.exportTo(file, "r2");
+		List<String> lines = java.nio.file.Files.readAllLines(file);
+		java.nio.file.Files.delete(file);
+		assertEquals("Header plus three phases per run", 7, lines.size());
+		assertTrue(lines.get(2).startsWith("r1,fx start,"));
+	}
+
+	/**
+	 * Tests that flagged items are resolved to descriptions of their targets in bulk.
+	 */
+	@Test
+	public void testResolveFlaggedItems() throws SQLException {
+		dao.flagQuestion(question.getQuestionId(), "Check title", staff.getUserName());
+		dao.flagAnswer(answer.getAnswerId(), "Check answer", staff.getUserName());
+		List<FlaggedItem> items = dao.resolveFlaggedItems();
+		assertEquals(dao.getFlags().size(), items.size());
+		FlaggedItem q = items.stream().filter(i -> i.getKey().equals(FlagKey.question(question.getQuestionId()))).findFirst().orElse(null);
+		assertNotNull(q);
+		assertTrue(q.isTargetFound());
+		assertEquals("Question " + question.getQuestionId() + ": " + question.getTitle(), q.getDisplay());
+		assertTrue(q.getNotes().stream().anyMatch(n -> n.contains("Check title")));
+		FlaggedItem a = items.stream().filter(i -> i.getKey().equals(FlagKey.answer(answer.getAnswerId()))).findFirst().orElse(null);
+		assertNotNull(a);
+		assertEquals("Answer " + answer.getAnswerId() + ": " + answer.getContent(), a.getDisplay());
+		dao.unflagItem("Q:" + question.getQuestionId());
+		dao.unflagItem("A:" + answer.getAnswerId());
+	}
+
+	/**
+	 * Tests that repeated DAO calls reuse the pooled connection's prepared statements.
+	 */
+	@Test
+	public void testPreparedStatementCache() throws SQLException {
+		dao.getQuestionsPage(null, 0, 10);
+		ConnectionPool.Stats before = ConnectionPool.getInstance().getStats();
+		for (int i = 0; i < 5; i++) assertFalse(dao.getQuestionsPage(null, 0, 10).getAllQuestions().isEmpty());
+		ConnectionPool.Stats after = ConnectionPool.getInstance().getStats();
+		assertTrue("Repeated lookups should hit the statement cache", after.getStatementHits() - before.getStatementHits() >= 5);
+
+		// a returned statement is reset and unusable through the old handle
+		java.sql.PreparedStatement held;
+		try (java.sql.Connection c = ConnectionPool.getInstance().getConnection();
+				java.sql.PreparedStatement p = c.prepareStatement("SELECT ?")) {
+			held = p;
+			p.setInt(1, 7);
+			try (java.sql.ResultSet rs = p.executeQuery()) {
+				assertTrue(rs.next());
+				assertEquals(7, rs.getInt(1));
+			}
+		}
+		assertTrue(held.isClosed());
+	}
+
+	/**
+	 * Tests that by-id reads are cached as copies and that writes invalidate them.
+	 */
+	@Test
+	public void testEntityCacheInvalidation() throws SQLException {
+		int id = question.getQuestionId();
+		Question first = dao.getQuestionById(id);
+		first.setTitle("Changed only locally");
+		long hits = dao.getEntityCacheStats().get(0).getHits();
+		Question second = dao.getQuestionById(id);
+		assertEquals("Cached copy is not shared with callers", question.getTitle(), second.getTitle());
+		assertTrue(dao.getEntityCacheStats().get(0).getHits() > hits);
+
+		second.setTitle("Edited title");
+		dao.updateQuestion(second);
+		assertEquals("Edited title", dao.getQuestionById(id).getTitle());
+
+		int answers = dao.getAnswersForQuestion(id).getAllAnswers().size();
+		Answer extra = new Answer(id, "Another answer", staff.getUserName());
+		dao.createAnswer(extra);
+		assertEquals(answers + 1, dao.getAnswersForQuestion(id).getAllAnswers().size());
+		assertEquals(answers + 1, dao.getQuestionById(id).getAnswerCount());
+		assertEquals("Another answer", dao.getAnswerById(extra.getAnswerId()).getContent());
+
+		dao.deleteAnswer(extra.getAnswerId());
+		assertNull(dao.getAnswerById(extra.getAnswerId()));
+		assertEquals(answers, dao.getAnswersForQuestion(id).getAllAnswers().size());
+	}
+
+	/**
+	 * Tests that list summaries carry a content preview instead of the body.
+	 */
+	@Test
+	public void testSummaryProjections() throws SQLException {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < 50; i++) body.append("long body ");
+		Question big = new Question("Summary projection", body.toString(), staff.getUserName());
+		dao.createQuestion(big);
+		try {
+			Question row = dao.getQuestionSummaries().getAllQuestions().stream()
+					.filter(q -> q.getQuestionId() == big.getQuestionId()).findFirst().orElse(null);
+			assertNotNull(row);
+			assertNull("Summary rows do not load the body", row.getContent());
+			assertEquals("Summary projection", row.getTitle());
+			assertEquals(80, row.getPreview().length());
+			assertTrue(row.getPreview().endsWith("..."));
+			assertEquals(dao.getAllQuestions().size(), dao.getQuestionSummaries().size());
+
+			Answer a = dao.getAnswerSummaries().getAnswerById(answer.getAnswerId());
+			assertNotNull(a);
+			assertNull(a.getContent());
+			assertEquals(answer.getContent(), a.getPreview());
+			assertEquals(body.toString(), dao.getQuestionById(big.getQuestionId()).getContent());
+		} finally {
+			dao.deleteQuestion(big.getQuestionId());
+		}
+	}
+
+	/**
+	 * Tests bulk export and re-import of board data as JSON Lines.
+	 */
+	@Test
+	public void testBoardDataTransfer() throws Exception {
+		BoardDataTransfer transfer = new BoardDataTransfer();
+		java.io.StringWriter out = new java.io.StringWriter();
+		BoardDataTransfer.Report exported = transfer.exportTo(out);
+		assertTrue(exported.getCount("question") >= 1);
+		assertTrue(out.toString().contains("\"type\":\"answer\",\"answerId\":" + answer.getAnswerId() + ","));
+
+		// re-importing exported rows replaces them in place (only this test's question and answer)
+		String own = java.util.Arrays.stream(out.toString().split("\n"))
+				.filter(l -> l.startsWith("{\"type\":\"question\",\"questionId\":" + question.getQuestionId() + ",")
+						|| l.startsWith("{\"type\":\"answer\",\"answerId\":" + answer.getAnswerId() + ","))
+				.collect(java.util.stream.Collectors.joining("\n"));
+		int questions = dao.getAllQuestions().size();
+		BoardDataTransfer.Report reimported = transfer.importFrom(new java.io.StringReader(own));
+		assertEquals(2, reimported.getRows());
+		assertEquals(questions, dao.getAllQuestions().size());
+		assertEquals(question.getTitle(), dao.getQuestionById(question.getQuestionId()).getTitle());
+
+		// seed just past the ids in use, so the identity restart stays close to them
+		int qid = Math.max(dao.getAllQuestions().asList().stream().mapToInt(Question::getQuestionId).max().orElse(0),
+				dao.getAllAnswers().asList().stream().mapToInt(Answer::getAnswerId).max().orElse(0)) + 10;
+		String seed = "{\"type\":\"question\",\"questionId\":" + qid + ",\"title\":\"Seeded \\\"quoted\\\"\",\"content\":\"Line1\\nLine2\",\"authorUserName\":\"seed\"}\n"
+				+ "{\"type\":\"answer\",\"answerId\":" + qid + ",\"questionId\":" + qid + ",\"content\":\"Seeded answer\",\"authorUserName\":\"seed\",\"isAccepted\":true}\n";
+		try {
+			BoardDataTransfer.Report seeded = transfer.importFrom(new java.io.StringReader(seed));
+			assertEquals(2, seeded.getRows());
+			Question q = dao.getQuestionById(qid);
+			assertEquals("Seeded \"quoted\"", q.getTitle());
+			assertEquals("Line1\nLine2", q.getContent());
+			assertEquals("Answer stats are recomputed", 1, q.getAnswerCount());
+			assertEquals(Integer.valueOf(qid), q.getAcceptedAnswerId());
+			Question next = new Question("After import", "Body", staff.getUserName());
+			assertTrue("Ids continue past imported rows", dao.createQuestion(next) > qid);
+			dao.deleteQuestion(next.getQuestionId());
+		} finally {
+			dao.deleteQuestion(qid);
+		}
+
+		try {
+			transfer.importFrom(new java.io.StringReader("\n{\"type\":\"question\",\"questionId\":1"));
+			fail("Malformed line should be rejected");
+		} catch (java.io.IOException e) {
+			assertTrue(e.getMessage().startsWith("Line 2:"));
+		}
+	}
+
+	/**
+	 * Tests that a catch-up read still applies a row whose id is below one it already applied
+	 * (an insert that committed after a later one), and applies it only once.
+	 */
+	@Test
+	public void testCatchUpAppliesLateCommits() throws SQLException {
+		String later = "LATER " + System.nanoTime();
+		String late = "LATE " + System.nanoTime();
+		dao.getLogs();
+		try (java.sql.Connection c = ConnectionPool.getInstance().getConnection();
+				java.sql.Statement st = c.createStatement()) {
+			long max;
+			try (java.sql.ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(logId), 0) FROM admin_logs")) {
+				rs.next();
+				max = rs.getLong(1);
+			}
+			// the row with the larger id commits and is read first
+			st.executeUpdate("INSERT INTO admin_logs(logId, entry, author) VALUES (" + (max + 2) + ", '" + later + "', NULL)");
+			assertTrue(dao.getLogs().contains(later));
+			st.executeUpdate("INSERT INTO admin_logs(logId, entry, author) VALUES (" + (max + 1) + ", '" + late + "', NULL)");
+			st.executeUpdate("ALTER TABLE admin_logs ALTER COLUMN logId RESTART WITH " + (max + 3));
+		}
+		dao.getLogs();
+		List<String> logs = dao.getLogs();
+		assertEquals(1, logs.stream().filter(late::equals).count());
+		assertEquals(1, logs.stream().filter(later::equals).count());
+	}
+
+	/**
+	 * Tests that search pages are taken from the matches of the searched table only, in full
+	 * rank order: answer hits cannot crowd out question hits, and pages neither repeat nor skip.
+	 */
+	@Test
+	public void testSearchLimitsAfterFilteringTable() throws SQLException {
+		String word = "zq" + Long.toString(System.nanoTime(), 36);
+		Question match = new Question("Search paging", "Mentions " + word + " once", "student1");
+		match.setQuestionId(dao.createQuestion(match));
+		java.util.Set<Integer> answerIds = new java.util.HashSet<>();
+		try {
+			for (int i = 0; i < 10; i++) {
+				Answer a = new Answer(match.getQuestionId(), "Answer " + i + " about " + word, "student2");
+				answerIds.add(dao.createAnswer(a));
+			}
+			Questions questions = dao.searchQuestions(word, 5, 0);
+			assertEquals(1, questions.getAllQuestions().size());
+			assertNotNull(questions.getQuestionById(match.getQuestionId()));
+
+			java.util.Set<Integer> paged = new java.util.HashSet<>();
+			for (int offset = 0; offset < 10; offset += 4) {
+				for (Answer a : dao.searchAnswers(word, 4, offset).getAllAnswers()) {
+					assertTrue("No answer appears on two pages", paged.add(a.getAnswerId()));
+				}
+			}
+			assertEquals(answerIds, paged);
+		} finally {
+			dao.deleteQuestion(match.getQuestionId());
+		}
+	}
+
+	/**
+	 * Tests that editing a question moves its last activity to the edit time, but not back
+	 * past newer answer activity.
+	 */
+	@Test
+	public void testEditUpdatesLastActivity() throws SQLException {
+		int id = question.getQuestionId();
+		try (java.sql.Connection c = ConnectionPool.getInstance().getConnection();
+				java.sql.Statement st = c.createStatement()) {
+			st.executeUpdate("UPDATE questions SET updatedAt = TIMESTAMP '2020-01-01 00:00:00', lastActivityAt = TIMESTAMP '2020-01-01 00:00:00' WHERE questionId = " + id);
+		}
+		Question q = dao.getQuestionById(id);
+		q.setTitle("Edited title");
+		dao.updateQuestion(q);
+		q = dao.getQuestionById(id);
+		assertTrue(q.getUpdatedAt().getYear() > 2020);
+		assertEquals("Last activity is the edit itself", q.getUpdatedAt(), q.getLastActivityAt());
+
+		try (java.sql.Connection c = ConnectionPool.getInstance().getConnection();
+				java.sql.Statement st = c.createStatement()) {
+			st.executeUpdate("UPDATE questions SET lastActivityAt = TIMESTAMP '2999-01-01 00:00:00' WHERE questionId = " + id);
+		}
+		q.setTitle("Edited again");
+		dao.updateQuestion(q);
+		assertEquals("Newer activity is kept", 2999, dao.getQuestionById(id).getLastActivityAt().getYear());
+	}
 }